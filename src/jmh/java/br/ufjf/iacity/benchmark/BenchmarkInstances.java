@@ -0,0 +1,110 @@
+package br.ufjf.iacity.benchmark;
+
+import br.ufjf.iacity.graph.CityGraph;
+import br.ufjf.iacity.graph.CityNodeGraph;
+import br.ufjf.iacity.graph.CompiledCityGraph;
+import br.ufjf.iacity.helper.file.FileHelper;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Instâncias e consultas usadas pelos benchmarks.
+ * 
+ * As consultas são sorteadas com semente fixa, de forma que a mesma versão do
+ * grafo gera sempre os mesmos pares de origem/destino e os resultados de
+ * versões diferentes podem ser comparados.
+ */
+final class BenchmarkInstances 
+{
+    // Semente dos pares de origem/destino
+    static final long QUERY_SEED = 42;
+    
+    // Quantidade de pares de origem/destino por instância
+    static final int QUERY_COUNT = 4;
+    
+    private BenchmarkInstances()
+    {
+    }
+    
+    /**
+     * @param instance Nome da instância (Ex.: mg-75)
+     * @return Caminho do arquivo da instância em workdir/instance
+     */
+    static String instancePath(String instance)
+    {
+        return FileHelper.WORK_DIR + "instance" + File.separator + FileHelper.formatFilePath(instance);
+    }
+    
+    static CityGraph loadInstance(String instance) throws IOException
+    {
+        return FileHelper.loadGraphFile(instancePath(instance));
+    }
+    
+    /**
+     * Sorteia pares de origem/destino em que o destino é alcançável a partir
+     * da origem, para que todos os algoritmos terminem com sucesso
+     * 
+     * @param cityGraph Grafo de cidades
+     * @param count Quantidade de pares
+     * @param seed Semente do sorteio
+     * @return Pares {origem, destino}
+     */
+    static List<CityNodeGraph[]> createQueryPairs(CityGraph cityGraph, int count, long seed)
+    {
+        CompiledCityGraph graph = cityGraph.getCompiledGraph();
+        Random random = new Random(seed);
+        List<CityNodeGraph[]> pairList = new ArrayList<>(count);
+        
+        while (pairList.size() < count)
+        {
+            int start = random.nextInt(graph.getNodeCount());
+            int[] reachable = reachableNodes(graph, start);
+            
+            if (reachable.length > 0)
+            {
+                int end = reachable[random.nextInt(reachable.length)];
+                pairList.add(new CityNodeGraph[] { graph.getNode(start), graph.getNode(end) });
+            }
+        }
+        
+        return pairList;
+    }
+    
+    /**
+     * @return Nós alcançáveis a partir do nó inicial (Exceto ele próprio), em ordem de id
+     */
+    private static int[] reachableNodes(CompiledCityGraph graph, int start)
+    {
+        BitSet visited = new BitSet(graph.getNodeCount());
+        Deque<Integer> queue = new ArrayDeque<>();
+        
+        visited.set(start);
+        queue.add(start);
+        
+        while (!queue.isEmpty())
+        {
+            int node = queue.poll();
+            
+            for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++)
+            {
+                int target = graph.getEdgeTarget(edge);
+                
+                if (!visited.get(target))
+                {
+                    visited.set(target);
+                    queue.add(target);
+                }
+            }
+        }
+        
+        visited.clear(start);
+        
+        return visited.stream().toArray();
+    }
+}
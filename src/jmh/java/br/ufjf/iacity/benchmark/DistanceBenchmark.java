@@ -0,0 +1,67 @@
+package br.ufjf.iacity.benchmark;
+
+import br.ufjf.iacity.graph.CompiledCityGraph;
+import br.ufjf.iacity.helper.coordinate.DistanceKernel;
+import br.ufjf.iacity.helper.coordinate.GeoCoordinate;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede cada fórmula de distância (DistanceKernel) sobre pares de cidades de
+ * mg-75 sorteados, como na heurística dos métodos informados
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DistanceBenchmark
+{
+    // Quantidade de pares de coordenadas (Potência de 2)
+    private static final int PAIR_COUNT = 1024;
+
+    @Param({"Haversine", "Chord"})
+    private DistanceKernel kernel;
+
+    private GeoCoordinate[] sources;
+    private GeoCoordinate[] targets;
+    private int nextPair;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        CompiledCityGraph graph = BenchmarkInstances.loadInstance("mg-75").getCompiledGraph();
+        Random random = new Random(BenchmarkInstances.QUERY_SEED);
+
+        this.sources = new GeoCoordinate[PAIR_COUNT];
+        this.targets = new GeoCoordinate[PAIR_COUNT];
+
+        for (int i = 0; i < PAIR_COUNT; i++)
+        {
+            sources[i] = graph.getNode(random.nextInt(graph.getNodeCount())).getCity().getCoordinate();
+            targets[i] = graph.getNode(random.nextInt(graph.getNodeCount())).getCity().getCoordinate();
+        }
+    }
+
+    @Benchmark
+    public double distanceTo()
+    {
+        int pair = nextPair;
+        nextPair = (pair + 1) & (PAIR_COUNT - 1);
+
+        return sources[pair].distanceTo(targets[pair], kernel);
+    }
+}
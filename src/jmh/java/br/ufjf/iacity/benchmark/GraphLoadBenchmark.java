@@ -0,0 +1,85 @@
+package br.ufjf.iacity.benchmark;
+
+import br.ufjf.iacity.graph.CityGraph;
+import br.ufjf.iacity.helper.file.FileHelper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede o carregamento de uma instância: leitura completa do arquivo
+ * (FileHelper.loadGraphFile) e apenas a construção do grafo a partir das
+ * linhas já lidas (CityGraph.createGraphFromStringsList)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GraphLoadBenchmark
+{
+    @Param({"mg-25", "mg-50", "mg-75", "br-25"})
+    private String instance;
+
+    private String instancePath;
+    private List<String> verticesList;
+    private List<String> adjacencyList;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        this.instancePath = BenchmarkInstances.instancePath(instance);
+        this.verticesList = new ArrayList<>();
+        this.adjacencyList = new ArrayList<>();
+
+        List<String> lines = FileHelper.loadTxtFile(instancePath).collect(Collectors.toList());
+        Iterator<String> lineIt = lines.iterator();
+
+        while(lineIt.hasNext())
+        {
+            String line = lineIt.next();
+
+            if(line.equalsIgnoreCase("BEGIN_VERTICES"))
+            {
+                while(lineIt.hasNext() && !(line = lineIt.next()).equalsIgnoreCase("END_VERTICES"))
+                {
+                    verticesList.add(line);
+                }
+            }
+            else if(line.equalsIgnoreCase("BEGIN_EDGES"))
+            {
+                while(lineIt.hasNext() && !(line = lineIt.next()).equalsIgnoreCase("END_EDGES"))
+                {
+                    adjacencyList.add(line);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public CityGraph loadGraphFile() throws IOException
+    {
+        return FileHelper.loadGraphFile(instancePath);
+    }
+
+    @Benchmark
+    public CityGraph createGraphFromStringsList()
+    {
+        return CityGraph.createGraphFromStringsList(verticesList, adjacencyList);
+    }
+}
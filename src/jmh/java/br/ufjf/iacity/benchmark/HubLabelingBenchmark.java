@@ -0,0 +1,77 @@
+package br.ufjf.iacity.benchmark;
+
+import br.ufjf.iacity.graph.CompiledCityGraph;
+import br.ufjf.iacity.graph.HubLabeling;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede uma consulta de distância e uma de caminho pelos rótulos de hubs,
+ * sobre pares de nós sorteados (O cálculo dos rótulos fica fora da medição)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HubLabelingBenchmark
+{
+    // Quantidade de pares de nós (Potência de 2)
+    private static final int PAIR_COUNT = 1024;
+
+    @Param({"mg-25", "mg-75", "br-25"})
+    private String instance;
+
+    private HubLabeling hubLabeling;
+    private int[] sources;
+    private int[] targets;
+    private int nextPair;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        CompiledCityGraph graph = BenchmarkInstances.loadInstance(instance).getCompiledGraph();
+        Random random = new Random(BenchmarkInstances.QUERY_SEED);
+
+        this.hubLabeling = HubLabeling.create(graph);
+        this.sources = new int[PAIR_COUNT];
+        this.targets = new int[PAIR_COUNT];
+
+        for (int i = 0; i < PAIR_COUNT; i++)
+        {
+            sources[i] = random.nextInt(graph.getNodeCount());
+            targets[i] = random.nextInt(graph.getNodeCount());
+        }
+    }
+
+    @Benchmark
+    public double getDistance()
+    {
+        int pair = nextPair;
+        nextPair = (pair + 1) & (PAIR_COUNT - 1);
+
+        return hubLabeling.getDistance(sources[pair], targets[pair]);
+    }
+
+    @Benchmark
+    public int[] getPath()
+    {
+        int pair = nextPair;
+        nextPair = (pair + 1) & (PAIR_COUNT - 1);
+
+        return hubLabeling.getPath(sources[pair], targets[pair]);
+    }
+}
@@ -0,0 +1,120 @@
+package br.ufjf.iacity.benchmark;
+
+import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch;
+import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch.SearchMode;
+import br.ufjf.iacity.algorithm.AlgorithmSearchFactory;
+import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.algorithm.transition.AlphabeticalTransition;
+import br.ufjf.iacity.graph.ArcFlags;
+import br.ufjf.iacity.graph.CityGraph;
+import br.ufjf.iacity.graph.CityNodeGraph;
+import br.ufjf.iacity.graph.ContractionHierarchy;
+import br.ufjf.iacity.graph.DijkstraEngine;
+import br.ufjf.iacity.graph.HubLabeling;
+import br.ufjf.iacity.graph.LandmarkTable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mede cada algoritmo de busca (SearchMode) respondendo os mesmos pares de
+ * origem/destino, sorteados com semente fixa (BenchmarkInstances). Cada 
+ * operação executa todas as consultas, incluindo a criação da busca.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchBenchmark
+{
+    @Param({"mg-25", "mg-50", "mg-75", "br-25"})
+    private String instance;
+    
+    @Param({"Backtracking", "Breadth", "Depth", "Ordered", "BestFirst", "A", "IDA", "ALT", "CH", "HL", "BiBreadth", "BiA", "Dijkstra"})
+    private String mode;
+    
+    // Regiões dos arc flags (0: arestas não são podadas)
+    @Param({"0"})
+    private int regionCount;
+    
+    private CityGraph cityGraph;
+    private SearchMode searchMode;
+    private List<CityNodeGraph[]> queryPairs;
+    private LandmarkTable landmarkTable;
+    private ContractionHierarchy contractionHierarchy;
+    private HubLabeling hubLabeling;
+    private ArcFlags arcFlags;
+    private DijkstraEngine dijkstraEngine;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        this.cityGraph = BenchmarkInstances.loadInstance(instance);
+        this.searchMode = SearchMode.valueOf(mode);
+        this.queryPairs = BenchmarkInstances.createQueryPairs(cityGraph, BenchmarkInstances.QUERY_COUNT, BenchmarkInstances.QUERY_SEED);
+        
+        // O pré-processamento fica fora da medição, como os arquivos .alt, .ch, .hl e .af da instância
+        if (searchMode == SearchMode.ALT)
+        {
+            this.landmarkTable = LandmarkTable.create(cityGraph.getCompiledGraph(), LandmarkTable.DEFAULT_LANDMARK_COUNT);
+        }
+        else if (searchMode == SearchMode.CH)
+        {
+            this.contractionHierarchy = ContractionHierarchy.create(cityGraph.getCompiledGraph());
+        }
+        else if (searchMode == SearchMode.HL)
+        {
+            this.hubLabeling = HubLabeling.create(cityGraph.getCompiledGraph());
+        }
+        else if (searchMode == SearchMode.Dijkstra)
+        {
+            // O cache de árvores é mantido entre as iterações, como durante um lote do IACityCLI
+            this.dijkstraEngine = new DijkstraEngine(cityGraph.getCompiledGraph());
+        }
+        
+        if (regionCount > 0)
+        {
+            this.arcFlags = ArcFlags.create(cityGraph.getCompiledGraph(), regionCount);
+        }
+    }
+    
+    @Benchmark
+    public void search(Blackhole blackhole)
+    {
+        for (CityNodeGraph[] pair : queryPairs)
+        {
+            AlgorithmParameter parameter = new AlgorithmParameter();
+            
+            parameter.setGraph(cityGraph);
+            parameter.setTransition(new AlphabeticalTransition());
+            parameter.setStartCityNode(pair[0]);
+            parameter.setEndCityNode(pair[1]);
+            parameter.setSearchMode(searchMode);
+            parameter.setLandmarkTable(landmarkTable);
+            parameter.setContractionHierarchy(contractionHierarchy);
+            parameter.setHubLabeling(hubLabeling);
+            parameter.setArcFlags(arcFlags);
+            parameter.setDijkstraEngine(dijkstraEngine);
+            
+            AbstractAlgorithmSearch algorithmSearch = AlgorithmSearchFactory.createSearch(parameter);
+            algorithmSearch.search();
+            
+            blackhole.consume(algorithmSearch.getSearchState());
+            blackhole.consume(algorithmSearch.getSearchTree().getEndNode());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package br.ufjf.iacity.benchmark;
+
+import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch;
+import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch.SearchMode;
+import br.ufjf.iacity.algorithm.AlgorithmSearchFactory;
+import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.algorithm.transition.AlphabeticalTransition;
+import br.ufjf.iacity.graph.CityGraph;
+import br.ufjf.iacity.graph.CityNodeGraph;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mede o pós-processamento de buscas já terminadas: montagem do caminho e 
+ * do custo da solução e cálculo das estatísticas da árvore de busca, que é o
+ * que a interface e FileHelper.saveResultFile leem depois de cada busca
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchResultBenchmark
+{
+    @Param({"mg-25", "mg-50", "mg-75", "br-25"})
+    private String instance;
+    
+    @Param({"Breadth", "A"})
+    private String mode;
+    
+    private List<AbstractAlgorithmSearch> searchList;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        CityGraph cityGraph = BenchmarkInstances.loadInstance(instance);
+        List<CityNodeGraph[]> queryPairs = BenchmarkInstances.createQueryPairs(cityGraph, BenchmarkInstances.QUERY_COUNT, BenchmarkInstances.QUERY_SEED);
+        
+        this.searchList = new ArrayList<>(queryPairs.size());
+        
+        for (CityNodeGraph[] pair : queryPairs)
+        {
+            AlgorithmParameter parameter = new AlgorithmParameter();
+            
+            parameter.setGraph(cityGraph);
+            parameter.setTransition(new AlphabeticalTransition());
+            parameter.setStartCityNode(pair[0]);
+            parameter.setEndCityNode(pair[1]);
+            parameter.setSearchMode(SearchMode.valueOf(mode));
+            
+            AbstractAlgorithmSearch algorithmSearch = AlgorithmSearchFactory.createSearch(parameter);
+            algorithmSearch.search();
+            
+            this.searchList.add(algorithmSearch);
+        }
+    }
+    
+    @Benchmark
+    public void solution(Blackhole blackhole)
+    {
+        for (AbstractAlgorithmSearch algorithmSearch : searchList)
+        {
+            blackhole.consume(algorithmSearch.getSolutionList());
+            blackhole.consume(algorithmSearch.getSolutionPath());
+            blackhole.consume(algorithmSearch.getSolutionCost());
+            blackhole.consume(algorithmSearch.getSolutionSearchDepth());
+        }
+    }
+    
+    @Benchmark
+    public void statistics(Blackhole blackhole)
+    {
+        for (AbstractAlgorithmSearch algorithmSearch : searchList)
+        {
+            blackhole.consume(algorithmSearch.getSolutionExpandedNodeCount());
+            blackhole.consume(algorithmSearch.getSolutionVisitedNodeCount());
+            blackhole.consume(algorithmSearch.getSolutionTreeDepth());
+            blackhole.consume(algorithmSearch.getSolutionAverageFactorBranching());
+        }
+    }
+}
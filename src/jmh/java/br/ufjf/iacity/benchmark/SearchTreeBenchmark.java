@@ -0,0 +1,95 @@
+package br.ufjf.iacity.benchmark;
+
+import br.ufjf.iacity.algorithm.search.SearchNode;
+import br.ufjf.iacity.algorithm.search.SearchTree;
+import br.ufjf.iacity.graph.CityGraph;
+import br.ufjf.iacity.graph.CompiledCityGraph;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a inserção de um nó na árvore de busca quando o pai do nó não é o nó
+ * atual da árvore (Caso da substituição de estados no A*), para árvores de 
+ * tamanhos diferentes montadas com as cidades de mg-75. O custo por operação
+ * deve ser o mesmo para qualquer tamanho de árvore.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchTreeBenchmark
+{
+    // Quantidade de pais diferentes usados pelas inserções
+    private static final int PARENT_COUNT = 1024;
+    
+    @Param({"1000", "10000", "100000"})
+    private int treeSize;
+    
+    private CompiledCityGraph graph;
+    private SearchTree searchTree;
+    private SearchNode[] parentNodes;
+    private int nextParent;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        CityGraph cityGraph = BenchmarkInstances.loadInstance("mg-75");
+        Random random = new Random(BenchmarkInstances.QUERY_SEED);
+        
+        this.graph = cityGraph.getCompiledGraph();
+        this.searchTree = new SearchTree();
+        
+        // Monta a árvore ligando cada novo nó a um nó já existente, sorteado
+        SearchNode[] treeNodes = new SearchNode[treeSize];
+        treeNodes[0] = new SearchNode(null, 0, graph.getNode(0));
+        searchTree.addChildToCurrentNode(treeNodes[0]);
+        
+        for (int i = 1; i < treeSize; i++)
+        {
+            SearchNode parentNode = treeNodes[random.nextInt(i)];
+            treeNodes[i] = new SearchNode(parentNode, parentNode.getTreeLevel() + 1, graph.getNode(random.nextInt(graph.getNodeCount())));
+            searchTree.addChildToCurrentNode(treeNodes[i]);
+        }
+        
+        // O nó atual fica na raíz, os pais das inserções são sorteados na árvore toda
+        searchTree.setCurrentNode(treeNodes[0]);
+        
+        this.parentNodes = new SearchNode[PARENT_COUNT];
+        
+        for (int i = 0; i < PARENT_COUNT; i++)
+        {
+            parentNodes[i] = treeNodes[1 + random.nextInt(treeSize - 1)];
+        }
+    }
+    
+    /**
+     * Insere e remove um filho, mantendo o tamanho da árvore constante
+     */
+    @Benchmark
+    public SearchNode addChildWithOtherParent()
+    {
+        SearchNode parentNode = parentNodes[nextParent];
+        nextParent = (nextParent + 1) % PARENT_COUNT;
+        
+        SearchNode childNode = new SearchNode(parentNode, parentNode.getTreeLevel() + 1, graph.getNode(nextParent % graph.getNodeCount()));
+        
+        searchTree.addChildToCurrentNode(childNode);
+        searchTree.removeChildNode(childNode);
+        
+        return childNode;
+    }
+}
@@ -1,18 +1,31 @@
 package br.ufjf.iacity.algorithm;
 
 import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.algorithm.search.HeuristicTable;
+import br.ufjf.iacity.algorithm.search.SearchContext;
 import br.ufjf.iacity.algorithm.search.SearchNode;
+import br.ufjf.iacity.algorithm.search.SearchNodeSet;
+import br.ufjf.iacity.algorithm.search.SearchNodePriorityQueue;
 import br.ufjf.iacity.algorithm.search.SearchTree;
-import br.ufjf.iacity.helper.sort.QuickSort;
-import br.ufjf.iacity.model.City;
-import java.util.LinkedList;
-import java.util.List;
+import br.ufjf.iacity.graph.LandmarkTable;
+import br.ufjf.iacity.helper.coordinate.DistanceKernel;
+import br.ufjf.iacity.helper.sort.QuickSort.SortType;
 
 /**
  * Algoritmo A*. Método informado de busca
+ * 
+ * Também atende o modo ALT (A*, Landmarks, Triangle inequality), em que h(n)
+ * é o maior valor entre a distância em linha reta e os limites inferiores
+ * dados pelos marcos do grafo (AlgorithmParameter.getLandmarkTable)
  */
 public class ASearch extends AbstractAlgorithmSearch
 {
+    // Fórmula da distância em linha reta usada pela heurística
+    private final DistanceKernel distanceKernel;
+    
+    // Marcos usados pela heurística no modo ALT (null no modo A)
+    private final LandmarkTable landmarkTable;
+    
     /**
      * @param parameter Parâmetros de inicialização para o algoritmo de busca
      * 
@@ -21,7 +34,8 @@ public class ASearch extends AbstractAlgorithmSearch
     public ASearch(AlgorithmParameter parameter) throws IllegalArgumentException
     {
         if ((parameter.getGraph() == null) || (parameter.getTransition() == null) || 
-                (parameter.getStartCityNode() == null) || (parameter.getEndCityNode() == null))
+                (parameter.getStartCityNode() == null) || (parameter.getEndCityNode() == null) || 
+                (parameter.getDistanceKernel() == null))
         {
             throw new IllegalArgumentException("Não é permitido nenhum parâmetro nulo para o construtor da classe ASearch");
         }
@@ -31,13 +45,31 @@ public class ASearch extends AbstractAlgorithmSearch
         this.transition = parameter.getTransition();
         
         // Inicializa a árvore de busca e define o nó inicial e final
-        this.searchTree = new SearchTree();
+        this.searchTree = new SearchTree(!parameter.isEnableLeanMode());
         this.searchTree.setStartNode(new SearchNode(null, 0, parameter.getStartCityNode()));
         this.searchTree.setEndNode(new SearchNode(null, 0, parameter.getEndCityNode()));
         
-        // Configura opções a serem usadas durante a busca
-        SearchNode.setEnableDuplicate(parameter.isEnableDuplicated());
-        SearchNode.setEnableCost(true);
+        // Define a fórmula da distância usada pela heurística
+        this.distanceKernel = parameter.getDistanceKernel();
+        
+        // Configura opções a serem usadas durante a busca (Contexto desta execução)
+        this.searchContext = new SearchContext(this.cityGraph.getCompiledGraph(), parameter.isEnableDuplicated(), true,
+                parameter.getArcFlags(), parameter.getEndCityNode());
+        
+        // No modo ALT, a heurística também usa os limites dados pelos marcos do grafo
+        if (SearchMode.ALT.equals(parameter.getSearchMode()))
+        {
+            if ((parameter.getLandmarkTable() == null) || !parameter.getLandmarkTable().isCompatible(this.searchContext.getCompiledGraph()))
+            {
+                throw new IllegalArgumentException("O modo ALT precisa de uma tabela de marcos calculada para o grafo da busca");
+            }
+            
+            this.landmarkTable = parameter.getLandmarkTable();
+        }
+        else
+        {
+            this.landmarkTable = null;
+        }
         
         // Define o estado atual da busca
         this.setSearchState(SearchState.Stopped);
@@ -59,14 +91,18 @@ public class ASearch extends AbstractAlgorithmSearch
         // Marca o tempo inicial
         long startSearchTime = System.nanoTime();
         
+        // Heurística de cada nó até o nó final, calculada uma vez por nó
+        HeuristicTable heuristicTable = new HeuristicTable(searchContext.getCompiledGraph(), 
+                getSearchTree().getEndNode().getCityNodeGraph(), distanceKernel, landmarkTable);
+        
         // Cria lista de nós abertos
-        List<SearchNode> openedNodeList = new LinkedList<>();
+        SearchNodePriorityQueue openedNodeQueue = new SearchNodePriorityQueue(SortType.EvalFunction);
 
-        // Cria a lista de nós fechados
-        List<SearchNode> closedNodeList = new LinkedList<>();
+        // Cria o conjunto de nós fechados
+        SearchNodeSet closedNodeSet = new SearchNodeSet();
         
         // Adiciona o nó inicial na lista de abertos
-        this.addInOpenedNodeList(SearchMode.A, openedNodeList, getSearchTree().getStartNode());
+        openedNodeQueue.add(getSearchTree().getStartNode());
         
         //Adiciona o nó na árvore de busca
         this.getSearchTree().addChildToCurrentNode(getSearchTree().getStartNode());
@@ -74,8 +110,11 @@ public class ASearch extends AbstractAlgorithmSearch
         // Enquanto não for obtido sucesso ou fracasso
         while (!(getSearchState().equals(SearchState.Success) || getSearchState().equals(SearchState.Failed)))
         {
+            // Atualiza o tamanho máximo da lista de abertos
+            this.getStatistics().updateOpenListSize(openedNodeQueue.size());
+            
             // Verifica se a lista de abertos está vazia
-            if(openedNodeList.isEmpty())
+            if(openedNodeQueue.isEmpty())
             {
                 // Se sim, a busca terminou com fracasso
                 this.setSearchState(SearchState.Failed);
@@ -88,7 +127,7 @@ public class ASearch extends AbstractAlgorithmSearch
                  * com o modo de busca usado
                  * 
                  */
-                SearchNode openedSearchNode = this.getElementFromOpenedNodeList(SearchMode.A, openedNodeList);
+                SearchNode openedSearchNode = openedNodeQueue.peek();
  
                 // Altera o nó atual para o novo nó
                 this.getSearchTree().setCurrentNode(openedSearchNode);
@@ -102,7 +141,7 @@ public class ASearch extends AbstractAlgorithmSearch
                  * lista de fechados
                  *
                  */
-                closedNodeList.add(removeFromOpenedNodeList(SearchMode.A, openedNodeList));
+                closedNodeSet.add(openedNodeQueue.poll());
                 
                 // Verifica se o nó buscado foi encontrado
                 if(openedSearchNode.getIdNode().equalsIgnoreCase(getSearchTree().getEndNode().getIdNode()))
@@ -123,7 +162,7 @@ public class ASearch extends AbstractAlgorithmSearch
                      */
                     boolean isExpanded = false;
                     SearchNode currentNode = getSearchTree().getCurrentNode();
-                    SearchNode nextSearchNode = this.transition.applyTransition(currentNode);
+                    SearchNode nextSearchNode = this.transition.applyTransition(searchContext, currentNode);
                     
                     // Enquanto há transição aplicável, continue
                     while(nextSearchNode != null)
@@ -134,75 +173,68 @@ public class ASearch extends AbstractAlgorithmSearch
                          * o estado atual e h(n) é a distância em linha reta do 
                          * estado atual até o estado final
                          */
-                        City nextCity = nextSearchNode.getCityNodeGraph().getCity();
-                        City endCity = this.getSearchTree().getEndNode().getCityNodeGraph().getCity();
                         
                         // Define o custo do estado
                         double cost = currentNode.getCost() + nextSearchNode.getCost();
                         nextSearchNode.setCost(cost);
                         
                         // Define o valor da função de avaliação
-                        nextSearchNode.setEvalFunctionValue(cost + nextCity.getCoordinate().distanceTo(endCity.getCoordinate()));
+                        nextSearchNode.setEvalFunctionValue(cost + heuristicTable.getValue(nextSearchNode));
                         
                         /**
                          *
                          * Verifica se não há ancestral e se também já não está
-                         * nas listas de abertos e fechados
+                         * nas listas de abertos e fechados. Estados com h(n)
+                         * infinito são descartados: os marcos (Modo ALT) 
+                         * provaram que o estado final não é alcançável a 
+                         * partir deles
                          *
                          */
-                        if (!checkAncestral(nextSearchNode))
+                        if (!Double.isInfinite(nextSearchNode.getEvalFunctionValue()) && !checkAncestral(nextSearchNode))
                         {
                             // Verifica se podas serão permitidas (enableDuplicated)
-                            if(!SearchNode.isEnableDuplicate())
+                            if(!searchContext.isEnableDuplicate())
                             {
                                 /**
                                  * Verifica se não está na lista de fechados.
                                  * Caso esteja, o novo estado não deve ser adicionado
                                  */
-                                if(!checkContains(closedNodeList, nextSearchNode))
+                                if(!checkContains(closedNodeSet, nextSearchNode))
                                 {
+                                    // Busca pelo estado igual na lista de abertos
+                                    SearchNode openedNode = openedNodeQueue.find(nextSearchNode);
+                                    
                                     // Verifica se está na lista de abertos
-                                    if(checkContains(openedNodeList, nextSearchNode))
+                                    if(openedNode != null)
                                     {
-                                        // Busca pelo estado igual na lista de abertos
-                                        for(SearchNode openedNode : openedNodeList)
+                                        /**
+                                         * Compara o custo dos estados
+                                         * para verificar qual deve ser mantido
+                                         * na lista de abertos
+                                         */
+                                        if(nextSearchNode.compareTo(openedNode) < 0)
                                         {
-                                            if(openedNode.getIdNode().equalsIgnoreCase(nextSearchNode.getIdNode()))
-                                            {
-                                                /**
-                                                 * Compara o custo dos estados
-                                                 * para verificar qual deve ser mantido
-                                                 * na lista de abertos
-                                                 */
-                                                if(nextSearchNode.compareTo(openedNode) < 0)
-                                                {
-                                                    /**
-                                                     * Caso o novo estado tenha um custo menor que
-                                                     * o estado que já está na lista de abertos,
-                                                     * deve-se remover o estado que já está na lista
-                                                     * e adicionar o novo
-                                                     */
-                                                    openedNodeList.remove(openedNode);
-                                                    
-                                                    // Remove o nó antigo da árvore de busca
-                                                    this.getSearchTree().removeChildNode(openedNode);
-                                                    
-                                                    // Adiciona o novo nó na lista de abertos
-                                                    this.addInOpenedNodeList(SearchMode.A, openedNodeList, nextSearchNode);
-                                                    
-                                                    // Adiciona o nó na árvore de busca
-                                                    this.getSearchTree().addChildToCurrentNode(nextSearchNode);
-                                                    
-                                                    isExpanded = true;
-                                                    break;
-                                                }
-                                            }
+                                            /**
+                                             * Caso o novo estado tenha um custo menor que
+                                             * o estado que já está na lista de abertos,
+                                             * o novo estado substitui o antigo na lista
+                                             * (Diminuição de chave)
+                                             */
+                                            openedNodeQueue.replace(openedNode, nextSearchNode);
+                                            
+                                            // Remove o nó antigo da árvore de busca
+                                            this.getSearchTree().removeChildNode(openedNode);
+                                            
+                                            // Adiciona o novo nó na árvore de busca
+                                            this.getSearchTree().addChildToCurrentNode(nextSearchNode);
+                                            
+                                            isExpanded = true;
                                         }
                                     }
                                     else
                                     {
                                         // Caso não esteja, adicionar o novo estado imediatamente
-                                        this.addInOpenedNodeList(SearchMode.A, openedNodeList, nextSearchNode);
+                                        openedNodeQueue.add(nextSearchNode);
                                         
                                         // Adiciona o nó na árvore de busca
                                         this.getSearchTree().addChildToCurrentNode(nextSearchNode);
@@ -216,7 +248,7 @@ public class ASearch extends AbstractAlgorithmSearch
                                  * Caso podas não sejam permitidas, adicionar
                                  * o novo estado imediatamente
                                  */
-                                this.addInOpenedNodeList(SearchMode.A, openedNodeList, nextSearchNode);
+                                openedNodeQueue.add(nextSearchNode);
                                 
                                 // Adiciona o nó na árvore de busca
                                 this.getSearchTree().addChildToCurrentNode(nextSearchNode);
@@ -225,15 +257,12 @@ public class ASearch extends AbstractAlgorithmSearch
                         }
                         
                         // Aplica a próxima transição
-                        nextSearchNode = this.transition.applyTransition(currentNode);
+                        nextSearchNode = this.transition.applyTransition(searchContext, currentNode);
                     }
                     
                     // Verifica se o estado atual foi expandido
                     if(isExpanded)
                     {
-                        // Ordena a lista de abertos usando o custo dos nós
-                        openedNodeList = QuickSort.sort(openedNodeList, QuickSort.SortType.EvalFunction);
-
                         // Define que o nó atual da árvore foi expandido
                         this.getSearchTree().getCurrentNode().setExpanded(true);
                     }
@@ -250,6 +279,9 @@ public class ASearch extends AbstractAlgorithmSearch
         // Define o tempo total de execução
         this.setExecutionTime(executionTime);
         
+        // Guarda o resultado da busca (Caminho, custo e profundidade da solução)
+        this.makeSearchResult();
+        
         // Dispara evento que a busca foi terminada
         this.getSearchStoppedEvenInitiator().fireEvent(getSearchState());
     }
@@ -1,6 +1,10 @@
 package br.ufjf.iacity.algorithm;
 
+import br.ufjf.iacity.algorithm.search.SearchContext;
 import br.ufjf.iacity.algorithm.search.SearchNode;
+import br.ufjf.iacity.algorithm.search.SearchNodeSet;
+import br.ufjf.iacity.algorithm.search.SearchResult;
+import br.ufjf.iacity.algorithm.search.SearchStatistics;
 import br.ufjf.iacity.algorithm.search.SearchTree;
 import br.ufjf.iacity.algorithm.events.ISearchStartedEventListener;
 import br.ufjf.iacity.algorithm.events.ISearchStatusChangedEventListener;
@@ -12,7 +16,6 @@ import br.ufjf.iacity.algorithm.transition.ITransition;
 import br.ufjf.iacity.graph.CityGraph;
 import br.ufjf.iacity.graph.CityNodeAdjacency;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Stack;
@@ -28,7 +31,7 @@ public abstract class AbstractAlgorithmSearch
     public enum SearchState { Success, Failed, Searching, Started, Stopped }
     
     // Modos de busca que podem ser usados
-    public enum SearchMode { Backtracking, Breadth, Depth, Ordered, BestFirst, A, IDA }
+    public enum SearchMode { Backtracking, Breadth, Depth, Ordered, BestFirst, A, IDA, ALT, CH, HL, BiBreadth, BiA, Dijkstra }
     
     // Grafo de cidades do problema
     protected CityGraph cityGraph;
@@ -39,6 +42,9 @@ public abstract class AbstractAlgorithmSearch
     // Árvore de busca gerada pelo algoritmo
     protected SearchTree searchTree;
     
+    // Estado próprio desta execução da busca (O grafo não é alterado)
+    protected SearchContext searchContext;
+    
     // Estado atual da busca
     private SearchState searchState;
     
@@ -53,12 +59,7 @@ public abstract class AbstractAlgorithmSearch
     
     // Variáveis para o resultado da busca
     private double executionTime;
-    private List<String> solutionList;
-    private String solutionPath;
-    private double solutionCost;
-    private int solutionDepth;
-    private int solutionExpandedNodeCount;
-    private int solutionVisitedNodeCount;
+    private SearchResult searchResult;
     
     // Método que deve ser implementado por cada algoritmo de busca IA
     public abstract void search();
@@ -71,17 +72,17 @@ public abstract class AbstractAlgorithmSearch
     }
     
     /**
-     * Verifica se um nó já foi adicionado na lista
+     * Verifica se um nó já foi adicionado no conjunto
      * 
-     * @param nodeList Lista de nós
+     * @param nodeSet Conjunto de nós
      * @param nodeGraph Nó do grafo de cidades
-     * @return (true) se o nó já está na lista, (false) caso contrário
+     * @return (true) se o nó já está no conjunto, (false) caso contrário
      */
-    protected boolean checkContains(List<SearchNode> nodeList, SearchNode nodeGraph)
+    protected boolean checkContains(SearchNodeSet nodeSet, SearchNode nodeGraph)
     {
-        if((nodeList != null) && (nodeGraph != null))
+        if((nodeSet != null) && (nodeGraph != null))
         {
-            return nodeList.contains(nodeGraph);
+            return nodeSet.contains(nodeGraph);
         }
         
         return false;
@@ -95,19 +96,8 @@ public abstract class AbstractAlgorithmSearch
      */
     protected boolean checkAncestral(SearchNode cityNode)
     {
-        SearchNode tmpSearchNode = this.getSearchTree().getCurrentNode();
-        
-        while(tmpSearchNode != null)
-        {
-            if(tmpSearchNode.getIdNode().equalsIgnoreCase(cityNode.getIdNode()))
-            {
-                return true;
-            }
-            
-            tmpSearchNode = tmpSearchNode.getRootNode();
-        }
-        
-        return false;
+        // O contexto mantém marcados os estados do caminho até o nó atual (O(1) por verificação)
+        return this.searchContext.isOnPath(this.getSearchTree().getCurrentNode(), cityNode);
     }
     
     /**
@@ -234,6 +224,14 @@ public abstract class AbstractAlgorithmSearch
         return cityGraph;
     }
     
+    /**
+     * @return Contexto da busca
+     */
+    public SearchContext getSearchContext()
+    {
+        return searchContext;
+    }
+    
     /**
      * @return Árvore de busca gerada
      */
@@ -242,6 +240,14 @@ public abstract class AbstractAlgorithmSearch
         return searchTree;
     }
     
+    /**
+     * @return Estatísticas da busca (Mantidas durante a execução, lidas em O(1))
+     */
+    public SearchStatistics getStatistics()
+    {
+        return searchTree.getStatistics();
+    }
+    
     /**
      * @return Estado atual da busca
      */
@@ -262,117 +268,80 @@ public abstract class AbstractAlgorithmSearch
     }
     
     /**
-     * Constrói o caminho da solução
+     * Monta o resultado da busca a partir do nó final da árvore
+     * 
+     * @return Resultado da busca
      */
-    private void makeSolutionPath()
+    private SearchResult createSearchResult()
     {
-        this.solutionList = new ArrayList<>();
+        List<String> solutionList = new ArrayList<>();
+        double solutionCost = Double.POSITIVE_INFINITY;
+        int solutionDepth = -1;
         
         if(getSearchState().equals(SearchState.Success))
         {
+            SearchNode endNode = this.getSearchTree().getEndNode();
+            SearchNode tmpSearchNode = endNode;
             
-            StringBuilder reversePath = new StringBuilder();
-            
-            SearchNode tmpSearchNode = this.getSearchTree().getEndNode();
-
             while (tmpSearchNode != null) 
             {
-                this.solutionList.add(tmpSearchNode.getIdNode());
-                
+                solutionList.add(tmpSearchNode.getIdNode());
                 tmpSearchNode = tmpSearchNode.getRootNode();
             }
             
-            for(int i = (solutionList.size() - 1); i >= 0 ; i--)
-            {
-                reversePath.append(solutionList.get(i)).append(System.getProperty("line.separator"));
-            }
-            
-            this.solutionPath = reversePath.toString();
-        }
-        else
-        {
-            this.solutionPath = "";
+            /**
+             * Nas buscas com custo, o nó final já guarda g(n), o custo da raíz
+             * até ele. Nas demais, soma o custo das arestas do caminho
+             */
+            solutionCost = searchContext.isEnableCost() ? endNode.getCost() : calculateSolutionCost(endNode);
+            solutionDepth = endNode.getTreeLevel();
         }
+        
+        return new SearchResult(getSearchState(), solutionList, solutionCost, solutionDepth);
     }
     
     /**
-     * Calcula o custo da solução
+     * Calcula o custo do caminho da raíz até o nó
+     * 
+     * @param endNode Nó final da solução
+     * @return Custo da solução
      */
-    private void calculateSolutionCost()
+    private double calculateSolutionCost(SearchNode endNode)
     {
-        if(getSearchState().equals(SearchState.Success))
+        double cost = 0;
+        SearchNode tmpSearchNode = endNode;
+
+        while (tmpSearchNode.getRootNode() != null) 
         {
-            double cost = 0;
-            SearchNode tmpSearchNode = this.getSearchTree().getEndNode();
+            CityNodeAdjacency adjacency = getCityGraph().getAdjacency(tmpSearchNode.getRootNode().getCityNodeGraph(), tmpSearchNode.getCityNodeGraph());
 
-            while (tmpSearchNode.getRootNode() != null) 
+            if(adjacency != null)
             {
-                CityNodeAdjacency adjacency = getCityGraph().getAdjacency(tmpSearchNode.getRootNode().getCityNodeGraph(), tmpSearchNode.getCityNodeGraph());
-                
-                if(adjacency != null)
-                {
-                    cost += adjacency.getCost();
-                }
-                
-                tmpSearchNode = tmpSearchNode.getRootNode();
+                cost += adjacency.getCost();
             }
 
-            this.solutionCost = cost;
-        }
-        else
-        {
-            this.solutionCost = Double.POSITIVE_INFINITY;
+            tmpSearchNode = tmpSearchNode.getRootNode();
         }
+
+        return cost;
     }
     
     /**
-     * Calcula a quantidade de nós expandidos
-     * 
-     * @param rootNode Nó inicial
+     * Guarda o resultado da busca. Deve ser chamado uma vez, quando a busca
+     * termina e antes de disparar o evento de busca parada
      */
-    private void calculateExpandedNodeCount(SearchNode rootNode)
+    protected void makeSearchResult()
     {
-        if(rootNode != null)
-        {
-            if(rootNode.isExpanded())
-            {
-                this.solutionExpandedNodeCount++;
-            }
-            
-            SearchNode tmpNode;
-            Iterator<SearchNode> childIt = rootNode.getChildNodeIterator();
-            
-            while(childIt.hasNext())
-            {
-                tmpNode = childIt.next();
-                calculateExpandedNodeCount(tmpNode);
-            }
-        }
+        this.searchResult = createSearchResult();
     }
     
     /**
-     * Calcula a quantidade de nós visitados
-     * 
-     * @param rootNode Nó inicial
+     * @return Resultado da busca. Antes do fim da busca, é montado a cada 
+     * chamada a partir do estado atual da árvore
      */
-    private void calculateVisitedNodeCount(SearchNode rootNode)
+    public SearchResult getSearchResult()
     {
-        if(rootNode != null)
-        {
-            if(rootNode.isVisited())
-            {
-                this.solutionVisitedNodeCount++;
-            }
-            
-            SearchNode tmpNode;
-            Iterator<SearchNode> childIt = rootNode.getChildNodeIterator();
-            
-            while(childIt.hasNext())
-            {
-                tmpNode = childIt.next();
-                calculateVisitedNodeCount(tmpNode);
-            }
-        }
+        return (searchResult != null) ? searchResult : createSearchResult();
     }
     
     /**
@@ -398,8 +367,7 @@ public abstract class AbstractAlgorithmSearch
      */
     public List<String> getSolutionList() 
     {
-        this.makeSolutionPath();
-        return solutionList;
+        return getSearchResult().getSolutionList();
     }
     
     /**
@@ -407,8 +375,7 @@ public abstract class AbstractAlgorithmSearch
      */
     public String getSolutionPath()
     {
-        this.makeSolutionPath();
-        return solutionPath;
+        return getSearchResult().getSolutionPath();
     }
 
     /**
@@ -416,8 +383,7 @@ public abstract class AbstractAlgorithmSearch
      */
     public double getSolutionCost() 
     {
-        this.calculateSolutionCost();
-        return solutionCost;
+        return getSearchResult().getSolutionCost();
     }
 
     /**
@@ -425,16 +391,7 @@ public abstract class AbstractAlgorithmSearch
      */
     public int getSolutionSearchDepth()
     {
-        if(getSearchState().equals(SearchState.Success))
-        {
-            this.solutionDepth = getSearchTree().getEndNode().getTreeLevel();
-        }
-        else
-        {
-            this.solutionDepth = -1;
-        }
-        
-        return solutionDepth;
+        return getSearchResult().getSolutionDepth();
     }
     
     /**
@@ -458,10 +415,7 @@ public abstract class AbstractAlgorithmSearch
      */
     public int getSolutionExpandedNodeCount() 
     {
-        this.solutionExpandedNodeCount = 0;
-        this.calculateExpandedNodeCount(searchTree.getRootNode());
-        
-        return solutionExpandedNodeCount;
+        return this.getStatistics().getExpandedNodeCount();
     }
 
     /**
@@ -469,10 +423,7 @@ public abstract class AbstractAlgorithmSearch
      */
     public int getSolutionVisitedNodeCount()
     {
-        this.solutionVisitedNodeCount = 0;
-        this.calculateVisitedNodeCount(searchTree.getRootNode());
-        
-        return solutionVisitedNodeCount;
+        return this.getStatistics().getVisitedNodeCount();
     }
     
     /**
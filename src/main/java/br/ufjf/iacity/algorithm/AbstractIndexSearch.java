@@ -0,0 +1,134 @@
+package br.ufjf.iacity.algorithm;
+
+import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.algorithm.search.SearchContext;
+import br.ufjf.iacity.algorithm.search.SearchNode;
+import br.ufjf.iacity.algorithm.search.SearchTree;
+import br.ufjf.iacity.graph.CompiledCityGraph;
+
+/**
+ * Base das buscas que respondem a consulta com um índice pré-processado do
+ * grafo (Ex.: hierarquia de contração, rótulos de hubs), em vez de gerar uma
+ * árvore de busca.
+ *
+ * O caminho devolvido pelo índice (findPath) é guardado na árvore como uma
+ * única cadeia de nós, da origem ao destino, com o custo acumulado em cada
+ * nó, para que o resultado seja lido e gravado como o dos demais algoritmos
+ */
+public abstract class AbstractIndexSearch extends AbstractAlgorithmSearch
+{
+    // Ids densos dos nós inicial e final no grafo compilado
+    protected final int startIndex;
+    protected final int endIndex;
+
+    /**
+     * @param parameter Parâmetros de inicialização para o algoritmo de busca
+     *
+     * @throws IllegalArgumentException
+     */
+    protected AbstractIndexSearch(AlgorithmParameter parameter) throws IllegalArgumentException
+    {
+        if ((parameter.getGraph() == null) || (parameter.getStartCityNode() == null) || (parameter.getEndCityNode() == null))
+        {
+            throw new IllegalArgumentException(String.format("Não é permitido nenhum parâmetro nulo para o construtor da classe %s", getClass().getSimpleName()));
+        }
+
+        // Define o grafo do problema
+        this.cityGraph = parameter.getGraph();
+
+        // Inicializa a árvore de busca e define o nó inicial e final
+        this.searchTree = new SearchTree(!parameter.isEnableLeanMode());
+        this.searchTree.setStartNode(new SearchNode(null, 0, parameter.getStartCityNode()));
+        this.searchTree.setEndNode(new SearchNode(null, 0, parameter.getEndCityNode()));
+
+        // O custo de cada nó da cadeia é o custo da origem até ele
+        this.searchContext = new SearchContext(this.cityGraph.getCompiledGraph(), parameter.isEnableDuplicated(), true);
+
+        this.startIndex = this.searchContext.getCompiledGraph().indexOf(parameter.getStartCityNode());
+        this.endIndex = this.searchContext.getCompiledGraph().indexOf(parameter.getEndCityNode());
+
+        if ((this.startIndex < 0) || (this.endIndex < 0))
+        {
+            throw new IllegalArgumentException("Os nós inicial e final devem pertencer ao grafo compilado do índice");
+        }
+
+        // Define o estado atual da busca
+        this.setSearchState(SearchState.Stopped);
+    }
+
+    /**
+     * Consulta o índice
+     *
+     * @return Ids densos dos nós do menor caminho, do nó inicial ao final, ou
+     * null se o nó final não é alcançável
+     */
+    protected abstract int[] findPath();
+
+    /**
+     * Consulta o índice e monta a cadeia de nós do caminho
+     */
+    @Override
+    public void search()
+    {
+        // Dispara evento de que a busca foi iniciada
+        this.getSearchStartedEventInitiator().fireEvent(getSearchState());
+
+        // Muda o estado para buscando
+        this.setSearchState(SearchState.Searching);
+
+        // Marca o tempo inicial
+        long startSearchTime = System.nanoTime();
+
+        int[] path = findPath();
+
+        // Adiciona o nó inicial na árvore de busca
+        SearchNode currentNode = getSearchTree().getStartNode();
+        this.getSearchTree().addChildToCurrentNode(currentNode);
+        currentNode.setVisited(true);
+
+        if (path != null)
+        {
+            CompiledCityGraph compiledGraph = searchContext.getCompiledGraph();
+
+            // Cada nó do caminho é filho do anterior, com o custo acumulado desde a origem
+            for (int i = 1; i < path.length; i++)
+            {
+                SearchNode nextSearchNode = new SearchNode(currentNode, i, compiledGraph.getNode(path[i]));
+                nextSearchNode.setCost(currentNode.getCost() + compiledGraph.getMinEdgeCost(path[i - 1], path[i]));
+                nextSearchNode.setEvalFunctionValue(nextSearchNode.getCost());
+
+                this.getSearchTree().addChildToCurrentNode(nextSearchNode);
+                this.getSearchTree().setCurrentNode(nextSearchNode);
+
+                currentNode.setExpanded(true);
+                nextSearchNode.setVisited(true);
+
+                currentNode = nextSearchNode;
+            }
+
+            // O nó final foi encontrado
+            this.getSearchTree().setEndNode(currentNode);
+            this.setSearchState(SearchState.Success);
+        }
+        else
+        {
+            // O nó final não é alcançável a partir do nó inicial
+            this.setSearchState(SearchState.Failed);
+        }
+
+        // Marca o tempo final
+        long endSearchTime = System.nanoTime();
+
+        // Tempo total de execução em milisegundos
+        double executionTime = ((endSearchTime - startSearchTime) / 1e6);
+
+        // Define o tempo total de execução
+        this.setExecutionTime(executionTime);
+
+        // Guarda o resultado da busca (Caminho, custo e profundidade da solução)
+        this.makeSearchResult();
+
+        // Dispara evento que a busca foi terminada
+        this.getSearchStoppedEvenInitiator().fireEvent(getSearchState());
+    }
+}
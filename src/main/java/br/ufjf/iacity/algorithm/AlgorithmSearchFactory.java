@@ -0,0 +1,56 @@
+package br.ufjf.iacity.algorithm;
+
+import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+
+/**
+ * Cria o algoritmo de busca correspondente ao modo de busca dos parâmetros
+ */
+public class AlgorithmSearchFactory 
+{
+    private AlgorithmSearchFactory()
+    {
+    }
+    
+    /**
+     * @param parameter Parâmetros de inicialização para o algoritmo de busca
+     * @return Algoritmo de busca, pronto para ser executado
+     * 
+     * @throws IllegalArgumentException 
+     */
+    public static AbstractAlgorithmSearch createSearch(AlgorithmParameter parameter) throws IllegalArgumentException
+    {
+        if ((parameter == null) || (parameter.getSearchMode() == null))
+        {
+            throw new IllegalArgumentException("O modo de busca não foi definido");
+        }
+        
+        switch (parameter.getSearchMode())
+        {
+            case Backtracking:
+                return new BacktrackingSearch(parameter);
+            case Breadth:
+            case Depth:
+                return new BreadthAndDepthSearch(parameter);
+            case Ordered:
+                return new OrderedSearch(parameter);
+            case BestFirst:
+                return new BestFirstSearch(parameter);
+            case A:
+            case ALT:
+                return new ASearch(parameter);
+            case IDA:
+                return new IDASearch(parameter);
+            case CH:
+                return new ContractionHierarchySearch(parameter);
+            case HL:
+                return new HubLabelSearch(parameter);
+            case BiBreadth:
+            case BiA:
+                return new BidirectionalSearch(parameter);
+            case Dijkstra:
+                return new DijkstraSearch(parameter);
+            default:
+                throw new IllegalArgumentException(String.format("Modo de busca não suportado: %s", parameter.getSearchMode()));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package br.ufjf.iacity.algorithm;
 
+import br.ufjf.iacity.algorithm.search.SearchContext;
 import br.ufjf.iacity.algorithm.search.SearchNode;
 import br.ufjf.iacity.algorithm.search.SearchTree;
 import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
@@ -27,13 +28,12 @@ public class BacktrackingSearch extends AbstractAlgorithmSearch
         this.transition = parameter.getTransition();
         
         // Inicializa a árvore de busca e define o nó inicial e final
-        this.searchTree = new SearchTree();
+        this.searchTree = new SearchTree(!parameter.isEnableLeanMode());
         this.searchTree.setStartNode(new SearchNode(null, 0, parameter.getStartCityNode()));
         this.searchTree.setEndNode(new SearchNode(null, 0, parameter.getEndCityNode()));
         
-        // Configura opções a serem usadas durante a busca
-        SearchNode.setEnableDuplicate(parameter.isEnableDuplicated());
-        SearchNode.setEnableCost(false);
+        // Configura opções a serem usadas durante a busca (Contexto desta execução)
+        this.searchContext = new SearchContext(this.cityGraph.getCompiledGraph(), parameter.isEnableDuplicated(), false);
         
         // Define o estado atual da busca
         this.setSearchState(SearchState.Stopped);
@@ -65,7 +65,7 @@ public class BacktrackingSearch extends AbstractAlgorithmSearch
         while (!(getSearchState().equals(SearchState.Success) || getSearchState().equals(SearchState.Failed)))
         {
             // Aplica a transição sobre o nó atual da árvore de busca
-            SearchNode nextSearchNode = transition.applyTransition(getSearchTree().getCurrentNode());
+            SearchNode nextSearchNode = transition.applyTransition(searchContext, getSearchTree().getCurrentNode());
             
             /**
              * Verifica se a transição foi aplicada.
@@ -129,6 +129,9 @@ public class BacktrackingSearch extends AbstractAlgorithmSearch
         // Define o tempo total de execução
         this.setExecutionTime(executionTime);
         
+        // Guarda o resultado da busca (Caminho, custo e profundidade da solução)
+        this.makeSearchResult();
+        
         // Dispara evento que a busca foi terminada
         this.getSearchStoppedEvenInitiator().fireEvent(getSearchState());
     }
@@ -0,0 +1,462 @@
+package br.ufjf.iacity.algorithm;
+
+import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.algorithm.search.HeuristicTable;
+import br.ufjf.iacity.algorithm.search.SearchContext;
+import br.ufjf.iacity.algorithm.search.SearchNode;
+import br.ufjf.iacity.algorithm.search.SearchNodePriorityQueue;
+import br.ufjf.iacity.algorithm.search.SearchTree;
+import br.ufjf.iacity.graph.CompiledCityGraph;
+import br.ufjf.iacity.helper.coordinate.DistanceKernel;
+import br.ufjf.iacity.helper.sort.QuickSort.SortType;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+
+/**
+ * Busca bidirecional: uma busca direta parte do nó inicial pelas arestas de
+ * saída e uma busca reversa parte do nó final pelas arestas de entrada
+ * (Grafo compilado), até que as duas se encontrem. Cada busca explora apenas
+ * cerca de metade da profundidade da solução.
+ *
+ * No modo BiBreadth, as duas buscas são em largura e avançam um nível inteiro
+ * por vez, sempre pelo lado com menos nós abertos. A solução tem a menor
+ * quantidade de arestas.
+ *
+ * No modo BiA, as duas buscas são A*, com a distância em linha reta até o nó
+ * final (Busca direta) e até o nó inicial (Busca reversa) como heurística. O
+ * melhor caminho encontrado é mantido a cada encontro das buscas e a busca
+ * termina quando o menor f(n) de uma das listas de abertos não é menor que o
+ * custo desse caminho: nenhum caminho mais barato pode passar por ela.
+ *
+ * A busca direta fica na árvore de busca e a reversa em uma segunda árvore,
+ * enraizada no nó final, que compartilha as mesmas estatísticas. O trecho
+ * reverso da solução é copiado como continuação do nó de encontro, para que
+ * o resultado seja lido como o dos demais algoritmos. Os estados nunca são
+ * duplicados (AlgorithmParameter.isEnableDuplicated não se aplica), já que o
+ * encontro das buscas depende de cada estado ter um único nó por direção.
+ */
+public class BidirectionalSearch extends AbstractAlgorithmSearch
+{
+    // Índices das buscas direta e reversa
+    private static final int FORWARD = 0;
+    private static final int BACKWARD = 1;
+
+    // Modo de busca que será utilizado (BiBreadth ou BiA)
+    private final SearchMode searchMode;
+
+    // Fórmula da distância usada pela heurística (null no modo BiBreadth)
+    private final DistanceKernel distanceKernel;
+
+    // Árvore da busca reversa, enraizada no nó final
+    private final SearchTree backwardSearchTree;
+
+    // Ids densos dos nós inicial e final no grafo compilado
+    private final int startIndex;
+    private final int endIndex;
+
+    // Melhor nó de busca de cada estado, por direção
+    private SearchNode[][] reachedNodes;
+
+    // Melhor caminho encontrado (Custo e nós de encontro das duas buscas)
+    private double bestCost;
+    private SearchNode bestForwardNode;
+    private SearchNode bestBackwardNode;
+
+    /**
+     * @param parameter Parâmetros de inicialização para o algoritmo de busca
+     *
+     * @throws IllegalArgumentException
+     */
+    public BidirectionalSearch(AlgorithmParameter parameter) throws IllegalArgumentException
+    {
+        if ((parameter.getGraph() == null) || (parameter.getStartCityNode() == null) ||
+                (parameter.getEndCityNode() == null) || (parameter.getSearchMode() == null))
+        {
+            throw new IllegalArgumentException("Não é permitido nenhum parâmetro nulo para o construtor da classe BidirectionalSearch");
+        }
+
+        if (!SearchMode.BiBreadth.equals(parameter.getSearchMode()) && !SearchMode.BiA.equals(parameter.getSearchMode()))
+        {
+            throw new IllegalArgumentException(String.format("Modo de busca não suportado pela classe BidirectionalSearch: %s", parameter.getSearchMode()));
+        }
+
+        if (SearchMode.BiA.equals(parameter.getSearchMode()) && (parameter.getDistanceKernel() == null))
+        {
+            throw new IllegalArgumentException("O modo BiA precisa da fórmula da distância usada pela heurística");
+        }
+
+        // Define o grafo do problema e o modo de busca
+        this.cityGraph = parameter.getGraph();
+        this.searchMode = parameter.getSearchMode();
+        this.distanceKernel = SearchMode.BiA.equals(searchMode) ? parameter.getDistanceKernel() : null;
+
+        // Inicializa as árvores de busca e define o nó inicial e final
+        this.searchTree = new SearchTree(!parameter.isEnableLeanMode());
+        this.searchTree.setStartNode(new SearchNode(null, 0, parameter.getStartCityNode()));
+        this.searchTree.setEndNode(new SearchNode(null, 0, parameter.getEndCityNode()));
+        this.backwardSearchTree = new SearchTree(!parameter.isEnableLeanMode(), this.searchTree.getStatistics());
+
+        // Apenas o modo BiA guarda g(n) nos nós de busca
+        this.searchContext = new SearchContext(this.cityGraph.getCompiledGraph(), false, SearchMode.BiA.equals(searchMode));
+
+        this.startIndex = this.searchContext.getCompiledGraph().indexOf(parameter.getStartCityNode());
+        this.endIndex = this.searchContext.getCompiledGraph().indexOf(parameter.getEndCityNode());
+
+        if ((this.startIndex < 0) || (this.endIndex < 0))
+        {
+            throw new IllegalArgumentException("Os nós inicial e final devem pertencer ao grafo compilado da busca bidirecional");
+        }
+
+        // Define o estado atual da busca
+        this.setSearchState(SearchState.Stopped);
+    }
+
+    /**
+     * Executa as buscas direta e reversa até que elas se encontrem
+     */
+    @Override
+    public void search()
+    {
+        // Dispara evento de que a busca foi iniciada
+        this.getSearchStartedEventInitiator().fireEvent(getSearchState());
+
+        // Muda o estado para buscando
+        this.setSearchState(SearchState.Searching);
+
+        // Marca o tempo inicial
+        long startSearchTime = System.nanoTime();
+
+        int nodeCount = searchContext.getCompiledGraph().getNodeCount();
+
+        this.reachedNodes = new SearchNode[2][nodeCount];
+        this.bestCost = Double.POSITIVE_INFINITY;
+        this.bestForwardNode = null;
+        this.bestBackwardNode = null;
+
+        // Adiciona as raízes das duas árvores (Nó inicial e nó final)
+        SearchNode startNode = getSearchTree().getStartNode();
+        SearchNode backwardRootNode = new SearchNode(null, 0, getSearchTree().getEndNode().getCityNodeGraph());
+
+        this.getSearchTree().addChildToCurrentNode(startNode);
+        this.backwardSearchTree.addChildToCurrentNode(backwardRootNode);
+
+        reachedNodes[FORWARD][startIndex] = startNode;
+        reachedNodes[BACKWARD][endIndex] = backwardRootNode;
+
+        if (startIndex == endIndex)
+        {
+            // O nó inicial já é o nó final
+            startNode.setVisited(true);
+            updateBestPath(FORWARD, startNode, backwardRootNode, 0);
+        }
+        else if (SearchMode.BiBreadth.equals(searchMode))
+        {
+            searchBreadth(startNode, backwardRootNode);
+        }
+        else
+        {
+            searchA(startNode, backwardRootNode);
+        }
+
+        if (bestForwardNode != null)
+        {
+            // A busca teve sucesso
+            this.getSearchTree().setEndNode(joinBackwardPath());
+            this.setSearchState(SearchState.Success);
+        }
+        else
+        {
+            // As buscas não se encontraram: o nó final não é alcançável
+            this.setSearchState(SearchState.Failed);
+        }
+
+        // Libera os vetores de trabalho
+        this.reachedNodes = null;
+
+        // Marca o tempo final
+        long endSearchTime = System.nanoTime();
+
+        // Tempo total de execução em milisegundos
+        double executionTime = ((endSearchTime - startSearchTime) / 1e6);
+
+        // Define o tempo total de execução
+        this.setExecutionTime(executionTime);
+
+        // Guarda o resultado da busca (Caminho, custo e profundidade da solução)
+        this.makeSearchResult();
+
+        // Dispara evento que a busca foi terminada
+        this.getSearchStoppedEvenInitiator().fireEvent(getSearchState());
+    }
+
+    /**
+     * Busca em largura bidirecional. Um nível é sempre expandido por inteiro:
+     * todos os encontros desse nível são comparados, e o de menor
+     * profundidade total é a solução
+     */
+    private void searchBreadth(SearchNode startNode, SearchNode backwardRootNode)
+    {
+        ArrayDeque<SearchNode> forwardQueue = new ArrayDeque<>();
+        ArrayDeque<SearchNode> backwardQueue = new ArrayDeque<>();
+
+        forwardQueue.addLast(startNode);
+        backwardQueue.addLast(backwardRootNode);
+
+        while ((bestForwardNode == null) && !forwardQueue.isEmpty() && !backwardQueue.isEmpty())
+        {
+            // Atualiza o tamanho máximo das listas de abertos
+            this.getStatistics().updateOpenListSize(forwardQueue.size() + backwardQueue.size());
+
+            // Avança o lado com menos nós abertos
+            int direction = (forwardQueue.size() <= backwardQueue.size()) ? FORWARD : BACKWARD;
+            ArrayDeque<SearchNode> queue = (direction == FORWARD) ? forwardQueue : backwardQueue;
+
+            for (int levelSize = queue.size(); levelSize > 0; levelSize--)
+            {
+                SearchNode currentNode = queue.removeFirst();
+                currentNode.setVisited(true);
+
+                int current = searchContext.getCompiledGraph().indexOf(currentNode.getCityNodeGraph());
+                boolean isExpanded = false;
+
+                for (int i = firstEdge(direction, current); i < lastEdge(direction, current); i++)
+                {
+                    int edge = edgeAt(direction, i);
+                    int next = neighbour(direction, edge);
+
+                    // Na largura, o primeiro nó de cada estado já tem a menor profundidade
+                    if (reachedNodes[direction][next] == null)
+                    {
+                        SearchNode nextSearchNode = new SearchNode(currentNode, currentNode.getTreeLevel() + 1, 
+                                searchContext.getCompiledGraph().getNode(next));
+                        addReachedNode(direction, nextSearchNode, next);
+
+                        queue.addLast(nextSearchNode);
+                        isExpanded = true;
+
+                        // Encontro com a outra busca: fica o de menor profundidade total do nível
+                        SearchNode otherNode = reachedNodes[1 - direction][next];
+
+                        if (otherNode != null)
+                        {
+                            int depth = nextSearchNode.getTreeLevel() + otherNode.getTreeLevel();
+
+                            if (depth < bestCost)
+                            {
+                                updateBestPath(direction, nextSearchNode, otherNode, depth);
+                            }
+                        }
+                    }
+                }
+
+                if (isExpanded)
+                {
+                    currentNode.setExpanded(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Busca A* bidirecional
+     */
+    private void searchA(SearchNode startNode, SearchNode backwardRootNode)
+    {
+        HeuristicTable[] heuristicTables =
+        {
+            new HeuristicTable(searchContext.getCompiledGraph(), backwardRootNode.getCityNodeGraph(), distanceKernel),
+            new HeuristicTable(searchContext.getCompiledGraph(), startNode.getCityNodeGraph(), distanceKernel)
+        };
+
+        SearchNodePriorityQueue[] openedNodeQueues =
+        {
+            new SearchNodePriorityQueue(SortType.EvalFunction),
+            new SearchNodePriorityQueue(SortType.EvalFunction)
+        };
+
+        // Estados fechados de cada direção
+        BitSet[] closedStates = { new BitSet(), new BitSet() };
+
+        startNode.setEvalFunctionValue(heuristicTables[FORWARD].getValue(startNode));
+        backwardRootNode.setEvalFunctionValue(heuristicTables[BACKWARD].getValue(backwardRootNode));
+
+        openedNodeQueues[FORWARD].add(startNode);
+        openedNodeQueues[BACKWARD].add(backwardRootNode);
+
+        while (!openedNodeQueues[FORWARD].isEmpty() && !openedNodeQueues[BACKWARD].isEmpty())
+        {
+            // Atualiza o tamanho máximo das listas de abertos
+            this.getStatistics().updateOpenListSize(openedNodeQueues[FORWARD].size() + openedNodeQueues[BACKWARD].size());
+
+            /**
+             * Com heurísticas admissíveis, todo caminho mais barato que o
+             * melhor já encontrado tem um nó aberto em cada direção com
+             * f(n) menor que o custo desse caminho
+             */
+            if ((openedNodeQueues[FORWARD].peek().getEvalFunctionValue() >= bestCost) ||
+                    (openedNodeQueues[BACKWARD].peek().getEvalFunctionValue() >= bestCost))
+            {
+                break;
+            }
+
+            // Avança o lado com menos nós abertos
+            int direction = (openedNodeQueues[FORWARD].size() <= openedNodeQueues[BACKWARD].size()) ? FORWARD : BACKWARD;
+            SearchNodePriorityQueue openedNodeQueue = openedNodeQueues[direction];
+
+            SearchNode currentNode = openedNodeQueue.poll();
+            currentNode.setVisited(true);
+
+            int current = searchContext.getCompiledGraph().indexOf(currentNode.getCityNodeGraph());
+            closedStates[direction].set(current);
+
+            boolean isExpanded = false;
+
+            for (int i = firstEdge(direction, current); i < lastEdge(direction, current); i++)
+            {
+                int edge = edgeAt(direction, i);
+                int next = neighbour(direction, edge);
+
+                // Estados fechados já têm o menor custo (Heurística consistente)
+                if (closedStates[direction].get(next))
+                {
+                    continue;
+                }
+
+                double cost = currentNode.getCost() + searchContext.getCompiledGraph().getEdgeCost(edge);
+                SearchNode openedNode = reachedNodes[direction][next];
+
+                // O estado já está aberto com um custo menor ou igual
+                if ((openedNode != null) && (cost >= openedNode.getCost()))
+                {
+                    continue;
+                }
+
+                SearchNode nextSearchNode = new SearchNode(currentNode, currentNode.getTreeLevel() + 1, 
+                        searchContext.getCompiledGraph().getNode(next));
+                nextSearchNode.setCost(cost);
+                nextSearchNode.setEvalFunctionValue(cost + heuristicTables[direction].getValue(nextSearchNode));
+
+                // Encontro com a outra busca: caminho candidato
+                SearchNode otherNode = reachedNodes[1 - direction][next];
+                boolean isBetterPath = (otherNode != null) && ((cost + otherNode.getCost()) < bestCost);
+
+                // Sem um caminho melhor, estados com f(n) não menor que o melhor custo são descartados
+                if (!isBetterPath && (nextSearchNode.getEvalFunctionValue() >= bestCost))
+                {
+                    continue;
+                }
+
+                if (openedNode != null)
+                {
+                    // Diminuição de chave: o novo nó substitui o antigo na lista de abertos e na árvore
+                    openedNodeQueue.replace(openedNode, nextSearchNode);
+                    getSearchTree(direction).removeChildNode(openedNode);
+                }
+                else
+                {
+                    openedNodeQueue.add(nextSearchNode);
+                }
+
+                addReachedNode(direction, nextSearchNode, next);
+                isExpanded = true;
+
+                if (isBetterPath)
+                {
+                    updateBestPath(direction, nextSearchNode, otherNode, cost + otherNode.getCost());
+                }
+            }
+
+            if (isExpanded)
+            {
+                currentNode.setExpanded(true);
+            }
+        }
+    }
+
+    /**
+     * Adiciona o nó na árvore da sua direção, como o melhor nó do estado
+     */
+    private void addReachedNode(int direction, SearchNode searchNode, int node)
+    {
+        getSearchTree(direction).addChildToCurrentNode(searchNode);
+        reachedNodes[direction][node] = searchNode;
+    }
+
+    /**
+     * Guarda o caminho formado pelos nós de mesmo estado das duas buscas
+     */
+    private void updateBestPath(int direction, SearchNode searchNode, SearchNode otherNode, double cost)
+    {
+        this.bestCost = cost;
+        this.bestForwardNode = (direction == FORWARD) ? searchNode : otherNode;
+        this.bestBackwardNode = (direction == FORWARD) ? otherNode : searchNode;
+    }
+
+    /**
+     * Copia o trecho reverso do melhor caminho (Do nó de encontro até o nó
+     * final) como continuação do nó de encontro da busca direta
+     *
+     * @return Nó final da solução
+     */
+    private SearchNode joinBackwardPath()
+    {
+        CompiledCityGraph compiledGraph = searchContext.getCompiledGraph();
+        SearchNode endNode = bestForwardNode;
+
+        for (SearchNode backwardNode = bestBackwardNode.getRootNode(); backwardNode != null; backwardNode = backwardNode.getRootNode())
+        {
+            SearchNode nextSearchNode = new SearchNode(endNode, endNode.getTreeLevel() + 1, backwardNode.getCityNodeGraph());
+
+            if (searchContext.isEnableCost())
+            {
+                nextSearchNode.setCost(endNode.getCost() + compiledGraph.getMinEdgeCost(
+                        compiledGraph.indexOf(endNode.getCityNodeGraph()), compiledGraph.indexOf(backwardNode.getCityNodeGraph())));
+                nextSearchNode.setEvalFunctionValue(nextSearchNode.getCost());
+            }
+
+            endNode = nextSearchNode;
+        }
+
+        return endNode;
+    }
+
+    private SearchTree getSearchTree(int direction)
+    {
+        return (direction == FORWARD) ? getSearchTree() : backwardSearchTree;
+    }
+
+    /**
+     * Arestas percorridas a partir de um nó: de saída na busca direta e de
+     * entrada na busca reversa
+     */
+    private int firstEdge(int direction, int node)
+    {
+        return (direction == FORWARD) ? searchContext.getCompiledGraph().getEdgeStart(node) : searchContext.getCompiledGraph().getInEdgeStart(node);
+    }
+
+    private int lastEdge(int direction, int node)
+    {
+        return (direction == FORWARD) ? searchContext.getCompiledGraph().getEdgeEnd(node) : searchContext.getCompiledGraph().getInEdgeEnd(node);
+    }
+
+    private int edgeAt(int direction, int position)
+    {
+        return (direction == FORWARD) ? position : searchContext.getCompiledGraph().getInEdge(position);
+    }
+
+    /**
+     * @return Nó alcançado pela aresta: o destino na busca direta e a origem na reversa
+     */
+    private int neighbour(int direction, int edge)
+    {
+        return (direction == FORWARD) ? searchContext.getCompiledGraph().getEdgeTarget(edge) : searchContext.getCompiledGraph().getEdgeSource(edge);
+    }
+
+    /**
+     * @return Árvore da busca reversa, enraizada no nó final
+     */
+    public SearchTree getBackwardSearchTree()
+    {
+        return backwardSearchTree;
+    }
+}
@@ -1,6 +1,8 @@
 package br.ufjf.iacity.algorithm;
 
+import br.ufjf.iacity.algorithm.search.SearchContext;
 import br.ufjf.iacity.algorithm.search.SearchNode;
+import br.ufjf.iacity.algorithm.search.SearchNodeSet;
 import br.ufjf.iacity.algorithm.search.SearchTree;
 import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
 import java.util.LinkedList;
@@ -33,13 +35,12 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
         this.transition = parameter.getTransition();
         
         // Inicializa a árvore de busca e define o nó inicial e final
-        this.searchTree = new SearchTree();
+        this.searchTree = new SearchTree(!parameter.isEnableLeanMode());
         this.searchTree.setStartNode(new SearchNode(null, 0, parameter.getStartCityNode()));
         this.searchTree.setEndNode(new SearchNode(null, 0, parameter.getEndCityNode()));
         
-        // Configura opções a serem usadas durante a busca
-        SearchNode.setEnableDuplicate(parameter.isEnableDuplicated());
-        SearchNode.setEnableCost(false);
+        // Configura opções a serem usadas durante a busca (Contexto desta execução)
+        this.searchContext = new SearchContext(this.cityGraph.getCompiledGraph(), parameter.isEnableDuplicated(), false);
         
         // Define o modo de busca que será utilizado (Largura ou Profundidade)
         this.searchMode = parameter.getSearchMode();
@@ -82,11 +83,15 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
             openedNodeList = new Stack<>();
         }
         
-        // Cria a lista de nós fechados
-        List<SearchNode> closedNodeList = new LinkedList<>();
+        // Cria o índice dos nós que estão na lista de abertos
+        SearchNodeSet openedNodeSet = new SearchNodeSet();
+        
+        // Cria o conjunto de nós fechados
+        SearchNodeSet closedNodeSet = new SearchNodeSet();
         
         // Adiciona o nó inicial na lista de abertos
         this.addInOpenedNodeList(searchMode, openedNodeList, getSearchTree().getStartNode());
+        openedNodeSet.add(getSearchTree().getStartNode());
         
         // Adiciona o nó na árvore de busca
         this.getSearchTree().addChildToCurrentNode(getSearchTree().getStartNode());
@@ -94,6 +99,9 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
         // Enquanto não for obtido sucesso ou fracasso
         while (!(getSearchState().equals(SearchState.Success) || getSearchState().equals(SearchState.Failed)))
         {
+            // Atualiza o tamanho máximo da lista de abertos
+            this.getStatistics().updateOpenListSize(openedNodeList.size());
+            
             // Verifica se a lista de abertos está vazia
             if(openedNodeList.isEmpty())
             {
@@ -118,7 +126,8 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
                  * Remove o elemento atual da lista de abertos e adiciona na
                  * lista de fechados
                  */
-                closedNodeList.add(removeFromOpenedNodeList(searchMode, openedNodeList));
+                closedNodeSet.add(removeFromOpenedNodeList(searchMode, openedNodeList));
+                openedNodeSet.remove(openedSearchNode);
                 
                 // Verifica se o nó buscado foi encontrado
                 if(openedSearchNode.getIdNode().equalsIgnoreCase(getSearchTree().getEndNode().getIdNode()))
@@ -139,7 +148,7 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
                      * da árvore de busca, adicionando na lista de abertos
                      */
                     SearchNode currentNode = getSearchTree().getCurrentNode();
-                    SearchNode nextSearchNode = this.transition.applyTransition(currentNode);
+                    SearchNode nextSearchNode = this.transition.applyTransition(searchContext, currentNode);
                     
                     // Enquanto há transição aplicável
                     while(nextSearchNode != null)
@@ -151,7 +160,7 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
                         if (!checkAncestral(nextSearchNode))
                         {
                             // Verifica se podas serão permitidas (enableDuplicated)
-                            if(SearchNode.isEnableDuplicate())
+                            if(searchContext.isEnableDuplicate())
                             {
                                 tmpList.add(nextSearchNode);
                             }
@@ -161,8 +170,8 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
                                  * Caso podas sejam permitidas, verifica se o nó
                                  * já não está nas listas
                                  */
-                                if (!checkContains(closedNodeList, nextSearchNode) && 
-                                        !checkContains(openedNodeList, nextSearchNode)) 
+                                if (!checkContains(closedNodeSet, nextSearchNode) && 
+                                        !checkContains(openedNodeSet, nextSearchNode)) 
                                 {
                                     tmpList.add(nextSearchNode);
                                 }
@@ -170,7 +179,7 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
                         }
                         
                         // Aplica a próxima transição
-                        nextSearchNode = this.transition.applyTransition(currentNode);
+                        nextSearchNode = this.transition.applyTransition(searchContext, currentNode);
                     }
                     
                     // Verifica se houve expansão do estado
@@ -189,6 +198,7 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
 
                                 // Adiciona na lista de abertos
                                 this.addInOpenedNodeList(searchMode, openedNodeList, nextSearchNode);
+                                openedNodeSet.add(nextSearchNode);
 
                                 // Adiciona o nó na árvore de busca
                                 this.getSearchTree().addChildToCurrentNode(nextSearchNode);
@@ -203,6 +213,7 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
 
                                 // Adiciona na lista de abertos
                                 this.addInOpenedNodeList(searchMode, openedNodeList, nextSearchNode);
+                                openedNodeSet.add(nextSearchNode);
 
                                 // Adiciona o nó na árvore de busca
                                 this.getSearchTree().addChildToCurrentNode(nextSearchNode);
@@ -225,6 +236,9 @@ public class BreadthAndDepthSearch extends AbstractAlgorithmSearch
         // Define o tempo total de execução
         this.setExecutionTime(executionTime);
         
+        // Guarda o resultado da busca (Caminho, custo e profundidade da solução)
+        this.makeSearchResult();
+        
         // Dispara evento que a busca foi terminada
         this.getSearchStoppedEvenInitiator().fireEvent(getSearchState());
     }
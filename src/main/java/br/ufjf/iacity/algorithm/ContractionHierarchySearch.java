@@ -0,0 +1,59 @@
+package br.ufjf.iacity.algorithm;
+
+import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.graph.ContractionHierarchy;
+import br.ufjf.iacity.graph.ContractionHierarchyQuery;
+
+/**
+ * Menor caminho pela hierarquia de contração do grafo
+ * (AlgorithmParameter.getContractionHierarchy)
+ *
+ * A consulta bidirecional sobe na hierarquia a partir dos dois nós e o
+ * caminho encontrado é desempacotado nas cidades do grafo original. Os nós
+ * fechados pela consulta ficam em getSettledNodeCount
+ */
+public class ContractionHierarchySearch extends AbstractIndexSearch
+{
+    // Hierarquia de contração do grafo
+    private final ContractionHierarchy contractionHierarchy;
+
+    // Nós fechados pela última consulta
+    private int settledNodeCount;
+
+    /**
+     * @param parameter Parâmetros de inicialização para o algoritmo de busca
+     *
+     * @throws IllegalArgumentException
+     */
+    public ContractionHierarchySearch(AlgorithmParameter parameter) throws IllegalArgumentException
+    {
+        super(parameter);
+
+        if ((parameter.getContractionHierarchy() == null) || !parameter.getContractionHierarchy().isCompatible(this.searchContext.getCompiledGraph()))
+        {
+            throw new IllegalArgumentException("O modo CH precisa de uma hierarquia de contração calculada para o grafo da busca");
+        }
+
+        this.contractionHierarchy = parameter.getContractionHierarchy();
+    }
+
+    @Override
+    protected int[] findPath()
+    {
+        // A consulta da thread é reaproveitada: a busca anterior é desfeita apenas nos nós alcançados
+        ContractionHierarchyQuery query = contractionHierarchy.getThreadQuery();
+        query.search(startIndex, endIndex);
+
+        this.settledNodeCount = query.getSettledNodeCount();
+
+        return query.getPath();
+    }
+
+    /**
+     * @return Quantidade de nós fechados pelas buscas direta e reversa da consulta
+     */
+    public int getSettledNodeCount()
+    {
+        return settledNodeCount;
+    }
+}
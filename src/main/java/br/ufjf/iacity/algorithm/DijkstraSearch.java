@@ -0,0 +1,41 @@
+package br.ufjf.iacity.algorithm;
+
+import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.graph.DijkstraEngine;
+
+/**
+ * Menor caminho pela árvore de menores caminhos do nó inicial
+ * (AlgorithmParameter.getDijkstraEngine)
+ *
+ * A árvore é calculada pelo algoritmo de Dijkstra na primeira consulta do nó
+ * inicial e guardada pelo DijkstraEngine, de forma que as consultas
+ * seguintes da mesma origem apenas percorrem os nós anteriores até o nó final
+ */
+public class DijkstraSearch extends AbstractIndexSearch
+{
+    // Consultas de Dijkstra sobre o grafo, com as árvores em cache
+    private final DijkstraEngine dijkstraEngine;
+
+    /**
+     * @param parameter Parâmetros de inicialização para o algoritmo de busca
+     *
+     * @throws IllegalArgumentException
+     */
+    public DijkstraSearch(AlgorithmParameter parameter) throws IllegalArgumentException
+    {
+        super(parameter);
+
+        if ((parameter.getDijkstraEngine() == null) || !parameter.getDijkstraEngine().isCompatible(this.searchContext.getCompiledGraph()))
+        {
+            throw new IllegalArgumentException("O modo Dijkstra precisa de um DijkstraEngine criado para o grafo da busca");
+        }
+
+        this.dijkstraEngine = parameter.getDijkstraEngine();
+    }
+
+    @Override
+    protected int[] findPath()
+    {
+        return dijkstraEngine.getPath(startIndex, endIndex);
+    }
+}
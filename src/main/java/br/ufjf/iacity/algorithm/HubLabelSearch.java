@@ -0,0 +1,41 @@
+package br.ufjf.iacity.algorithm;
+
+import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.graph.HubLabeling;
+
+/**
+ * Menor caminho pelos rótulos de hubs do grafo
+ * (AlgorithmParameter.getHubLabeling)
+ *
+ * A distância sai da intercalação dos rótulos de saída do nó inicial e de
+ * entrada do nó final, sem percorrer o grafo. O caminho é montado a partir
+ * do hub em comum que define essa distância
+ */
+public class HubLabelSearch extends AbstractIndexSearch
+{
+    // Rótulos de hubs do grafo
+    private final HubLabeling hubLabeling;
+
+    /**
+     * @param parameter Parâmetros de inicialização para o algoritmo de busca
+     *
+     * @throws IllegalArgumentException
+     */
+    public HubLabelSearch(AlgorithmParameter parameter) throws IllegalArgumentException
+    {
+        super(parameter);
+
+        if ((parameter.getHubLabeling() == null) || !parameter.getHubLabeling().isCompatible(this.searchContext.getCompiledGraph()))
+        {
+            throw new IllegalArgumentException("O modo HL precisa de rótulos de hubs calculados para o grafo da busca");
+        }
+
+        this.hubLabeling = parameter.getHubLabeling();
+    }
+
+    @Override
+    protected int[] findPath()
+    {
+        return hubLabeling.getPath(startIndex, endIndex);
+    }
+}
@@ -1,18 +1,35 @@
 package br.ufjf.iacity.algorithm;
 
 import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.algorithm.search.HeuristicTable;
+import br.ufjf.iacity.algorithm.search.SearchContext;
 import br.ufjf.iacity.algorithm.search.SearchNode;
 import br.ufjf.iacity.algorithm.search.SearchTree;
-import br.ufjf.iacity.helper.sort.QuickSort;
-import br.ufjf.iacity.model.City;
-import java.util.LinkedList;
-import java.util.List;
+import br.ufjf.iacity.graph.CompiledCityGraph;
+import br.ufjf.iacity.helper.coordinate.DistanceKernel;
+import java.util.Arrays;
+import java.util.BitSet;
 
 /**
  * Algoritmo IDA*. Método informado de busca
+ * 
+ * A busca em profundidade limitada pelo patamar é feita sem recursão, com uma
+ * pilha de quadros: cada quadro guarda o nó do caminho e a última aresta
+ * tentada a partir dele (Cursor). As arestas de cada nó são percorridas na 
+ * ordem alfabética do destino (CompiledCityGraph.getNameRank), a partir do 
+ * cursor do quadro, de forma que um nó alcançado de novo por outro caminho 
+ * tenta novamente todas as suas arestas. O próximo patamar é o menor valor de
+ * f(n) entre os nós descartados, mantido durante a iteração, sem guardar os 
+ * nós. A árvore guarda apenas o caminho atual, então a memória usada é 
+ * proporcional à profundidade do caminho (Mais o menor custo já encontrado
+ * para cada nó, que evita percorrer a subárvore de um nó alcançado por um
+ * caminho mais caro).
  */
 public class IDASearch extends AbstractAlgorithmSearch
 {
+    // Fórmula da distância em linha reta usada pela heurística
+    private final DistanceKernel distanceKernel;
+    
     /**
      * @param parameter Parâmetros de inicialização para o algoritmo de busca
      * 
@@ -21,7 +38,8 @@ public class IDASearch extends AbstractAlgorithmSearch
     public IDASearch(AlgorithmParameter parameter) throws IllegalArgumentException
     {
         if ((parameter.getGraph() == null) || (parameter.getTransition() == null)
-                || (parameter.getStartCityNode() == null) || (parameter.getEndCityNode() == null)) 
+                || (parameter.getStartCityNode() == null) || (parameter.getEndCityNode() == null)
+                || (parameter.getDistanceKernel() == null)) 
         {
             throw new IllegalArgumentException("Não é permitido nenhum parâmetro nulo para o construtor da classe IDASearch");
         }
@@ -31,21 +49,24 @@ public class IDASearch extends AbstractAlgorithmSearch
         this.transition = parameter.getTransition();
         
         // Inicializa a árvore de busca e define o nó inicial e final
-        this.searchTree = new SearchTree();
+        this.searchTree = new SearchTree(!parameter.isEnableLeanMode());
         this.searchTree.setStartNode(new SearchNode(null, 0, parameter.getStartCityNode()));
         this.searchTree.setEndNode(new SearchNode(null, 0, parameter.getEndCityNode()));
         
-        // Configura opções a serem usadas durante a busca
-        SearchNode.setEnableDuplicate(parameter.isEnableDuplicated());
-        SearchNode.setEnableCost(true);
+        // Define a fórmula da distância usada pela heurística
+        this.distanceKernel = parameter.getDistanceKernel();
+        
+        // Configura opções a serem usadas durante a busca (Contexto desta execução)
+        this.searchContext = new SearchContext(this.cityGraph.getCompiledGraph(), parameter.isEnableDuplicated(), true,
+                parameter.getArcFlags(), parameter.getEndCityNode());
         
         // Define o estado atual da busca
         this.setSearchState(SearchState.Stopped);
     }
     
     /**
-     * Executa a busca sobre o grafo, usando as regras 
-     * de transição definidas na inicialização da classe
+     * Executa a busca sobre o grafo, percorrendo as arestas de cada nó em 
+     * ordem alfabética (Mesma ordem de AlphabeticalTransition)
      */
     @Override
     public void search()
@@ -62,153 +83,225 @@ public class IDASearch extends AbstractAlgorithmSearch
         //Adiciona o nó inicial na árvore de busca
         this.getSearchTree().addChildToCurrentNode(getSearchTree().getStartNode());
         
-        // Define o valor da função de avaliação para a raíz
         SearchNode startNode = this.getSearchTree().getCurrentNode();
         SearchNode endNode = this.getSearchTree().getEndNode();
         
-        City startCity = startNode.getCityNodeGraph().getCity();
-        City endCity = endNode.getCityNodeGraph().getCity();
+        CompiledCityGraph graph = searchContext.getCompiledGraph();
+        int startIndex = graph.indexOf(startNode.getCityNodeGraph());
+        int endIndex = graph.indexOf(endNode.getCityNodeGraph());
+        
+        // Define que o nó inicial foi visitado
+        startNode.setVisited(true);
+        
+        if ((startIndex < 0) || (endIndex < 0))
+        {
+            // Sem o nó inicial ou o final no grafo compilado, não há caminho
+            setSearchState(SearchState.Failed);
+        }
+        else if (graph.getStateId(startIndex) == graph.getStateId(endIndex))
+        {
+            setSearchState(SearchState.Success);
+            getSearchTree().setEndNode(startNode);
+        }
+        else
+        {
+            searchFrom(graph, startNode, startIndex, endIndex);
+        }
+        
+        // Marca o tempo final
+        long endSearchTime = System.nanoTime();
         
-        startNode.setEvalFunctionValue(startCity.getCoordinate().distanceTo(endCity.getCoordinate()));
+        // Tempo total de execução em milisegundos
+        double executionTime = ((endSearchTime - startSearchTime) / 1e6);
+        
+        // Define o tempo total de execução
+        this.setExecutionTime(executionTime);
+        
+        // Guarda o resultado da busca (Caminho, custo e profundidade da solução)
+        this.makeSearchResult();
+        
+        // Dispara evento que a busca foi terminada
+        this.getSearchStoppedEvenInitiator().fireEvent(getSearchState());
+    }
+    
+    /**
+     * Executa as iterações de busca em profundidade limitada pelo patamar, 
+     * até encontrar o nó final ou não restar nó descartado
+     */
+    private void searchFrom(CompiledCityGraph graph, SearchNode startNode, int startIndex, int endIndex)
+    {
+        // Heurística de cada nó até o nó final, reaproveitada por todas as iterações
+        HeuristicTable heuristicTable = new HeuristicTable(graph, getSearchTree().getEndNode().getCityNodeGraph(), distanceKernel);
+        
+        startNode.setEvalFunctionValue(heuristicTable.getValue(startIndex));
         
         // Define o patamar
         double patamar = startNode.getEvalFunctionValue();
-        double old_patamar = -1;
         
-        // Define que o nó inicial foi visitado
-        startNode.setVisited(true);
+        // Quadros do caminho atual: nó e última aresta tentada a partir dele (-1 antes da primeira)
+        int[] frameNodes = new int[16];
+        int[] frameEdges = new int[16];
+        
+        // Estados do caminho atual (Evita ciclos)
+        BitSet pathStates = new BitSet(graph.getNodeCount());
         
-        // Cria a lista de descartados
-        List<SearchNode> discardedNodeList = new LinkedList<>();
+        /**
+         * Menor g(n) com que cada nó já foi alcançado e a iteração em que isso
+         * ocorreu por último. Um nó alcançado com custo maior que esse não
+         * está no caminho ótimo e não é expandido; com custo igual, é expandido
+         * apenas uma vez por iteração (A subárvore já foi percorrida com a
+         * mesma folga)
+         */
+        double[] bestCosts = new double[graph.getNodeCount()];
+        int[] bestCostIterations = new int[graph.getNodeCount()];
+        int iteration = 0;
         
-        // Enquanto não for obtido sucesso ou fracasso
-        while (!(getSearchState().equals(SearchState.Success) || getSearchState().equals(SearchState.Failed)))
+        Arrays.fill(bestCosts, Double.POSITIVE_INFINITY);
+        
+        while (getSearchState().equals(SearchState.Searching))
         {
-            if(old_patamar == patamar)
-            {
-                 setSearchState(SearchState.Failed);
-            }
-            else
+            // Menor valor de f(n) entre os nós descartados na iteração atual (Próximo patamar)
+            double nextPatamar = Double.POSITIVE_INFINITY;
+            
+            iteration++;
+            bestCosts[startIndex] = 0;
+            bestCostIterations[startIndex] = iteration;
+            
+            int depth = 0;
+            frameNodes[0] = startIndex;
+            frameEdges[0] = -1;
+            pathStates.set(graph.getStateId(startIndex));
+            
+            while (depth >= 0)
             {
                 SearchNode currentNode = getSearchTree().getCurrentNode();
+                int node = frameNodes[depth];
+                int edge = nextEdge(graph, node, frameEdges[depth]);
                 
-                // Define que o nó atual da árvore foi visitado
-                currentNode.setVisited(true);
-                
-                /**
-                 * Verifica se o estado atual é a solução e se atende à regra
-                 * f(n) <= patamar
-                 */
-                if (currentNode.getIdNode().equalsIgnoreCase(getSearchTree().getEndNode().getIdNode())
-                        && (currentNode.getEvalFunctionValue() <= patamar))
+                if (edge < 0)
                 {
-                    // A busca teve sucesso
-                    setSearchState(SearchState.Success);
-
-                    // O novo nó é o nó final
-                    getSearchTree().setEndNode(currentNode);
-                }
-                else
-                {
-                    /**
-                     * Verifica se o valor da função de avaliação do estado atual
-                     * é maior que o patamar, caso seja, insere na lista de
-                     * descartados
-                     */
-                    if(currentNode.getEvalFunctionValue() > patamar)
+                    // Todas as arestas do nó foram tentadas: retorna para o pai
+                    pathStates.clear(graph.getStateId(node));
+                    
+                    if (depth > 0)
                     {
-                        // Insere o nó atual na lista de desccartados
-                        discardedNodeList.add(currentNode);
-                        
-                        // Remove o nó atual da árvore de busca
                         this.getSearchTree().removeChildNode(currentNode);
-                        
-                        // Retorna para o pai do nó atual
                         this.getSearchTree().setCurrentNode(currentNode.getRootNode());
-                        currentNode = getSearchTree().getCurrentNode();
                     }
                     
-                    // Aplica a transição sobre o nó atual da árvore de busca
-                    SearchNode nextSearchNode = transition.applyTransition(currentNode);
-                    
-                    // Verifica se a transição foi aplicada
-                    if(nextSearchNode != null)
-                    {                        
-                        // Verifica se não há ancestral para o nó
-                        if (!checkAncestral(nextSearchNode))
-                        {
-                            // Define que o nó atual foi expandido
-                            currentNode.setExpanded(true);
-                            
-                            // Define o custo do estado (Da raíz até o estado atual)
-                            double cost = currentNode.getCost() + nextSearchNode.getCost();
-                            nextSearchNode.setCost(cost);
-                            
-                            // Define o valor da função de avaliação
-                            startCity = nextSearchNode.getCityNodeGraph().getCity();
-                            
-                            nextSearchNode.setEvalFunctionValue(cost + 
-                                    startCity.getCoordinate().distanceTo(endCity.getCoordinate()));
-                            
-                             // Adiciona o novo nó na árvore de busca
-                            this.getSearchTree().addChildToCurrentNode(nextSearchNode);
-                            
-                            // Altera o nó atual para o novo nó criado
-                            this.getSearchTree().setCurrentNode(nextSearchNode);
-                        }
-                    }
-                    else
-                    {
-                        // Verifica se retornou para a raíz
-                        if(currentNode.getIdNode().equalsIgnoreCase(getSearchTree().getStartNode().getIdNode()))
-                        {
-                            // Guarda o patamar antigo
-                            old_patamar = patamar;
-                            
-                            if(!discardedNodeList.isEmpty())
-                            {
-                                // Ordena a lista de descartados usando a função de avaliação dos nós
-                                discardedNodeList = QuickSort.sort(discardedNodeList, QuickSort.SortType.EvalFunction);
-
-                                /**
-                                 * Define o novo patamar que será utilizado a
-                                 * partir da lista de descartados. Como a lista
-                                 * se encontra ordenada pelo valor da função de
-                                 * avalição, basta pegar o primeiro item da
-                                 * lista
-                                 */
-                                patamar = discardedNodeList.get(0).getEvalFunctionValue();
-
-                                // Limpa a lista de descartados
-                                discardedNodeList.clear();
-                                
-                                // Reseta o estado do grafo
-                                this.getCityGraph().resetState();
-                                
-                                // Reinicia a árvore
-                                this.getSearchTree().resetTree();
-                            }
-                        }
-                        else
-                        {
-                            // Retorna para o pai do nó atual
-                            this.getSearchTree().setCurrentNode(currentNode.getRootNode());
-                        }
-                    }
+                    depth--;
+                    continue;
+                }
+                
+                frameEdges[depth] = edge;
+                int next = graph.getEdgeTarget(edge);
+                
+                // Verifica se o estado já está no caminho
+                if (pathStates.get(graph.getStateId(next)))
+                {
+                    continue;
+                }
+                
+                double cost = currentNode.getCost() + graph.getEdgeCost(edge);
+                double evalFunctionValue = cost + heuristicTable.getValue(next);
+                
+                // Descarta o nó se f(n) é maior que o patamar
+                if (evalFunctionValue > patamar)
+                {
+                    nextPatamar = Math.min(nextPatamar, evalFunctionValue);
+                    continue;
+                }
+                
+                // Descarta o nó se ele já foi alcançado por um caminho mais barato (Ou tão barato quanto, nesta iteração)
+                if ((bestCosts[next] < cost) || ((bestCostIterations[next] == iteration) && (bestCosts[next] <= cost)))
+                {
+                    continue;
+                }
+                
+                bestCosts[next] = cost;
+                bestCostIterations[next] = iteration;
+                
+                // Define que o nó atual foi expandido
+                currentNode.setExpanded(true);
+                
+                SearchNode nextSearchNode = new SearchNode(currentNode, currentNode.getTreeLevel() + 1, graph.getNode(next));
+                nextSearchNode.setCost(cost);
+                nextSearchNode.setEvalFunctionValue(evalFunctionValue);
+                nextSearchNode.setVisited(true);
+                
+                // Adiciona o novo nó na árvore de busca e avança para ele
+                this.getSearchTree().addChildToCurrentNode(nextSearchNode);
+                this.getSearchTree().setCurrentNode(nextSearchNode);
+                
+                if (graph.getStateId(next) == graph.getStateId(endIndex))
+                {
+                    // A busca teve sucesso, f(n) <= patamar
+                    setSearchState(SearchState.Success);
+                    getSearchTree().setEndNode(nextSearchNode);
+                    break;
+                }
+                
+                depth++;
+                
+                if (depth == frameNodes.length)
+                {
+                    frameNodes = Arrays.copyOf(frameNodes, depth * 2);
+                    frameEdges = Arrays.copyOf(frameEdges, depth * 2);
+                }
+                
+                frameNodes[depth] = next;
+                frameEdges[depth] = -1;
+                pathStates.set(graph.getStateId(next));
+            }
+            
+            if (getSearchState().equals(SearchState.Searching))
+            {
+                if (Double.isInfinite(nextPatamar))
+                {
+                    // Nenhum nó foi descartado, não há o que buscar com um patamar maior
+                    setSearchState(SearchState.Failed);
+                }
+                else
+                {
+                    // Define o novo patamar; a iteração seguinte recomeça da raíz
+                    patamar = nextPatamar;
                 }
             }
         }
+    }
+    
+    /**
+     * Próxima aresta a tentar a partir de um nó, na ordem alfabética do 
+     * destino (Empates pelo id da aresta), ignorando as podadas pelos arc flags
+     * 
+     * @param graph Grafo compilado
+     * @param node Id denso do nó
+     * @param lastEdge Última aresta tentada a partir do nó, ou -1
+     * @return Id da próxima aresta, ou -1 se todas já foram tentadas
+     */
+    private int nextEdge(CompiledCityGraph graph, int node, int lastEdge)
+    {
+        int lastRank = (lastEdge >= 0) ? graph.getNameRank(graph.getEdgeTarget(lastEdge)) : -1;
+        int nextEdge = -1;
+        int nextRank = 0;
         
-        // Marca o tempo final
-        long endSearchTime = System.nanoTime();
-        
-        // Tempo total de execução em milisegundos
-        double executionTime = ((endSearchTime - startSearchTime) / 1e6);
-        
-        // Define o tempo total de execução
-        this.setExecutionTime(executionTime);
+        for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++)
+        {
+            int rank = graph.getNameRank(graph.getEdgeTarget(edge));
+            
+            // Apenas as arestas depois do cursor
+            if ((rank < lastRank) || ((rank == lastRank) && (edge <= lastEdge)))
+            {
+                continue;
+            }
+            
+            if (((nextEdge < 0) || (rank < nextRank)) && searchContext.isAdjacencyAllowed(edge))
+            {
+                nextEdge = edge;
+                nextRank = rank;
+            }
+        }
         
-        // Dispara evento que a busca foi terminada
-        this.getSearchStoppedEvenInitiator().fireEvent(getSearchState());
+        return nextEdge;
     }
 }
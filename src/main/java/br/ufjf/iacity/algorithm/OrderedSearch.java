@@ -1,12 +1,12 @@
 package br.ufjf.iacity.algorithm;
 
+import br.ufjf.iacity.algorithm.search.SearchContext;
 import br.ufjf.iacity.algorithm.search.SearchNode;
+import br.ufjf.iacity.algorithm.search.SearchNodeSet;
+import br.ufjf.iacity.algorithm.search.SearchNodePriorityQueue;
 import br.ufjf.iacity.algorithm.search.SearchTree;
 import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
-import br.ufjf.iacity.helper.sort.QuickSort;
 import br.ufjf.iacity.helper.sort.QuickSort.SortType;
-import java.util.LinkedList;
-import java.util.List;
 
 /**
  * Algoritmo de busca Ordered. Método não informado de busca
@@ -31,13 +31,13 @@ public class OrderedSearch extends AbstractAlgorithmSearch
         this.transition = parameter.getTransition();
         
         // Inicializa a árvore de busca e define o nó inicial e final
-        this.searchTree = new SearchTree();
+        this.searchTree = new SearchTree(!parameter.isEnableLeanMode());
         this.searchTree.setStartNode(new SearchNode(null, 0, parameter.getStartCityNode()));
         this.searchTree.setEndNode(new SearchNode(null, 0, parameter.getEndCityNode()));
         
-        // Configura opções a serem usadas durante a busca
-        SearchNode.setEnableDuplicate(parameter.isEnableDuplicated());
-        SearchNode.setEnableCost(true);
+        // Configura opções a serem usadas durante a busca (Contexto desta execução)
+        this.searchContext = new SearchContext(this.cityGraph.getCompiledGraph(), parameter.isEnableDuplicated(), true,
+                parameter.getArcFlags(), parameter.getEndCityNode());
         
         // Define o estado atual da busca
         this.setSearchState(SearchState.Stopped);
@@ -60,13 +60,13 @@ public class OrderedSearch extends AbstractAlgorithmSearch
         long startSearchTime = System.nanoTime();
         
         // Cria a lista de nós abertos
-        List<SearchNode> openedNodeList = new LinkedList<>();
+        SearchNodePriorityQueue openedNodeQueue = new SearchNodePriorityQueue(SortType.Cost);
 
-        // Cria a lista de nós fechados
-        List<SearchNode> closedNodeList = new LinkedList<>();
+        // Cria o conjunto de nós fechados
+        SearchNodeSet closedNodeSet = new SearchNodeSet();
         
         // Adiciona o nó inicial na lista de abertos
-        this.addInOpenedNodeList(SearchMode.Ordered, openedNodeList, getSearchTree().getStartNode());
+        openedNodeQueue.add(getSearchTree().getStartNode());
         
         // Adiciona o nó na árvore de busca
         this.getSearchTree().addChildToCurrentNode(getSearchTree().getStartNode());
@@ -74,8 +74,11 @@ public class OrderedSearch extends AbstractAlgorithmSearch
         // Enquanto não for obtido sucesso ou fracasso
         while (!(getSearchState().equals(SearchState.Success) || getSearchState().equals(SearchState.Failed)))
         {
+            // Atualiza o tamanho máximo da lista de abertos
+            this.getStatistics().updateOpenListSize(openedNodeQueue.size());
+            
             // Verifica se a lista de abertos está vazia
-            if(openedNodeList.isEmpty())
+            if(openedNodeQueue.isEmpty())
             {
                 // Se sim, a busca terminou com fracasso
                 this.setSearchState(SearchState.Failed);
@@ -83,7 +86,7 @@ public class OrderedSearch extends AbstractAlgorithmSearch
             else
             {
                 // Seleciona o menor elemento da lista de abertos (Lista ordenada)
-                SearchNode openedSearchNode = this.getElementFromOpenedNodeList(SearchMode.Ordered, openedNodeList);
+                SearchNode openedSearchNode = openedNodeQueue.peek();
                 
                 // Altera o nó atual para o novo nó
                 this.getSearchTree().setCurrentNode(openedSearchNode);
@@ -95,7 +98,7 @@ public class OrderedSearch extends AbstractAlgorithmSearch
                  * Remove o elemento atual da lista de abertos e adiciona na
                  * lista de fechados
                  */
-                closedNodeList.add(removeFromOpenedNodeList(SearchMode.Ordered, openedNodeList));
+                closedNodeSet.add(openedNodeQueue.poll());
                 
                 // Verifica se o nó buscado foi encontrado
                 if(openedSearchNode.getIdNode().equalsIgnoreCase(getSearchTree().getEndNode().getIdNode()))
@@ -115,7 +118,7 @@ public class OrderedSearch extends AbstractAlgorithmSearch
                      * Aplica cada transição possível sobre o nó atual 
                      * da árvore de busca, adicionando na lista de abertos
                      */
-                    SearchNode nextSearchNode = this.transition.applyTransition(currentNode);
+                    SearchNode nextSearchNode = this.transition.applyTransition(searchContext, currentNode);
                     
                     // Enquanto há transição aplicável
                     while(nextSearchNode != null)
@@ -127,56 +130,48 @@ public class OrderedSearch extends AbstractAlgorithmSearch
                         if (!checkAncestral(nextSearchNode))
                         {
                             // Verifica se podas serão permitidas (enableDuplicated)
-                            if(!SearchNode.isEnableDuplicate())
+                            if(!searchContext.isEnableDuplicate())
                             {
                                 /**
                                  * Verifica se não está na lista de fechados.
                                  * Caso esteja, o novo estado não deve ser adicionado
                                  */
-                                if(!checkContains(closedNodeList, nextSearchNode))
+                                if(!checkContains(closedNodeSet, nextSearchNode))
                                 {
+                                    // Busca pelo estado igual na lista de abertos
+                                    SearchNode openedNode = openedNodeQueue.find(nextSearchNode);
+                                    
                                     // Verifica se está na lista de abertos
-                                    if(checkContains(openedNodeList, nextSearchNode))
+                                    if(openedNode != null)
                                     {
-                                        // Busca pelo estado igual na lista de abertos
-                                        for(SearchNode openedNode : openedNodeList)
+                                        /**
+                                         * Compara o custo dos estados
+                                         * para verificar qual deve ser mantido
+                                         * na lista de abertos
+                                         */
+                                        if(nextSearchNode.compareTo(openedNode) < 0)
                                         {
-                                            if(openedNode.getIdNode().equalsIgnoreCase(nextSearchNode.getIdNode()))
-                                            {
-                                                /**
-                                                 * Compara o custo dos estados
-                                                 * para verificar qual deve ser mantido
-                                                 * na lista de abertos
-                                                 */
-                                                if(nextSearchNode.compareTo(openedNode) < 0)
-                                                {
-                                                    /**
-                                                     * Caso o novo estado tenha um custo menor que
-                                                     * o estado que já está na lista de abertos,
-                                                     * deve-se remover o estado que já está na lista
-                                                     * e adicionar o novo
-                                                     */
-                                                    openedNodeList.remove(openedNode);
-                                                    
-                                                    // Adiciona na lista de abertos
-                                                    this.addInOpenedNodeList(SearchMode.Ordered, openedNodeList, nextSearchNode);
-                                                    
-                                                    // Remove o nó antigo da árvore de busca
-                                                    this.getSearchTree().removeChildNode(openedNode);
-                                                    
-                                                    // Adiciona o novo nó na árvore de busca
-                                                    this.getSearchTree().addChildToCurrentNode(nextSearchNode);
-                                                    
-                                                    isExpanded = true;
-                                                    break;
-                                                }
-                                            }
+                                            /**
+                                             * Caso o novo estado tenha um custo menor que
+                                             * o estado que já está na lista de abertos,
+                                             * o novo estado substitui o antigo na lista
+                                             * (Diminuição de chave)
+                                             */
+                                            openedNodeQueue.replace(openedNode, nextSearchNode);
+                                            
+                                            // Remove o nó antigo da árvore de busca
+                                            this.getSearchTree().removeChildNode(openedNode);
+                                            
+                                            // Adiciona o novo nó na árvore de busca
+                                            this.getSearchTree().addChildToCurrentNode(nextSearchNode);
+                                            
+                                            isExpanded = true;
                                         }
                                     }
                                     else
                                     {
                                         // Caso não esteja, adicionar o novo estado imediatamente
-                                        this.addInOpenedNodeList(SearchMode.Ordered, openedNodeList, nextSearchNode);
+                                        openedNodeQueue.add(nextSearchNode);
                                         
                                         // Adiciona o nó na árvore de busca
                                         this.getSearchTree().addChildToCurrentNode(nextSearchNode);
@@ -191,7 +186,7 @@ public class OrderedSearch extends AbstractAlgorithmSearch
                                  * Caso podas não sejam permitidas, adicionar
                                  * o novo estado imediatamente
                                  */
-                                this.addInOpenedNodeList(SearchMode.Ordered, openedNodeList, nextSearchNode);
+                                openedNodeQueue.add(nextSearchNode);
                                 
                                 // Adiciona o nó na árvore de busca
                                 this.getSearchTree().addChildToCurrentNode(nextSearchNode);
@@ -201,15 +196,12 @@ public class OrderedSearch extends AbstractAlgorithmSearch
                         }
                         
                         // Aplica a próxima transição
-                        nextSearchNode = this.transition.applyTransition(currentNode);
+                        nextSearchNode = this.transition.applyTransition(searchContext, currentNode);
                     }
                     
                     // Verfica se houve expansão do estado
                     if(isExpanded)
                     {
-                        // Ordena a lista de abertos usando o custo dos nós
-                        openedNodeList = QuickSort.sort(openedNodeList, SortType.Cost);
-
                         // Define que o nó atual da árvore foi expandido
                         this.getSearchTree().getCurrentNode().setExpanded(true);
                     }
@@ -226,6 +218,9 @@ public class OrderedSearch extends AbstractAlgorithmSearch
         // Define o tempo total de execução
         this.setExecutionTime(executionTime);
         
+        // Guarda o resultado da busca (Caminho, custo e profundidade da solução)
+        this.makeSearchResult();
+        
         // Dispara evento que a busca foi terminada
         this.getSearchStoppedEvenInitiator().fireEvent(getSearchState());
     }
@@ -0,0 +1,184 @@
+package br.ufjf.iacity.algorithm.batch;
+
+import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch;
+import br.ufjf.iacity.algorithm.AlgorithmSearchFactory;
+import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.algorithm.transition.ITransitionFactory;
+import br.ufjf.iacity.graph.ArcFlags;
+import br.ufjf.iacity.graph.CityGraph;
+import br.ufjf.iacity.graph.ContractionHierarchy;
+import br.ufjf.iacity.graph.DijkstraEngine;
+import br.ufjf.iacity.graph.HubLabeling;
+import br.ufjf.iacity.graph.LandmarkTable;
+import br.ufjf.iacity.helper.coordinate.DistanceKernel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Executa várias consultas de origem/destino sobre o mesmo grafo de cidades,
+ * distribuindo as buscas entre as threads de um ExecutorService (Ex.: pool
+ * fixo ou ForkJoinPool).
+ * 
+ * Cada consulta cria o seu próprio algoritmo de busca, com a sua árvore, o seu
+ * contexto e a sua regra de transição, e apenas lê o grafo. O grafo não deve 
+ * ser alterado enquanto um lote está em execução.
+ */
+public class BatchSearchEngine 
+{
+    // Grafo de cidades compartilhado pelas consultas
+    private final CityGraph cityGraph;
+    
+    // Cria a regra de transição de cada consulta
+    private final ITransitionFactory transitionFactory;
+    
+    // Threads que executam as consultas (Não é finalizado por esta classe)
+    private final ExecutorService executorService;
+    
+    // Fórmula da distância usada pela heurística dos métodos informados
+    private final DistanceKernel distanceKernel;
+    
+    // Marcos do grafo, usados pelas consultas no modo ALT (Pode ser null)
+    private final LandmarkTable landmarkTable;
+    
+    // Hierarquia de contração do grafo, usada pelas consultas no modo CH (Pode ser null)
+    private final ContractionHierarchy contractionHierarchy;
+    
+    // Rótulos de hubs do grafo, usados pelas consultas no modo HL (Pode ser null)
+    private final HubLabeling hubLabeling;
+    
+    // Arc flags do grafo, usados pelas consultas das buscas com custo (Pode ser null)
+    private final ArcFlags arcFlags;
+    
+    // Árvores de menores caminhos do modo Dijkstra, compartilhadas pelas consultas (Pode ser null)
+    private final DijkstraEngine dijkstraEngine;
+
+    /**
+     * @param cityGraph Grafo de cidades do problema
+     * @param transitionFactory Fábrica das regras de transição
+     * @param executorService Threads que executarão as consultas
+     * 
+     * @throws IllegalArgumentException 
+     */
+    public BatchSearchEngine(CityGraph cityGraph, ITransitionFactory transitionFactory, ExecutorService executorService) throws IllegalArgumentException
+    {
+        this(cityGraph, transitionFactory, executorService, new AlgorithmParameter());
+    }
+    
+    /**
+     * @param cityGraph Grafo de cidades do problema
+     * @param transitionFactory Fábrica das regras de transição
+     * @param executorService Threads que executarão as consultas
+     * @param sharedParameter Parâmetros comuns a todas as consultas: a fórmula de
+     * distância da heurística e os dados pré-processados do grafo (Marcos do 
+     * modo ALT, hierarquia de contração do modo CH, rótulos de hubs do modo HL
+     * e arc flags), lidos na criação do lote, e o cache de árvores do modo Dijkstra
+     * 
+     * @throws IllegalArgumentException 
+     */
+    public BatchSearchEngine(CityGraph cityGraph, ITransitionFactory transitionFactory, ExecutorService executorService, 
+            AlgorithmParameter sharedParameter) throws IllegalArgumentException
+    {
+        if ((cityGraph == null) || (transitionFactory == null) || (executorService == null) || 
+                (sharedParameter == null) || (sharedParameter.getDistanceKernel() == null))
+        {
+            throw new IllegalArgumentException("Não é permitido nenhum parâmetro nulo para o construtor da classe BatchSearchEngine");
+        }
+        
+        this.cityGraph = cityGraph;
+        this.transitionFactory = transitionFactory;
+        this.executorService = executorService;
+        this.distanceKernel = sharedParameter.getDistanceKernel();
+        this.landmarkTable = sharedParameter.getLandmarkTable();
+        this.contractionHierarchy = sharedParameter.getContractionHierarchy();
+        this.hubLabeling = sharedParameter.getHubLabeling();
+        this.arcFlags = sharedParameter.getArcFlags();
+        this.dijkstraEngine = sharedParameter.getDijkstraEngine();
+    }
+    
+    /**
+     * Executa uma consulta na thread atual
+     * 
+     * @param query Consulta
+     * @return Resultado da consulta
+     * 
+     * @throws IllegalArgumentException 
+     */
+    public SearchQueryResult search(SearchQuery query) throws IllegalArgumentException
+    {
+        long startQueryTime = System.nanoTime();
+        
+        AlgorithmParameter parameter = new AlgorithmParameter();
+        
+        parameter.setGraph(cityGraph);
+        parameter.setTransition(transitionFactory.createTransition());
+        parameter.setStartCityNode(query.getStartCityNode());
+        parameter.setEndCityNode(query.getEndCityNode());
+        parameter.setSearchMode(query.getSearchMode());
+        parameter.setEnableDuplicated(query.isEnableDuplicated());
+        parameter.setDistanceKernel(distanceKernel);
+        parameter.setLandmarkTable(landmarkTable);
+        parameter.setContractionHierarchy(contractionHierarchy);
+        parameter.setHubLabeling(hubLabeling);
+        parameter.setArcFlags(arcFlags);
+        parameter.setDijkstraEngine(dijkstraEngine);
+        
+        // O resultado usa apenas o caminho e as estatísticas, a árvore completa não é guardada
+        parameter.setEnableLeanMode(true);
+        
+        AbstractAlgorithmSearch algorithmSearch = AlgorithmSearchFactory.createSearch(parameter);
+        algorithmSearch.search();
+        
+        return new SearchQueryResult(query, algorithmSearch, startQueryTime);
+    }
+    
+    /**
+     * Executa todas as consultas em paralelo e aguarda o término
+     * 
+     * @param queryList Consultas
+     * @return Resultados, na mesma ordem das consultas
+     * 
+     * @throws InterruptedException Se a thread atual foi interrompida durante a espera
+     * @throws ExecutionException Se alguma consulta lançou uma exceção (As restantes são canceladas)
+     */
+    public List<SearchQueryResult> searchAll(List<SearchQuery> queryList) throws InterruptedException, ExecutionException
+    {
+        // Compila o grafo antes, para que as threads não disputem a compilação
+        cityGraph.getCompiledGraph();
+        
+        List<Future<SearchQueryResult>> futureList = new ArrayList<>(queryList.size());
+        
+        for (SearchQuery query : queryList)
+        {
+            futureList.add(executorService.submit(() -> search(query)));
+        }
+        
+        List<SearchQueryResult> resultList = new ArrayList<>(queryList.size());
+        
+        try
+        {
+            for (Future<SearchQueryResult> future : futureList)
+            {
+                resultList.add(future.get());
+            }
+        }
+        catch (InterruptedException | ExecutionException ex)
+        {
+            for (Future<SearchQueryResult> future : futureList)
+            {
+                future.cancel(true);
+            }
+            
+            throw ex;
+        }
+        
+        return resultList;
+    }
+    
+    public CityGraph getCityGraph() 
+    {
+        return cityGraph;
+    }
+}
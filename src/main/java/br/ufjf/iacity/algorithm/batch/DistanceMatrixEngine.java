@@ -0,0 +1,296 @@
+package br.ufjf.iacity.algorithm.batch;
+
+import br.ufjf.iacity.graph.CityGraph;
+import br.ufjf.iacity.graph.CityNodeGraph;
+import br.ufjf.iacity.graph.CompiledCityGraph;
+import br.ufjf.iacity.helper.file.IDistanceMatrixWriter;
+import br.ufjf.iacity.helper.sort.IntMinHeap;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Calcula a matriz de custos dos menores caminhos entre uma lista de cidades
+ * de origem e uma lista de cidades de destino.
+ *
+ * Cada linha é uma busca de Dijkstra a partir da origem, que termina assim que
+ * todos os destinos são fechados. Cada thread reaproveita o seu heap e as suas
+ * distâncias entre as linhas, limpando apenas os nós alcançados. As linhas são distribuídas
+ * entre as threads de um ExecutorService e gravadas na ordem das origens,
+ * assim que ficam prontas. No máximo maxPendingRows linhas ficam calculadas
+ * ou em cálculo sem terem sido gravadas, de forma que a memória usada não
+ * depende da quantidade de origens.
+ */
+public class DistanceMatrixEngine
+{
+    // Linhas em cálculo ou aguardando gravação, por padrão
+    public static final int DEFAULT_MAX_PENDING_ROWS = 64;
+
+    // Grafo de cidades compartilhado pelas buscas
+    private final CityGraph cityGraph;
+
+    // Threads que executam as buscas (Não é finalizado por esta classe)
+    private final ExecutorService executorService;
+
+    // Linhas em cálculo ou aguardando gravação, no máximo
+    private final int maxPendingRows;
+
+    // Vetores de trabalho da busca de cada thread
+    private final ThreadLocal<RowSearch> rowSearches = new ThreadLocal<>();
+
+    /**
+     * @param cityGraph Grafo de cidades do problema
+     * @param executorService Threads que executarão as buscas
+     *
+     * @throws IllegalArgumentException
+     */
+    public DistanceMatrixEngine(CityGraph cityGraph, ExecutorService executorService) throws IllegalArgumentException
+    {
+        this(cityGraph, executorService, DEFAULT_MAX_PENDING_ROWS);
+    }
+
+    /**
+     * @param cityGraph Grafo de cidades do problema
+     * @param executorService Threads que executarão as buscas
+     * @param maxPendingRows Linhas em cálculo ou aguardando gravação, no máximo
+     * (Deve ser ao menos a quantidade de threads para ocupar todas)
+     *
+     * @throws IllegalArgumentException
+     */
+    public DistanceMatrixEngine(CityGraph cityGraph, ExecutorService executorService, int maxPendingRows) throws IllegalArgumentException
+    {
+        if ((cityGraph == null) || (executorService == null) || (maxPendingRows < 1))
+        {
+            throw new IllegalArgumentException("O grafo e as threads não devem ser nulos e a quantidade de linhas pendentes deve ser positiva");
+        }
+
+        this.cityGraph = cityGraph;
+        this.executorService = executorService;
+        this.maxPendingRows = maxPendingRows;
+    }
+
+    /**
+     * Calcula uma linha da matriz na thread atual
+     *
+     * @param source Cidade de origem
+     * @param targetList Cidades de destino
+     * @return Custo do menor caminho até cada destino (Infinito se não é alcançável)
+     *
+     * @throws IllegalArgumentException Se alguma cidade não pertence ao grafo
+     */
+    public double[] computeRow(CityNodeGraph source, List<CityNodeGraph> targetList) throws IllegalArgumentException
+    {
+        CompiledCityGraph compiledGraph = cityGraph.getCompiledGraph();
+
+        return computeRow(compiledGraph, indexOf(compiledGraph, source), indexesOf(compiledGraph, targetList));
+    }
+
+    private double[] computeRow(CompiledCityGraph compiledGraph, int source, int[] targets)
+    {
+        RowSearch rowSearch = rowSearches.get();
+
+        // O grafo compilado muda quando o grafo de cidades é alterado
+        if ((rowSearch == null) || (rowSearch.graph != compiledGraph))
+        {
+            rowSearch = new RowSearch(compiledGraph);
+            rowSearches.set(rowSearch);
+        }
+
+        return rowSearch.search(source, targets);
+    }
+
+    /**
+     * Calcula todas as linhas da matriz em paralelo e grava cada uma, na ordem
+     * das origens, assim que fica pronta. O gravador e as threads não são
+     * fechados, mas se o cálculo falha, por qualquer exceção, as linhas ainda
+     * pendentes são canceladas antes de a exceção ser propagada
+     *
+     * @param sourceList Cidades de origem (Linhas)
+     * @param targetList Cidades de destino (Colunas)
+     * @param writer Gravador da matriz
+     *
+     * @throws IOException Se não foi possível gravar a matriz
+     * @throws InterruptedException Se a thread atual foi interrompida durante a espera
+     * @throws ExecutionException Se alguma linha lançou uma exceção
+     * @throws IllegalArgumentException Se alguma cidade não pertence ao grafo
+     */
+    public void computeAll(List<CityNodeGraph> sourceList, List<CityNodeGraph> targetList, IDistanceMatrixWriter writer)
+            throws IOException, InterruptedException, ExecutionException, IllegalArgumentException
+    {
+        if ((sourceList == null) || (targetList == null) || (writer == null))
+        {
+            throw new IllegalArgumentException("As origens, os destinos e o gravador da matriz não devem ser nulos");
+        }
+
+        // Compila o grafo antes, para que as threads não disputem a compilação
+        CompiledCityGraph compiledGraph = cityGraph.getCompiledGraph();
+
+        int[] sources = indexesOf(compiledGraph, sourceList);
+        int[] targets = indexesOf(compiledGraph, targetList);
+
+        writer.writeHeader(sourceList, targetList);
+
+        // Linhas submetidas e ainda não gravadas, na ordem das origens
+        Deque<Future<double[]>> pendingRows = new ArrayDeque<>(Math.min(maxPendingRows, sources.length));
+        int nextRow = 0;
+        int writtenRow = 0;
+
+        try
+        {
+            while (writtenRow < sources.length)
+            {
+                while ((nextRow < sources.length) && (pendingRows.size() < maxPendingRows))
+                {
+                    int source = sources[nextRow++];
+                    pendingRows.addLast(executorService.submit(() -> computeRow(compiledGraph, source, targets)));
+                }
+
+                Future<double[]> row = pendingRows.peekFirst();
+                writer.writeRow(sourceList.get(writtenRow++), row.get());
+                pendingRows.removeFirst();
+            }
+        }
+        finally
+        {
+            // Após qualquer falha (Inclusive do gravador), nenhuma linha fica em cálculo
+            for (Future<double[]> future : pendingRows)
+            {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static int[] indexesOf(CompiledCityGraph compiledGraph, List<CityNodeGraph> cityList) throws IllegalArgumentException
+    {
+        int[] indexes = new int[cityList.size()];
+
+        for (int i = 0; i < indexes.length; i++)
+        {
+            indexes[i] = indexOf(compiledGraph, cityList.get(i));
+        }
+
+        return indexes;
+    }
+
+    private static int indexOf(CompiledCityGraph compiledGraph, CityNodeGraph city) throws IllegalArgumentException
+    {
+        int index = compiledGraph.indexOf(city);
+
+        if (index < 0)
+        {
+            throw new IllegalArgumentException(String.format("A cidade não pertence ao grafo da matriz de distâncias: %s",
+                    (city != null) ? city.getIdNode() : null));
+        }
+
+        return index;
+    }
+
+    public CityGraph getCityGraph()
+    {
+        return cityGraph;
+    }
+
+    /**
+     * Busca de Dijkstra de uma origem até vários destinos, com os vetores de
+     * trabalho reaproveitados entre as buscas. Não deve ser usada por várias
+     * threads ao mesmo tempo
+     */
+    private static final class RowSearch
+    {
+        private final CompiledCityGraph graph;
+        private final IntMinHeap heap;
+
+        // Distância de cada nó alcançado (Infinito nos demais)
+        private final double[] distances;
+
+        // Nós alcançados na busca atual, para limpar as distâncias ao final
+        private final int[] touchedNodes;
+        private int touchedCount;
+
+        // Destinos ainda não fechados na busca atual
+        private final boolean[] pendingTargets;
+
+        private RowSearch(CompiledCityGraph graph)
+        {
+            int n = graph.getNodeCount();
+
+            this.graph = graph;
+            this.heap = new IntMinHeap(n);
+            this.distances = new double[n];
+            this.touchedNodes = new int[n];
+            this.pendingTargets = new boolean[n];
+
+            Arrays.fill(this.distances, Double.POSITIVE_INFINITY);
+        }
+
+        private double[] search(int source, int[] targets)
+        {
+            int pendingCount = 0;
+
+            for (int target : targets)
+            {
+                if (!pendingTargets[target])
+                {
+                    pendingTargets[target] = true;
+                    pendingCount++;
+                }
+            }
+
+            distances[source] = 0;
+            touchedNodes[touchedCount++] = source;
+            heap.offer(source, 0);
+
+            while ((pendingCount > 0) && !heap.isEmpty())
+            {
+                double nodeDistance = heap.peekKey();
+                int node = heap.poll();
+
+                if (pendingTargets[node])
+                {
+                    pendingTargets[node] = false;
+                    pendingCount--;
+                }
+
+                for (int i = graph.getEdgeStart(node); i < graph.getEdgeEnd(node); i++)
+                {
+                    int next = graph.getEdgeTarget(i);
+                    double nextDistance = nodeDistance + graph.getEdgeCost(i);
+
+                    if (nextDistance < distances[next])
+                    {
+                        if (Double.isInfinite(distances[next]))
+                        {
+                            touchedNodes[touchedCount++] = next;
+                        }
+
+                        distances[next] = nextDistance;
+                        heap.offer(next, nextDistance);
+                    }
+                }
+            }
+
+            double[] row = new double[targets.length];
+
+            for (int i = 0; i < targets.length; i++)
+            {
+                row[i] = distances[targets[i]];
+                pendingTargets[targets[i]] = false;
+            }
+
+            for (int i = 0; i < touchedCount; i++)
+            {
+                distances[touchedNodes[i]] = Double.POSITIVE_INFINITY;
+            }
+
+            touchedCount = 0;
+            heap.clear();
+
+            return row;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package br.ufjf.iacity.algorithm.batch;
+
+import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch.SearchMode;
+import br.ufjf.iacity.graph.CityNodeGraph;
+
+/**
+ * Consulta de origem/destino executada em lote (Imutável)
+ */
+public class SearchQuery 
+{
+    // Nó do grafo de cidades que será o início do problema
+    private final CityNodeGraph startCityNode;
+    
+    // Nó do grafo de cidades que será o fim do problema
+    private final CityNodeGraph endCityNode;
+    
+    // Algoritmo de busca que responderá a consulta
+    private final SearchMode searchMode;
+    
+    // Habilita/desabilita a possiblidade de adicionar estados duplicados na árvore de busca
+    private final boolean enableDuplicated;
+
+    /**
+     * @param startCityNode Nó inicial
+     * @param endCityNode Nó final
+     * @param searchMode Modo de busca
+     * 
+     * @throws IllegalArgumentException 
+     */
+    public SearchQuery(CityNodeGraph startCityNode, CityNodeGraph endCityNode, SearchMode searchMode) throws IllegalArgumentException
+    {
+        this(startCityNode, endCityNode, searchMode, false);
+    }
+    
+    /**
+     * @param startCityNode Nó inicial
+     * @param endCityNode Nó final
+     * @param searchMode Modo de busca
+     * @param enableDuplicated Permite estados duplicados na árvore de busca
+     * 
+     * @throws IllegalArgumentException 
+     */
+    public SearchQuery(CityNodeGraph startCityNode, CityNodeGraph endCityNode, SearchMode searchMode, boolean enableDuplicated) throws IllegalArgumentException
+    {
+        if ((startCityNode == null) || (endCityNode == null) || (searchMode == null))
+        {
+            throw new IllegalArgumentException("Não é permitido nenhum parâmetro nulo para o construtor da classe SearchQuery");
+        }
+        
+        this.startCityNode = startCityNode;
+        this.endCityNode = endCityNode;
+        this.searchMode = searchMode;
+        this.enableDuplicated = enableDuplicated;
+    }
+
+    public CityNodeGraph getStartCityNode() 
+    {
+        return startCityNode;
+    }
+
+    public CityNodeGraph getEndCityNode() 
+    {
+        return endCityNode;
+    }
+
+    public SearchMode getSearchMode() 
+    {
+        return searchMode;
+    }
+
+    public boolean isEnableDuplicated() 
+    {
+        return enableDuplicated;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return String.format("%s -> %s (%s)", startCityNode.getIdNode(), endCityNode.getIdNode(), searchMode);
+    }
+}
@@ -0,0 +1,140 @@
+package br.ufjf.iacity.algorithm.batch;
+
+import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch;
+import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch.SearchState;
+import br.ufjf.iacity.algorithm.search.SearchResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de uma consulta executada em lote (Imutável).
+ * 
+ * Guarda apenas os valores da solução, sem referência para a árvore de busca,
+ * para que a memória da busca possa ser liberada assim que ela termina.
+ */
+public class SearchQueryResult 
+{
+    private final SearchQuery query;
+    private final SearchState searchState;
+    
+    private final double solutionCost;
+    private final List<String> solutionList;
+    private final int solutionDepth;
+    
+    // Tempo de execução da busca em milisegundos
+    private final double executionTime;
+    
+    // Tempo total da consulta em milisegundos (Criação da busca, busca e coleta do resultado)
+    private final double queryTime;
+    
+    private final int expandedNodeCount;
+    private final int visitedNodeCount;
+    private final int generatedNodeCount;
+    private final int maxOpenListSize;
+
+    /**
+     * @param query Consulta executada
+     * @param algorithmSearch Busca já terminada
+     * @param startQueryTime Instante (System.nanoTime) em que a consulta começou
+     */
+    SearchQueryResult(SearchQuery query, AbstractAlgorithmSearch algorithmSearch, long startQueryTime)
+    {
+        this.query = query;
+        SearchResult searchResult = algorithmSearch.getSearchResult();
+        
+        this.searchState = searchResult.getSearchState();
+        this.solutionCost = searchResult.getSolutionCost();
+        this.solutionDepth = searchResult.getSolutionDepth();
+        this.executionTime = algorithmSearch.getExecutionTime();
+        this.expandedNodeCount = algorithmSearch.getStatistics().getExpandedNodeCount();
+        this.visitedNodeCount = algorithmSearch.getStatistics().getVisitedNodeCount();
+        this.generatedNodeCount = algorithmSearch.getStatistics().getGeneratedNodeCount();
+        this.maxOpenListSize = algorithmSearch.getStatistics().getMaxOpenListSize();
+        
+        // A lista da busca está do fim para o início
+        List<String> pathList = new ArrayList<>(searchResult.getSolutionList());
+        Collections.reverse(pathList);
+        
+        this.solutionList = Collections.unmodifiableList(pathList);
+        this.queryTime = ((System.nanoTime() - startQueryTime) / 1e6);
+    }
+
+    public SearchQuery getQuery() 
+    {
+        return query;
+    }
+
+    public SearchState getSearchState() 
+    {
+        return searchState;
+    }
+    
+    /**
+     * @return (true) se a busca encontrou uma solução
+     */
+    public boolean isSuccess()
+    {
+        return SearchState.Success.equals(searchState);
+    }
+
+    /**
+     * @return Custo da solução, ou infinito se a busca falhou
+     */
+    public double getSolutionCost() 
+    {
+        return solutionCost;
+    }
+
+    /**
+     * @return Cidades da solução, do início para o fim
+     */
+    public List<String> getSolutionList() 
+    {
+        return solutionList;
+    }
+
+    /**
+     * @return Profundidade da solução, ou -1 se a busca falhou
+     */
+    public int getSolutionDepth() 
+    {
+        return solutionDepth;
+    }
+
+    /**
+     * @return Tempo de execução da busca em milisegundos
+     */
+    public double getExecutionTime() 
+    {
+        return executionTime;
+    }
+
+    /**
+     * @return Tempo total da consulta em milisegundos
+     */
+    public double getQueryTime() 
+    {
+        return queryTime;
+    }
+
+    public int getExpandedNodeCount() 
+    {
+        return expandedNodeCount;
+    }
+
+    public int getVisitedNodeCount() 
+    {
+        return visitedNodeCount;
+    }
+
+    public int getGeneratedNodeCount() 
+    {
+        return generatedNodeCount;
+    }
+
+    public int getMaxOpenListSize() 
+    {
+        return maxOpenListSize;
+    }
+}
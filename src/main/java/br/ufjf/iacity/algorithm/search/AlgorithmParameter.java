@@ -2,8 +2,14 @@ package br.ufjf.iacity.algorithm.search;
 
 import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch.SearchMode;
 import br.ufjf.iacity.algorithm.transition.ITransition;
+import br.ufjf.iacity.graph.ArcFlags;
 import br.ufjf.iacity.graph.CityGraph;
 import br.ufjf.iacity.graph.CityNodeGraph;
+import br.ufjf.iacity.graph.ContractionHierarchy;
+import br.ufjf.iacity.graph.DijkstraEngine;
+import br.ufjf.iacity.graph.HubLabeling;
+import br.ufjf.iacity.graph.LandmarkTable;
+import br.ufjf.iacity.helper.coordinate.DistanceKernel;
 
 /**
  * Parâmetros de entrada para os algoritmos de busca
@@ -27,6 +33,27 @@ public class AlgorithmParameter
     
     // Habilita/desabilita a possiblidade de adicionar estados duplicados na árvore de busca
     private boolean enableDuplicated;
+    
+    // Habilita/desabilita o modo enxuto, em que a árvore de busca não guarda os filhos de cada nó
+    private boolean enableLeanMode;
+    
+    // Fórmula da distância em linha reta usada pela heurística dos métodos informados
+    private DistanceKernel distanceKernel = DistanceKernel.Haversine;
+    
+    // Distâncias até os marcos do grafo, usadas pela heurística do modo ALT
+    private LandmarkTable landmarkTable;
+    
+    // Hierarquia de contração do grafo, usada pelo modo CH
+    private ContractionHierarchy contractionHierarchy;
+    
+    // Rótulos de hubs do grafo, usados pelo modo HL
+    private HubLabeling hubLabeling;
+    
+    // Arc flags do grafo, usados pelas buscas com custo para ignorar arestas que não levam à região do nó final
+    private ArcFlags arcFlags;
+    
+    // Árvores de menores caminhos em cache, usadas pelo modo Dijkstra
+    private DijkstraEngine dijkstraEngine;
 
     /**
      * @return the graph
@@ -112,4 +139,102 @@ public class AlgorithmParameter
         this.enableDuplicated = enableDuplicated;
     }
 
+    /**
+     * @return the enableLeanMode
+     */
+    public boolean isEnableLeanMode() {
+        return enableLeanMode;
+    }
+
+    /**
+     * @param enableLeanMode the enableLeanMode to set
+     */
+    public void setEnableLeanMode(boolean enableLeanMode) {
+        this.enableLeanMode = enableLeanMode;
+    }
+
+    /**
+     * @return the distanceKernel
+     */
+    public DistanceKernel getDistanceKernel() {
+        return distanceKernel;
+    }
+
+    /**
+     * @param distanceKernel the distanceKernel to set
+     */
+    public void setDistanceKernel(DistanceKernel distanceKernel) {
+        this.distanceKernel = distanceKernel;
+    }
+
+    /**
+     * @return the landmarkTable
+     */
+    public LandmarkTable getLandmarkTable() {
+        return landmarkTable;
+    }
+
+    /**
+     * @param landmarkTable the landmarkTable to set
+     */
+    public void setLandmarkTable(LandmarkTable landmarkTable) {
+        this.landmarkTable = landmarkTable;
+    }
+
+    /**
+     * @return the contractionHierarchy
+     */
+    public ContractionHierarchy getContractionHierarchy() {
+        return contractionHierarchy;
+    }
+
+    /**
+     * @param contractionHierarchy the contractionHierarchy to set
+     */
+    public void setContractionHierarchy(ContractionHierarchy contractionHierarchy) {
+        this.contractionHierarchy = contractionHierarchy;
+    }
+
+    /**
+     * @return the hubLabeling
+     */
+    public HubLabeling getHubLabeling() {
+        return hubLabeling;
+    }
+
+    /**
+     * @param hubLabeling the hubLabeling to set
+     */
+    public void setHubLabeling(HubLabeling hubLabeling) {
+        this.hubLabeling = hubLabeling;
+    }
+
+    /**
+     * @return the arcFlags
+     */
+    public ArcFlags getArcFlags() {
+        return arcFlags;
+    }
+
+    /**
+     * @param arcFlags the arcFlags to set
+     */
+    public void setArcFlags(ArcFlags arcFlags) {
+        this.arcFlags = arcFlags;
+    }
+
+    /**
+     * @return the dijkstraEngine
+     */
+    public DijkstraEngine getDijkstraEngine() {
+        return dijkstraEngine;
+    }
+
+    /**
+     * @param dijkstraEngine the dijkstraEngine to set
+     */
+    public void setDijkstraEngine(DijkstraEngine dijkstraEngine) {
+        this.dijkstraEngine = dijkstraEngine;
+    }
+
 }
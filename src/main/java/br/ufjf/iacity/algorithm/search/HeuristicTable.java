@@ -0,0 +1,122 @@
+package br.ufjf.iacity.algorithm.search;
+
+import br.ufjf.iacity.graph.CityNodeGraph;
+import br.ufjf.iacity.graph.CompiledCityGraph;
+import br.ufjf.iacity.graph.LandmarkTable;
+import br.ufjf.iacity.helper.coordinate.DistanceKernel;
+import br.ufjf.iacity.helper.coordinate.GeoCoordinate;
+import java.util.Arrays;
+
+/**
+ * Tabela da heurística h(n) de uma busca: distância em linha reta de cada
+ * nó do grafo até o nó final.
+ *
+ * Os valores são calculados na primeira consulta de cada nó e guardados pelo
+ * id denso do grafo compilado, de forma que a fórmula de distância é avaliada
+ * no máximo uma vez por nó durante a busca, mesmo quando o nó é gerado várias
+ * vezes (Estados duplicados, iterações do IDA*).
+ *
+ * Com uma tabela de marcos (Modo ALT), h(n) é o maior valor entre a distância
+ * em linha reta e o limite inferior dado pelos marcos.
+ */
+public class HeuristicTable
+{
+    // Grafo compilado (Ids densos dos nós)
+    private final CompiledCityGraph compiledGraph;
+
+    // Coordenada do nó final
+    private final GeoCoordinate goalCoordinate;
+    
+    // Fórmula da distância em linha reta
+    private final DistanceKernel distanceKernel;
+    
+    // Marcos do grafo (null quando não são usados) e id denso do nó final
+    private final LandmarkTable landmarkTable;
+    private final int goalIndex;
+
+    // Valor de h(n) de cada nó (NaN enquanto não calculado)
+    private final double[] values;
+
+    /**
+     * @param compiledGraph Grafo compilado sobre o qual a busca será executada
+     * @param goalNode Nó final da busca
+     * @param distanceKernel Fórmula da distância em linha reta
+     */
+    public HeuristicTable(CompiledCityGraph compiledGraph, CityNodeGraph goalNode, DistanceKernel distanceKernel)
+    {
+        this(compiledGraph, goalNode, distanceKernel, null);
+    }
+
+    /**
+     * @param compiledGraph Grafo compilado sobre o qual a busca será executada
+     * @param goalNode Nó final da busca
+     * @param distanceKernel Fórmula da distância em linha reta
+     * @param landmarkTable Marcos calculados para o mesmo grafo, ou null
+     */
+    public HeuristicTable(CompiledCityGraph compiledGraph, CityNodeGraph goalNode, DistanceKernel distanceKernel, LandmarkTable landmarkTable)
+    {
+        if((compiledGraph == null) || (goalNode == null) || (distanceKernel == null))
+        {
+            throw new IllegalArgumentException("O grafo, o nó final e a fórmula de distância da heurística não devem ser nulos");
+        }
+        
+        if((landmarkTable != null) && !landmarkTable.isCompatible(compiledGraph))
+        {
+            throw new IllegalArgumentException("A tabela de marcos não foi calculada para o grafo da busca");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.goalCoordinate = goalNode.getCity().getCoordinate();
+        this.distanceKernel = distanceKernel;
+        this.goalIndex = compiledGraph.indexOf(goalNode);
+        this.landmarkTable = (goalIndex >= 0) ? landmarkTable : null;
+        this.values = new double[compiledGraph.getNodeCount()];
+
+        Arrays.fill(this.values, Double.NaN);
+    }
+
+    /**
+     * @param searchNode Nó de busca
+     * @return Distância em linha reta do nó até o nó final
+     */
+    public double getValue(SearchNode searchNode)
+    {
+        CityNodeGraph node = searchNode.getCityNodeGraph();
+        int index = compiledGraph.indexOf(node);
+
+        if(index < 0)
+        {
+            return calculate(node);
+        }
+
+        return getValue(index);
+    }
+
+    /**
+     * @param index Id denso do nó no grafo compilado
+     * @return Distância em linha reta do nó até o nó final
+     */
+    public double getValue(int index)
+    {
+        double value = values[index];
+
+        if(Double.isNaN(value))
+        {
+            value = calculate(compiledGraph.getNode(index));
+            
+            if(landmarkTable != null)
+            {
+                value = Math.max(value, landmarkTable.getLowerBound(index, goalIndex));
+            }
+            
+            values[index] = value;
+        }
+
+        return value;
+    }
+
+    private double calculate(CityNodeGraph node)
+    {
+        return node.getCity().getCoordinate().distanceTo(goalCoordinate, distanceKernel);
+    }
+}
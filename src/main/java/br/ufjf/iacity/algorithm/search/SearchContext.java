@@ -0,0 +1,240 @@
+package br.ufjf.iacity.algorithm.search;
+
+import br.ufjf.iacity.graph.ArcFlags;
+import br.ufjf.iacity.graph.CityNodeGraph;
+import br.ufjf.iacity.graph.CompiledCityGraph;
+import java.util.BitSet;
+
+/**
+ * Estado próprio de uma execução de busca.
+ *
+ * Guarda tudo o que a busca altera enquanto executa, de forma que o grafo de
+ * cidades não é modificado e várias buscas podem ser executadas ao mesmo tempo
+ * sobre o mesmo grafo, cada uma com o seu contexto.
+ *
+ * As opções da busca (Custo, estados duplicados e poda por arc flags) também ficam no contexto,
+ * e não em campos estáticos, para que buscas configuradas de formas
+ * diferentes não interfiram umas nas outras.
+ */
+public class SearchContext
+{
+    // Grafo compilado (Imutável, compartilhado entre as buscas)
+    private final CompiledCityGraph compiledGraph;
+
+    // Arestas do grafo já usadas pela regra de transição nesta busca
+    private final BitSet visitedAdjacencies;
+
+    // Habilita/desabilita o custo das arestas nos nós de busca gerados
+    private final boolean enableCost;
+
+    // Habilita/desabilita a possiblidade de adicionar estados duplicados na árvore de busca
+    private final boolean enableDuplicate;
+    
+    // Estados do caminho da raíz até pathNode (Ids de estado do grafo compilado)
+    private final BitSet pathStates;
+    private SearchNode pathNode;
+    
+    // Arc flags do grafo e região do nó final (null quando as arestas não são podadas)
+    private final ArcFlags arcFlags;
+    private final int targetRegion;
+
+    /**
+     * @param compiledGraph Grafo compilado sobre o qual a busca será executada
+     * @param enableDuplicate Permite estados duplicados (AlgorithmParameter.isEnableDuplicated)
+     * @param enableCost Define o custo das arestas nos nós de busca gerados
+     */
+    public SearchContext(CompiledCityGraph compiledGraph, boolean enableDuplicate, boolean enableCost)
+    {
+        this(compiledGraph, enableDuplicate, enableCost, null, null);
+    }
+
+    /**
+     * @param compiledGraph Grafo compilado sobre o qual a busca será executada
+     * @param enableDuplicate Permite estados duplicados (AlgorithmParameter.isEnableDuplicated)
+     * @param enableCost Define o custo das arestas nos nós de busca gerados
+     * @param arcFlags Arc flags do grafo para podar as arestas, ou null
+     * @param endCityNode Nó final da busca (Define a região usada pelos arc flags)
+     */
+    public SearchContext(CompiledCityGraph compiledGraph, boolean enableDuplicate, boolean enableCost, ArcFlags arcFlags, CityNodeGraph endCityNode)
+    {
+        if(compiledGraph == null)
+        {
+            throw new IllegalArgumentException("O grafo do contexto de busca não deve ser nulo");
+        }
+        
+        if((arcFlags != null) && !arcFlags.isCompatible(compiledGraph))
+        {
+            throw new IllegalArgumentException("Os arc flags não foram calculados para o grafo da busca");
+        }
+        
+        int endIndex = compiledGraph.indexOf(endCityNode);
+
+        this.compiledGraph = compiledGraph;
+        this.visitedAdjacencies = new BitSet(compiledGraph.getEdgeCount());
+        this.pathStates = new BitSet(compiledGraph.getNodeCount());
+        this.pathNode = null;
+        this.enableDuplicate = enableDuplicate;
+        this.enableCost = enableCost;
+        
+        // Sem o nó final no grafo compilado, não há região para podar as arestas
+        this.arcFlags = (endIndex >= 0) ? arcFlags : null;
+        this.targetRegion = (this.arcFlags != null) ? this.arcFlags.getRegion(endIndex) : -1;
+    }
+
+    /**
+     * @return Grafo compilado da busca
+     */
+    public CompiledCityGraph getCompiledGraph()
+    {
+        return compiledGraph;
+    }
+
+    /**
+     * @return (true) se o custo das arestas é definido nos nós de busca
+     */
+    public boolean isEnableCost()
+    {
+        return enableCost;
+    }
+
+    /**
+     * @return (true) se estados duplicados são permitidos
+     */
+    public boolean isEnableDuplicate()
+    {
+        return enableDuplicate;
+    }
+
+    /**
+     * @param edge Id da aresta no grafo compilado
+     * @return (true) se a aresta já foi usada nesta busca, (false) caso contrário
+     */
+    public boolean isAdjacencyVisited(int edge)
+    {
+        return visitedAdjacencies.get(edge);
+    }
+
+    /**
+     * @param edge Id da aresta no grafo compilado
+     * @return (false) se os arc flags mostram que a aresta não está em nenhum
+     * menor caminho até a região do nó final
+     */
+    public boolean isAdjacencyAllowed(int edge)
+    {
+        return (arcFlags == null) || arcFlags.isEdgeFlagged(edge, targetRegion);
+    }
+
+    /**
+     * Marca que a aresta foi usada nesta busca
+     *
+     * @param edge Id da aresta no grafo compilado
+     */
+    public void setAdjacencyVisited(int edge)
+    {
+        visitedAdjacencies.set(edge);
+    }
+
+    /**
+     * Marca todas as arestas como não usadas
+     */
+    public void resetVisitedAdjacencies()
+    {
+        visitedAdjacencies.clear();
+    }
+    
+    /**
+     * Verifica se o estado de um nó aparece no caminho da raíz até o nó 
+     * informado (Ancestrais e o próprio nó).
+     * 
+     * Os estados do caminho ficam marcados e são atualizados apenas quando o
+     * fim do caminho muda: descer para um filho ou voltar para o pai custa 
+     * O(1), como nas buscas em profundidade, e saltar para outro ramo custa 
+     * o tamanho dos dois caminhos, uma vez por nó expandido. Cada verificação
+     * custa O(1).
+     * 
+     * @param pathEndNode Último nó do caminho (Normalmente o nó atual da árvore)
+     * @param searchNode Nó que será verificado
+     * @return (true) se o estado está no caminho, (false) caso contrário
+     */
+    public boolean isOnPath(SearchNode pathEndNode, SearchNode searchNode)
+    {
+        int state = getState(searchNode);
+        
+        if(state < 0)
+        {
+            return isOnPathByName(pathEndNode, searchNode);
+        }
+        
+        movePathTo(pathEndNode);
+        return pathStates.get(state);
+    }
+    
+    private void movePathTo(SearchNode pathEndNode)
+    {
+        if(pathEndNode == pathNode)
+        {
+            return;
+        }
+        
+        if((pathEndNode != null) && (pathNode != null) && (pathEndNode.getRootNode() == pathNode))
+        {
+            // Desceu para um filho
+            setPathState(pathEndNode, true);
+        }
+        else if((pathNode != null) && (pathNode.getRootNode() == pathEndNode))
+        {
+            // Voltou para o pai
+            setPathState(pathNode, false);
+        }
+        else
+        {
+            // Mudou de ramo, refaz o caminho
+            for(SearchNode node = pathNode; node != null; node = node.getRootNode())
+            {
+                setPathState(node, false);
+            }
+            
+            for(SearchNode node = pathEndNode; node != null; node = node.getRootNode())
+            {
+                setPathState(node, true);
+            }
+        }
+        
+        pathNode = pathEndNode;
+    }
+    
+    private void setPathState(SearchNode node, boolean onPath)
+    {
+        int state = getState(node);
+        
+        if(state >= 0)
+        {
+            pathStates.set(state, onPath);
+        }
+    }
+    
+    /**
+     * @return Id de estado do nó no grafo compilado, ou -1 se o nó não pertence ao grafo
+     */
+    private int getState(SearchNode node)
+    {
+        int index = compiledGraph.indexOf(node.getCityNodeGraph());
+        return (index >= 0) ? compiledGraph.getStateId(index) : -1;
+    }
+    
+    /**
+     * Verificação pelos nomes, para nós que não pertencem ao grafo compilado
+     */
+    private static boolean isOnPathByName(SearchNode pathEndNode, SearchNode searchNode)
+    {
+        for(SearchNode node = pathEndNode; node != null; node = node.getRootNode())
+        {
+            if(node.getIdNode().equalsIgnoreCase(searchNode.getIdNode()))
+            {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+}
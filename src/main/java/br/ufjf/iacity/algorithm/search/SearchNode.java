@@ -2,6 +2,7 @@ package br.ufjf.iacity.algorithm.search;
 
 import br.ufjf.iacity.graph.CityNodeGraph;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -11,21 +12,33 @@ import java.util.Objects;
  */
 public class SearchNode implements Comparable
 {
+    // Indica que o nó não está em nenhuma lista de abertos (SearchNodePriorityQueue)
+    static final int NO_HEAP_INDEX = -1;
+    
     private String idNode;
     private SearchNode rootNode;
+    
+    // Filhos do nó (Criada apenas quando o primeiro filho é adicionado)
     private List<SearchNode> childNodeList;
+    
+    // Quantidade de filhos, mantida também quando a árvore não guarda os filhos
+    private int childNodeCount;
+    
     private int treeLevel;
     private boolean expanded;
     private boolean visited;
     
-    private static boolean enableCost;
     private double cost;
     private double evalFunctionValue;
     
-    private static boolean enableDuplicate;
-    
     private CityNodeGraph cityNodeGraph;
     
+    // Posição do nó na lista de abertos (SearchNodePriorityQueue)
+    private int heapIndex;
+    
+    // Estatísticas da árvore em que o nó está (null fora da árvore)
+    private SearchStatistics statistics;
+    
     public SearchNode(SearchNode rootNode, int treeLevel, CityNodeGraph cityNodeGraph) throws IllegalArgumentException
     {
         if(cityNodeGraph == null)
@@ -35,12 +48,14 @@ public class SearchNode implements Comparable
         
         this.idNode = cityNodeGraph.getIdNode();
         this.rootNode = rootNode;
-        this.childNodeList = new ArrayList<>();
+        this.childNodeList = null;
+        this.childNodeCount = 0;
         this.treeLevel = treeLevel;
         this.expanded = false;
         this.visited = false;
         
         this.cityNodeGraph = cityNodeGraph;
+        this.heapIndex = NO_HEAP_INDEX;
     }
     
     /**
@@ -64,27 +79,69 @@ public class SearchNode implements Comparable
     
     public Iterator<SearchNode> getChildNodeIterator()
     {
-        return this.childNodeList.iterator();
+        return (this.childNodeList != null) ? this.childNodeList.iterator() : Collections.emptyIterator();
     }
     
     public int getChildNodeCount()
     {
-        return this.childNodeList.size();
+        return this.childNodeCount;
     }
     
     public boolean addChildNode(SearchNode childNode)
     {
+        if(this.childNodeList == null)
+        {
+            this.childNodeList = new ArrayList<>(4);
+        }
+        
+        this.childNodeCount++;
         return (this.childNodeList.add(childNode));
     }
     
     public void removeAllChildNode()
     {
-        this.childNodeList.removeAll(childNodeList);
+        this.childNodeList = null;
+        this.childNodeCount = 0;
+    }
+    
+    /**
+     * Conta um filho que não é guardado no nó (Árvore no modo enxuto)
+     */
+    void addUnrecordedChildNode()
+    {
+        this.childNodeCount++;
+    }
+    
+    /**
+     * Desconta um filho que não é guardado no nó (Árvore no modo enxuto)
+     */
+    void removeUnrecordedChildNode()
+    {
+        this.childNodeCount--;
     }
     
+    /**
+     * Remove o filho informado (A mesma instância, e não um filho com o mesmo id)
+     * 
+     * @param childNode Nó filho
+     * @return (true) se o nó era filho deste nó, (false) caso contrário
+     */
     public boolean removeChildNode(SearchNode childNode)
     {
-        return (this.childNodeList.remove(childNode));
+        if(this.childNodeList != null)
+        {
+            for(int i = 0; i < this.childNodeList.size(); i++)
+            {
+                if(this.childNodeList.get(i) == childNode)
+                {
+                    this.childNodeList.remove(i);
+                    this.childNodeCount--;
+                    return true;
+                }
+            }
+        }
+        
+        return false;
     }
 
     public CityNodeGraph getCityNodeGraph() 
@@ -108,6 +165,11 @@ public class SearchNode implements Comparable
      * @param visited the visited to set
      */
     public void setVisited(boolean visited) {
+        if((statistics != null) && (this.visited != visited))
+        {
+            statistics.visitedChanged(visited);
+        }
+        
         this.visited = visited;
     }
 
@@ -122,6 +184,11 @@ public class SearchNode implements Comparable
      * @param expanded the expanded to set
      */
     public void setExpanded(boolean expanded) {
+        if((statistics != null) && (this.expanded != expanded))
+        {
+            statistics.expandedChanged(expanded);
+        }
+        
         this.expanded = expanded;
     }
 
@@ -140,45 +207,38 @@ public class SearchNode implements Comparable
     }
     
     /**
-     * @return the enableCost
+     * @return the evalFunctionValue
      */
-    public static boolean isEnableCost() {
-        return enableCost;
+    public double getEvalFunctionValue() {
+        return evalFunctionValue;
     }
-    
+
     /**
-     * @param aEnableCost the enableCost to set
+     * @param evalFunctionValue the evalFunctionValue to set
      */
-    public static void setEnableCost(boolean aEnableCost) {
-        enableCost = aEnableCost;
+    public void setEvalFunctionValue(double evalFunctionValue) {
+        this.evalFunctionValue = evalFunctionValue;
     }
     
     /**
-     * @return the enableDuplicate
+     * @return Posição do nó na lista de abertos
      */
-    public static boolean isEnableDuplicate() {
-        return enableDuplicate;
+    int getHeapIndex() {
+        return heapIndex;
     }
 
     /**
-     * @param aEnableDuplicate the enableDuplicate to set
+     * @param heapIndex Posição do nó na lista de abertos
      */
-    public static void setEnableDuplicate(boolean aEnableDuplicate) {
-        enableDuplicate = aEnableDuplicate;
+    void setHeapIndex(int heapIndex) {
+        this.heapIndex = heapIndex;
     }
-
-    /**
-     * @return the evalFunctionValue
-     */
-    public double getEvalFunctionValue() {
-        return evalFunctionValue;
-    }
-
+    
     /**
-     * @param evalFunctionValue the evalFunctionValue to set
+     * @param statistics Estatísticas da árvore em que o nó entrou, ou null quando sai da árvore
      */
-    public void setEvalFunctionValue(double evalFunctionValue) {
-        this.evalFunctionValue = evalFunctionValue;
+    void setStatistics(SearchStatistics statistics) {
+        this.statistics = statistics;
     }
     
     @Override
@@ -0,0 +1,316 @@
+package br.ufjf.iacity.algorithm.search;
+
+import br.ufjf.iacity.helper.sort.QuickSort.SortType;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lista de nós abertos implementada como um heap binário indexado.
+ *
+ * Substitui a ordenação completa da lista de abertos a cada expansão,
+ * oferecendo inserção, remoção do menor elemento e diminuição de chave
+ * em O(log n). A posição de cada nó no heap é guardada no próprio nó de busca
+ * e os nós são indexados pelo id, o que permite localizar em O(1) tanto um nó
+ * já inserido quanto um nó que represente o mesmo estado.
+ *
+ * Em caso de empate na chave, o nó inserido primeiro tem prioridade.
+ */
+public class SearchNodePriorityQueue implements Iterable<SearchNode>
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Valor usado como chave de prioridade (Custo ou função de avaliação)
+    private final SortType sortType;
+
+    // Nós do heap e a ordem de inserção de cada um (desempate)
+    private SearchNode[] heap;
+    private long[] insertionOrder;
+    
+    // Índice dos nós do heap pelo id do nó
+    private final SearchNodeSet nodeSet;
+
+    private int size;
+    private long insertionCount;
+
+    /**
+     * @param sortType Valor do nó de busca usado como chave de prioridade
+     */
+    public SearchNodePriorityQueue(SortType sortType)
+    {
+        if(sortType == null)
+        {
+            throw new IllegalArgumentException("O tipo de ordenação da lista de abertos não deve ser nulo");
+        }
+
+        this.sortType = sortType;
+        this.heap = new SearchNode[INITIAL_CAPACITY];
+        this.insertionOrder = new long[INITIAL_CAPACITY];
+        this.nodeSet = new SearchNodeSet();
+        this.size = 0;
+        this.insertionCount = 0;
+    }
+
+    /**
+     * Adiciona um nó na lista de abertos
+     *
+     * @param searchNode Nó que será adicionado
+     */
+    public void add(SearchNode searchNode)
+    {
+        if(searchNode == null)
+        {
+            throw new IllegalArgumentException("Não é permitido adicionar um nó nulo na lista de abertos");
+        }
+
+        if(size == heap.length)
+        {
+            heap = Arrays.copyOf(heap, size * 2);
+            insertionOrder = Arrays.copyOf(insertionOrder, size * 2);
+        }
+
+        heap[size] = searchNode;
+        insertionOrder[size] = insertionCount++;
+        searchNode.setHeapIndex(size);
+        nodeSet.add(searchNode);
+
+        siftUp(size++);
+    }
+
+    /**
+     * @return Nó com a menor chave, sem removê-lo, ou null se a lista está vazia
+     */
+    public SearchNode peek()
+    {
+        return (size > 0) ? heap[0] : null;
+    }
+
+    /**
+     * Remove e retorna o nó com a menor chave
+     *
+     * @return Nó com a menor chave
+     * @throws NoSuchElementException Se a lista de abertos está vazia
+     */
+    public SearchNode poll() throws NoSuchElementException
+    {
+        if(size == 0)
+        {
+            throw new NoSuchElementException("A lista de abertos está vazia");
+        }
+
+        SearchNode minNode = heap[0];
+        removeAt(0);
+
+        return minNode;
+    }
+
+    /**
+     * Remove um nó qualquer da lista de abertos
+     *
+     * @param searchNode Nó que será removido
+     * @return (true) se o nó estava na lista, (false) caso contrário
+     */
+    public boolean remove(SearchNode searchNode)
+    {
+        if(!contains(searchNode))
+        {
+            return false;
+        }
+
+        removeAt(searchNode.getHeapIndex());
+        return true;
+    }
+
+    /**
+     * Substitui um nó da lista de abertos por outro, reposicionando-o de
+     * acordo com a nova chave (Diminuição de chave)
+     *
+     * @param oldNode Nó que está na lista de abertos
+     * @param newNode Nó que ocupará o lugar do nó antigo
+     */
+    public void replace(SearchNode oldNode, SearchNode newNode)
+    {
+        if(!contains(oldNode) || (newNode == null))
+        {
+            throw new IllegalArgumentException("O nó a ser substituído não está na lista de abertos");
+        }
+
+        int index = oldNode.getHeapIndex();
+        oldNode.setHeapIndex(SearchNode.NO_HEAP_INDEX);
+        nodeSet.remove(oldNode);
+
+        heap[index] = newNode;
+        insertionOrder[index] = insertionCount++;
+        newNode.setHeapIndex(index);
+        nodeSet.add(newNode);
+
+        siftUp(index);
+        siftDown(newNode.getHeapIndex());
+    }
+
+    /**
+     * Verifica se a mesma instância do nó está na lista de abertos em O(1)
+     *
+     * @param searchNode Nó de busca
+     * @return (true) se o nó está na lista, (false) caso contrário
+     */
+    public boolean contains(SearchNode searchNode)
+    {
+        if(searchNode == null)
+        {
+            return false;
+        }
+
+        int index = searchNode.getHeapIndex();
+        return (index >= 0) && (index < size) && (heap[index] == searchNode);
+    }
+
+    /**
+     * Busca na lista de abertos, em O(1), um nó que represente o mesmo estado
+     * (Mesmo id) do nó informado
+     *
+     * @param searchNode Nó de busca
+     * @return Nó equivalente que está na lista de abertos, ou null
+     */
+    public SearchNode find(SearchNode searchNode)
+    {
+        return nodeSet.get(searchNode);
+    }
+
+    public boolean isEmpty()
+    {
+        return (size == 0);
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public void clear()
+    {
+        for(int i = 0; i < size; i++)
+        {
+            heap[i].setHeapIndex(SearchNode.NO_HEAP_INDEX);
+            heap[i] = null;
+        }
+
+        nodeSet.clear();
+        size = 0;
+    }
+
+    /**
+     * Percorre os nós da lista de abertos na ordem interna do heap (Não ordenada)
+     *
+     * @return Iterator
+     */
+    @Override
+    public Iterator<SearchNode> iterator()
+    {
+        return new Iterator<SearchNode>()
+        {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return (index < size);
+            }
+
+            @Override
+            public SearchNode next()
+            {
+                if(index >= size)
+                {
+                    throw new NoSuchElementException();
+                }
+
+                return heap[index++];
+            }
+        };
+    }
+
+    private double key(SearchNode searchNode)
+    {
+        return sortType.equals(SortType.Cost) ? searchNode.getCost() : searchNode.getEvalFunctionValue();
+    }
+
+    private boolean less(int i, int j)
+    {
+        int cmp = Double.compare(key(heap[i]), key(heap[j]));
+        return (cmp < 0) || ((cmp == 0) && (insertionOrder[i] < insertionOrder[j]));
+    }
+
+    private void swap(int i, int j)
+    {
+        SearchNode tmpNode = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmpNode;
+
+        long tmpOrder = insertionOrder[i];
+        insertionOrder[i] = insertionOrder[j];
+        insertionOrder[j] = tmpOrder;
+
+        heap[i].setHeapIndex(i);
+        heap[j].setHeapIndex(j);
+    }
+
+    private void siftUp(int index)
+    {
+        while(index > 0)
+        {
+            int parent = (index - 1) >>> 1;
+
+            if(!less(index, parent))
+            {
+                break;
+            }
+
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index)
+    {
+        while(true)
+        {
+            int left = (2 * index) + 1;
+
+            if(left >= size)
+            {
+                break;
+            }
+
+            int smallest = ((left + 1) < size) && less(left + 1, left) ? (left + 1) : left;
+
+            if(!less(smallest, index))
+            {
+                break;
+            }
+
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void removeAt(int index)
+    {
+        heap[index].setHeapIndex(SearchNode.NO_HEAP_INDEX);
+        nodeSet.remove(heap[index]);
+
+        int last = --size;
+        SearchNode movedNode = heap[last];
+        heap[last] = null;
+
+        if(index != last)
+        {
+            heap[index] = movedNode;
+            insertionOrder[index] = insertionOrder[last];
+            movedNode.setHeapIndex(index);
+
+            siftUp(index);
+            siftDown(movedNode.getHeapIndex());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package br.ufjf.iacity.algorithm.search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conjunto de nós de busca indexado pelo id do nó (Nome da cidade).
+ *
+ * Usado pelas listas de abertos e fechados dos algoritmos de busca para
+ * verificar se um estado já foi gerado e obter o nó já existente em O(1),
+ * no lugar de percorrer a lista inteira.
+ *
+ * Dois nós de busca representam o mesmo estado quando possuem o mesmo id
+ * (Ver SearchNode.equals). Caso mais de um nó com o mesmo id seja adicionado,
+ * o conjunto guarda o último.
+ */
+public class SearchNodeSet
+{
+    private final Map<String, SearchNode> nodeMap;
+
+    public SearchNodeSet()
+    {
+        this.nodeMap = new HashMap<>();
+    }
+
+    /**
+     * Adiciona um nó no conjunto
+     *
+     * @param searchNode Nó de busca
+     */
+    public void add(SearchNode searchNode)
+    {
+        if(searchNode != null)
+        {
+            this.nodeMap.put(searchNode.getIdNode(), searchNode);
+        }
+    }
+
+    /**
+     * Remove um nó do conjunto, caso seja a mesma instância que está guardada
+     *
+     * @param searchNode Nó de busca
+     * @return (true) se o nó foi removido, (false) caso contrário
+     */
+    public boolean remove(SearchNode searchNode)
+    {
+        if(searchNode != null)
+        {
+            return this.nodeMap.remove(searchNode.getIdNode(), searchNode);
+        }
+
+        return false;
+    }
+
+    /**
+     * @param searchNode Nó de busca
+     * @return (true) se um nó com o mesmo id está no conjunto, (false) caso contrário
+     */
+    public boolean contains(SearchNode searchNode)
+    {
+        return (searchNode != null) && this.nodeMap.containsKey(searchNode.getIdNode());
+    }
+
+    /**
+     * @param searchNode Nó de busca
+     * @return Nó do conjunto com o mesmo id do nó informado, ou null
+     */
+    public SearchNode get(SearchNode searchNode)
+    {
+        return (searchNode != null) ? this.nodeMap.get(searchNode.getIdNode()) : null;
+    }
+
+    public int size()
+    {
+        return this.nodeMap.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return this.nodeMap.isEmpty();
+    }
+
+    public void clear()
+    {
+        this.nodeMap.clear();
+    }
+}
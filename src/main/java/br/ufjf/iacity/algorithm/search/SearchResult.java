@@ -0,0 +1,83 @@
+package br.ufjf.iacity.algorithm.search;
+
+import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch.SearchState;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de uma busca terminada (Imutável).
+ * 
+ * É montado uma única vez, quando a busca termina, para que as leituras
+ * repetidas da interface, da linha de comando e dos arquivos de resultado
+ * não precisem percorrer a árvore de busca novamente.
+ */
+public class SearchResult 
+{
+    // Estado em que a busca terminou
+    private final SearchState searchState;
+    
+    // Cidades da solução, do nó final até o nó inicial
+    private final List<String> solutionList;
+    
+    // Cidades da solução, do nó inicial até o nó final, uma por linha
+    private final String solutionPath;
+    
+    private final double solutionCost;
+    private final int solutionDepth;
+
+    /**
+     * @param searchState Estado em que a busca terminou
+     * @param solutionList Cidades da solução, do nó final até o nó inicial
+     * @param solutionCost Custo da solução (Infinito se não há solução)
+     * @param solutionDepth Profundidade da solução (-1 se não há solução)
+     */
+    public SearchResult(SearchState searchState, List<String> solutionList, double solutionCost, int solutionDepth)
+    {
+        this.searchState = searchState;
+        this.solutionList = Collections.unmodifiableList(new ArrayList<>(solutionList));
+        this.solutionCost = solutionCost;
+        this.solutionDepth = solutionDepth;
+        
+        StringBuilder reversePath = new StringBuilder();
+        String lineSeparator = System.getProperty("line.separator");
+        
+        for(int i = (solutionList.size() - 1); i >= 0 ; i--)
+        {
+            reversePath.append(solutionList.get(i)).append(lineSeparator);
+        }
+        
+        this.solutionPath = reversePath.toString();
+    }
+
+    public SearchState getSearchState() 
+    {
+        return searchState;
+    }
+
+    /**
+     * @return Cidades da solução, do nó final até o nó inicial (Não modificável)
+     */
+    public List<String> getSolutionList() 
+    {
+        return solutionList;
+    }
+
+    /**
+     * @return Cidades da solução, do nó inicial até o nó final, uma por linha
+     */
+    public String getSolutionPath() 
+    {
+        return solutionPath;
+    }
+
+    public double getSolutionCost() 
+    {
+        return solutionCost;
+    }
+
+    public int getSolutionDepth() 
+    {
+        return solutionDepth;
+    }
+}
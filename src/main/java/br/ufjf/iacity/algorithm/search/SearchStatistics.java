@@ -0,0 +1,167 @@
+package br.ufjf.iacity.algorithm.search;
+
+import java.util.Arrays;
+
+/**
+ * Estatísticas de uma execução de busca, mantidas de forma incremental.
+ * 
+ * A árvore de busca (SearchTree) avisa quando nós são adicionados ou removidos
+ * e os nós da árvore avisam quando são marcados como expandidos ou visitados, 
+ * então todos os valores são lidos em O(1), sem percorrer a árvore.
+ * 
+ * Os nós expandidos, os visitados e a profundidade se referem aos nós que 
+ * estão na árvore (Ex.: no IDA*, à árvore da última iteração). Os nós gerados
+ * e o tamanho máximo da lista de abertos acumulam toda a execução.
+ */
+public class SearchStatistics 
+{
+    private static final int INITIAL_LEVEL_CAPACITY = 16;
+    
+    private int expandedNodeCount;
+    private int visitedNodeCount;
+    private int generatedNodeCount;
+    private int maxOpenListSize;
+    
+    // Quantidade de nós da árvore em cada nível e o maior nível ocupado
+    private int[] levelNodeCount;
+    private int maxDepth;
+    
+    public SearchStatistics()
+    {
+        this.levelNodeCount = new int[INITIAL_LEVEL_CAPACITY];
+        this.maxDepth = -1;
+    }
+    
+    /**
+     * Contabiliza um nó que entrou na árvore
+     */
+    void addTreeNode(SearchNode searchNode)
+    {
+        int level = searchNode.getTreeLevel();
+        
+        if(level >= levelNodeCount.length)
+        {
+            levelNodeCount = Arrays.copyOf(levelNodeCount, Math.max(level + 1, levelNodeCount.length * 2));
+        }
+        
+        levelNodeCount[level]++;
+        
+        if(level > maxDepth)
+        {
+            maxDepth = level;
+        }
+        
+        if(searchNode.isExpanded())
+        {
+            expandedNodeCount++;
+        }
+        
+        if(searchNode.isVisited())
+        {
+            visitedNodeCount++;
+        }
+    }
+    
+    /**
+     * Desconta um nó que saiu da árvore
+     */
+    void removeTreeNode(SearchNode searchNode)
+    {
+        levelNodeCount[searchNode.getTreeLevel()]--;
+        
+        while((maxDepth >= 0) && (levelNodeCount[maxDepth] == 0))
+        {
+            maxDepth--;
+        }
+        
+        if(searchNode.isExpanded())
+        {
+            expandedNodeCount--;
+        }
+        
+        if(searchNode.isVisited())
+        {
+            visitedNodeCount--;
+        }
+    }
+    
+    /**
+     * Zera os valores referentes aos nós da árvore (Os valores acumulados 
+     * da execução são mantidos)
+     */
+    void clearTreeNodes()
+    {
+        Arrays.fill(levelNodeCount, 0);
+        maxDepth = -1;
+        expandedNodeCount = 0;
+        visitedNodeCount = 0;
+    }
+    
+    void expandedChanged(boolean expanded)
+    {
+        expandedNodeCount += expanded ? 1 : -1;
+    }
+    
+    void visitedChanged(boolean visited)
+    {
+        visitedNodeCount += visited ? 1 : -1;
+    }
+    
+    void nodeGenerated()
+    {
+        generatedNodeCount++;
+    }
+    
+    /**
+     * Informa o tamanho atual da lista de abertos
+     * 
+     * @param openListSize Quantidade de nós na lista de abertos
+     */
+    public void updateOpenListSize(int openListSize)
+    {
+        if(openListSize > maxOpenListSize)
+        {
+            maxOpenListSize = openListSize;
+        }
+    }
+
+    /**
+     * @return Quantidade de nós expandidos na árvore
+     */
+    public int getExpandedNodeCount() 
+    {
+        return expandedNodeCount;
+    }
+
+    /**
+     * @return Quantidade de nós visitados na árvore
+     */
+    public int getVisitedNodeCount() 
+    {
+        return visitedNodeCount;
+    }
+
+    /**
+     * @return Quantidade de nós adicionados na árvore durante toda a busca
+     */
+    public int getGeneratedNodeCount() 
+    {
+        return generatedNodeCount;
+    }
+
+    /**
+     * @return Maior nível ocupado da árvore, ou -1 se a árvore está vazia
+     */
+    public int getMaxDepth() 
+    {
+        return maxDepth;
+    }
+
+    /**
+     * @return Maior tamanho da lista de abertos (Zero nas buscas sem lista de abertos)
+     */
+    public int getMaxOpenListSize() 
+    {
+        return maxOpenListSize;
+    }
+}
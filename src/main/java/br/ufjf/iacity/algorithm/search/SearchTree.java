@@ -1,9 +1,16 @@
 package br.ufjf.iacity.algorithm.search;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
 
 /**
  * Árvore de busca
+ * 
+ * No modo enxuto, a árvore não guarda os filhos de cada nó: os nós de busca 
+ * mantêm apenas a referência para o pai, suficiente para montar o caminho da
+ * solução, e as estatísticas continuam sendo atualizadas. Percorrer a árvore
+ * a partir da raíz (Ex.: TreeViewerGUI) exige o modo completo.
  */
 public class SearchTree 
 {
@@ -14,10 +21,42 @@ public class SearchTree
     private SearchNode endNode;
     
     private int nodeCount;
-    private int depth;
+    
+    // Estatísticas dos nós da árvore, atualizadas a cada alteração
+    private final SearchStatistics statistics;
+    
+    // Indica se os filhos de cada nó são guardados (Modo completo)
+    private final boolean recordingTree;
     
     public SearchTree()
     {
+        this(true);
+    }
+    
+    /**
+     * @param recordingTree (true) para guardar a árvore completa, (false) para o modo enxuto
+     */
+    public SearchTree(boolean recordingTree)
+    {
+        this(recordingTree, new SearchStatistics());
+    }
+    
+    /**
+     * Cria uma árvore que contabiliza os seus nós em estatísticas já 
+     * existentes (Ex.: as duas árvores de uma busca bidirecional)
+     * 
+     * @param recordingTree (true) para guardar a árvore completa, (false) para o modo enxuto
+     * @param statistics Estatísticas compartilhadas
+     */
+    public SearchTree(boolean recordingTree, SearchStatistics statistics)
+    {
+        if(statistics == null)
+        {
+            throw new IllegalArgumentException("As estatísticas da árvore de busca não devem ser nulas");
+        }
+        
+        this.recordingTree = recordingTree;
+        
         this.rootNode = null;
         
         this.startNode = null;
@@ -26,11 +65,27 @@ public class SearchTree
         this.currentNode = null;
         
         this.nodeCount = 0;
-        this.depth = 0;
+        this.statistics = statistics;
     }
     
     public void resetTree()
     {
+        if(recordingTree)
+        {
+            Iterator<SearchNode> childIt = this.rootNode.getChildNodeIterator();
+
+            while(childIt.hasNext())
+            {
+                detachSubtree(childIt.next());
+            }
+        }
+        else
+        {
+            // Sem os filhos guardados, as estatísticas são refeitas apenas com a raíz
+            statistics.clearTreeNodes();
+            statistics.addTreeNode(rootNode);
+        }
+        
         this.rootNode.removeAllChildNode();
         this.rootNode.setExpanded(false);
         this.rootNode.setVisited(false);
@@ -40,71 +95,102 @@ public class SearchTree
         this.currentNode = rootNode;
         
         this.nodeCount = 1;
-        this.depth = 0;
     }
     
-    private void calculateDepth(SearchNode rootNode, int currentDepth)
+    /**
+     * Registra o nó e os seus descendentes nas estatísticas da árvore
+     */
+    private void attachSubtree(SearchNode subtreeRoot)
     {
-        if(rootNode != null)
+        Deque<SearchNode> nodeStack = new ArrayDeque<>();
+        nodeStack.push(subtreeRoot);
+        
+        while(!nodeStack.isEmpty())
         {
-            currentDepth++;
+            SearchNode node = nodeStack.pop();
+            
+            node.setStatistics(statistics);
+            statistics.addTreeNode(node);
             
-            if (currentDepth > depth) 
+            Iterator<SearchNode> childIt = node.getChildNodeIterator();
+            
+            while(childIt.hasNext())
             {
-                depth = currentDepth;
+                nodeStack.push(childIt.next());
             }
+        }
+    }
+    
+    /**
+     * Retira o nó e os seus descendentes das estatísticas da árvore
+     */
+    private void detachSubtree(SearchNode subtreeRoot)
+    {
+        Deque<SearchNode> nodeStack = new ArrayDeque<>();
+        nodeStack.push(subtreeRoot);
+        
+        while(!nodeStack.isEmpty())
+        {
+            SearchNode node = nodeStack.pop();
             
-            SearchNode childNode;
-            Iterator<SearchNode> childIt = rootNode.getChildNodeIterator();
-
-            while (childIt.hasNext()) 
+            statistics.removeTreeNode(node);
+            node.setStatistics(null);
+            
+            Iterator<SearchNode> childIt = node.getChildNodeIterator();
+            
+            while(childIt.hasNext())
             {
-                childNode = childIt.next();
-                calculateDepth(childNode, currentDepth);
+                nodeStack.push(childIt.next());
             }
-            
-            currentDepth--;
         }
     }
     
+    /**
+     * @return Profundidade da árvore (Maior nível ocupado), em O(1)
+     */
     public int depth()
     {
-        depth = 0;
-        calculateDepth(rootNode, depth);
-        
-        return (depth - 1);
+        return statistics.getMaxDepth();
     }
     
+    /**
+     * Adiciona um nó na árvore, como filho do seu pai (SearchNode.getRootNode) 
+     * ou, caso ele não tenha pai definido, como filho do nó atual. A primeira 
+     * adição define a raíz da árvore. Executa em O(1).
+     * 
+     * @param childNode Nó que será adicionado
+     * @throws NullPointerException Se o nó não tem pai e o nó atual não foi definido
+     */
     public void addChildToCurrentNode(SearchNode childNode) throws NullPointerException
     {
         if(rootNode == null)
         {
             this.rootNode = childNode;
             this.currentNode = rootNode;
-            this.nodeCount++;
         }
         else
         {
-            if(currentNode == null)
+            SearchNode parentNode = (childNode.getRootNode() != null) ? childNode.getRootNode() : currentNode;
+            
+            if(parentNode == null)
             {
                 throw new NullPointerException("O nó atual da árvore de busca não foi definido");
             }
             
-            SearchNode childRootNode = childNode.getRootNode();
-            
-            if((childRootNode != null) && !currentNode.getIdNode().equalsIgnoreCase(childRootNode.getIdNode()))
+            if(recordingTree)
             {
-                childRootNode = findNode(childRootNode.getIdNode(), childRootNode);
-                
-                if(childRootNode != null)
-                {
-                    this.currentNode = childRootNode;
-                }
+                parentNode.addChildNode(childNode);
+            }
+            else
+            {
+                parentNode.addUnrecordedChildNode();
             }
-            
-            this.currentNode.addChildNode(childNode);
-            this.nodeCount++;
         }
+        
+        this.nodeCount++;
+        
+        attachSubtree(childNode);
+        statistics.nodeGenerated();
     }
     
     public void removeAllChildOfCurrentNode()
@@ -122,7 +208,15 @@ public class SearchTree
                 SearchNode rootChild = childNode.getRootNode();
                 
                 // Remove o filho do pai
-                rootChild.removeChildNode(childNode);
+                if(!recordingTree)
+                {
+                    rootChild.removeUnrecordedChildNode();
+                    detachSubtree(childNode);
+                }
+                else if(rootChild.removeChildNode(childNode))
+                {
+                    detachSubtree(childNode);
+                }
                 
                 // Verifica se após a remoção o pai não tem mais filhos
                 if(rootChild.getChildNodeCount() == 0)
@@ -137,34 +231,18 @@ public class SearchTree
         }
     }
     
-    private SearchNode findNode(String idNode, SearchNode rootNode)
-    {
-        if(rootNode == null)
-        {
-            return null;
-        }
-        
-        if(rootNode.getIdNode().equalsIgnoreCase(idNode))
-        {
-            return rootNode;
-        }
-        
-        SearchNode tmpNode;
-        SearchNode childNode;
-        Iterator<SearchNode> childIt = rootNode.getChildNodeIterator();
-        
-        while(childIt.hasNext())
-        {
-            childNode = childIt.next();
-            tmpNode = findNode(idNode, childNode);
-            
-            if(tmpNode.getIdNode().equalsIgnoreCase(idNode))
-            {
-                return tmpNode;
-            }
-        }
-        
-        return null;
+    /**
+     * @return (true) se a árvore guarda os filhos de cada nó, (false) no modo enxuto
+     */
+    public boolean isRecordingTree() {
+        return recordingTree;
+    }
+
+    /**
+     * @return Estatísticas da árvore de busca
+     */
+    public SearchStatistics getStatistics() {
+        return statistics;
     }
 
     /**
@@ -1,9 +1,8 @@
 package br.ufjf.iacity.algorithm.transition;
 
+import br.ufjf.iacity.algorithm.search.SearchContext;
 import br.ufjf.iacity.algorithm.search.SearchNode;
-import br.ufjf.iacity.graph.CityNodeAdjacency;
-import br.ufjf.iacity.graph.CityNodeGraph;
-import java.util.Iterator;
+import br.ufjf.iacity.graph.CompiledCityGraph;
 
 /**
  * Estratégia de controle para os algoritmos de busca usando a ordem alfabética
@@ -12,59 +11,51 @@ import java.util.Iterator;
 public class AlphabeticalTransition implements ITransition
 {
     @Override
-    public SearchNode applyTransition(SearchNode currentSearchNode) 
+    public SearchNode applyTransition(SearchContext context, SearchNode currentSearchNode) 
     {
-        if((currentSearchNode != null) && (currentSearchNode.getCityNodeGraph().getAdjacencyCount() > 0))
+        if((context != null) && (currentSearchNode != null))
         {
-            CityNodeGraph currentCityNode = currentSearchNode.getCityNodeGraph();
-            Iterator<CityNodeAdjacency> childCityNodeIterator = currentCityNode.getAdjacencyIterator();
+            CompiledCityGraph graph = context.getCompiledGraph();
+            int currentNode = graph.indexOf(currentSearchNode.getCityNodeGraph());
             
-            CityNodeAdjacency tmpAdj;
-            CityNodeAdjacency nextCityNodeAdj = null;
+            if(currentNode < 0)
+            {
+                return null;
+            }
+            
+            int nextEdge = -1;
             
             /**
-             * Escolhe o primeiro nó ainda não aberto para ser comparado 
-             * alfabeticamente com o restante
+             * Escolhe, entre as adjacências ainda não abertas nesta busca 
+             * (E não podadas pelos arc flags), a de menor nome em ordem alfabética
              */
-            while(childCityNodeIterator.hasNext())
+            for(int edge = graph.getEdgeStart(currentNode); edge < graph.getEdgeEnd(currentNode); edge++)
             {
-                tmpAdj = childCityNodeIterator.next();
-                
-                if(!tmpAdj.isVisited())
+                if(!context.isAdjacencyVisited(edge) && context.isAdjacencyAllowed(edge))
                 {
-                    nextCityNodeAdj = tmpAdj;
-                    break;
+                    if((nextEdge < 0) || (graph.getNameRank(graph.getEdgeTarget(nextEdge)) > graph.getNameRank(graph.getEdgeTarget(edge))))
+                    {
+                        nextEdge = edge;
+                    }
                 }
             }
             
             // Verifica se uma adjacência foi escolhida
-            if (nextCityNodeAdj != null) 
+            if (nextEdge >= 0) 
             {
-                // Compara alfabéticamente o nó adjacente escolhido com o restante
-                while (childCityNodeIterator.hasNext()) 
-                {
-                    tmpAdj = childCityNodeIterator.next();
-
-                    // Verifica se o nó adjacente ainda não foi aberto e a ordem alfabética
-                    if ((!tmpAdj.isVisited()) && nextCityNodeAdj.getAdjNode().getIdNode().compareTo(tmpAdj.getAdjNode().getIdNode()) > 0) 
-                    {
-                        nextCityNodeAdj = tmpAdj;
-                    }
-                }
-
                 // Marca que a adjacência foi visitada
-                nextCityNodeAdj.setVisited(true);
+                context.setAdjacencyVisited(nextEdge);
                 
                 // Novo nó de busca
                 SearchNode newSearchNode = new SearchNode(
                                 currentSearchNode, // Nó atual é o pai do novo nó
                                 (currentSearchNode.getTreeLevel() + 1), // Define o nível da árvore com base no nível do pai
-                                nextCityNodeAdj.getAdjNode());
+                                graph.getNode(graph.getEdgeTarget(nextEdge)));
                 
                 // Se o custo está habilitado, define o custo do nó de busca
-                if(SearchNode.isEnableCost())
+                if(context.isEnableCost())
                 {
-                    newSearchNode.setCost(nextCityNodeAdj.getCost());
+                    newSearchNode.setCost(graph.getEdgeCost(nextEdge));
                 }
                 
                 return newSearchNode;
@@ -1,8 +1,19 @@
 package br.ufjf.iacity.algorithm.transition;
 
+import br.ufjf.iacity.algorithm.search.SearchContext;
 import br.ufjf.iacity.algorithm.search.SearchNode;
 
 public interface ITransition 
 {
-    public SearchNode applyTransition(SearchNode currentSearchNode);
+    /**
+     * Gera o próximo nó de busca a partir do nó atual. Todo o estado da 
+     * transição (Ex.: arestas já usadas) deve ser guardado no contexto da 
+     * busca, pois a mesma instância pode ser usada por várias buscas ao 
+     * mesmo tempo
+     * 
+     * @param context Contexto da busca em execução
+     * @param currentSearchNode Nó atual da árvore de busca
+     * @return Novo nó de busca, ou null se não há transição aplicável
+     */
+    public SearchNode applyTransition(SearchContext context, SearchNode currentSearchNode);
 }
@@ -0,0 +1,12 @@
+package br.ufjf.iacity.algorithm.transition;
+
+/**
+ * Cria as regras de transição usadas pelas buscas executadas em lote
+ */
+public interface ITransitionFactory 
+{
+    /**
+     * @return Regra de transição para uma nova busca
+     */
+    public ITransition createTransition();
+}
@@ -0,0 +1,121 @@
+package br.ufjf.iacity.graph;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Estrutura pré-processada sobre o grafo compilado (Tabela de marcos,
+ * hierarquia de contração, rótulos de hubs, arc flags) que pode ser gravada
+ * em arquivo junto da instância (FileHelper.loadOrCreateIndexFile).
+ *
+ * Todas são gravadas com o mesmo cabeçalho: identificação e versão do formato,
+ * quantidade de nós e impressão digital das arestas do grafo de origem, de
+ * forma que um arquivo gerado para outro grafo é reconhecido (isCompatible)
+ * sem depender do conteúdo. Cada estrutura grava apenas o seu conteúdo
+ * (writeBody) e o lê depois do cabeçalho (readHeader).
+ */
+public abstract class AbstractGraphIndex
+{
+    // Identificação e versão do formato em arquivo da estrutura
+    private final int fileMagic;
+    private final int fileVersion;
+
+    // Quantidade de nós e impressão digital das arestas do grafo de origem
+    private final int nodeCount;
+    private final long graphFingerprint;
+
+    protected AbstractGraphIndex(int fileMagic, int fileVersion, int nodeCount, long graphFingerprint)
+    {
+        this.fileMagic = fileMagic;
+        this.fileVersion = fileVersion;
+        this.nodeCount = nodeCount;
+        this.graphFingerprint = graphFingerprint;
+    }
+
+    /**
+     * Cabeçalho lido de um arquivo
+     */
+    static final class Header
+    {
+        final int nodeCount;
+        final long graphFingerprint;
+
+        private Header(int nodeCount, long graphFingerprint)
+        {
+            this.nodeCount = nodeCount;
+            this.graphFingerprint = graphFingerprint;
+        }
+    }
+
+    /**
+     * @param graph Grafo compilado
+     * @return (true) se a estrutura foi calculada para um grafo com os mesmos nós e arestas
+     */
+    public boolean isCompatible(CompiledCityGraph graph)
+    {
+        return (graph != null) && (graph.getNodeCount() == nodeCount) && (graph.getFingerprint() == graphFingerprint);
+    }
+
+    public int getNodeCount()
+    {
+        return nodeCount;
+    }
+
+    public long getGraphFingerprint()
+    {
+        return graphFingerprint;
+    }
+
+    /**
+     * Grava a estrutura em formato binário: o cabeçalho e o conteúdo
+     *
+     * @param output Saída de dados
+     * @throws IOException
+     */
+    public final void write(DataOutput output) throws IOException
+    {
+        output.writeInt(fileMagic);
+        output.writeInt(fileVersion);
+        output.writeInt(nodeCount);
+        output.writeLong(graphFingerprint);
+
+        writeBody(output);
+    }
+
+    /**
+     * Grava o conteúdo da estrutura, depois do cabeçalho
+     *
+     * @param output Saída de dados
+     * @throws IOException
+     */
+    protected abstract void writeBody(DataOutput output) throws IOException;
+
+    /**
+     * Lê e confere o cabeçalho gravado por write
+     *
+     * @param input Entrada de dados
+     * @param fileMagic Identificação do formato esperada
+     * @param fileVersion Versão do formato esperada
+     * @param errorMessage Mensagem da exceção se o cabeçalho não confere
+     * @return Cabeçalho lido
+     * @throws IOException Se o arquivo é de outro formato, de outra versão ou inválido
+     */
+    static Header readHeader(DataInput input, int fileMagic, int fileVersion, String errorMessage) throws IOException
+    {
+        if((input.readInt() != fileMagic) || (input.readInt() != fileVersion))
+        {
+            throw new IOException(errorMessage);
+        }
+
+        int nodeCount = input.readInt();
+        long graphFingerprint = input.readLong();
+
+        if(nodeCount < 0)
+        {
+            throw new IOException(errorMessage);
+        }
+
+        return new Header(nodeCount, graphFingerprint);
+    }
+}
@@ -0,0 +1,284 @@
+package br.ufjf.iacity.graph;
+
+import br.ufjf.iacity.helper.sort.IntMinHeap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Arc flags do grafo compilado: as cidades são divididas em regiões pelas
+ * coordenadas e cada aresta recebe um bit por região, ligado quando a aresta
+ * está em algum menor caminho até uma cidade daquela região.
+ *
+ * Durante uma busca, as arestas cujo bit da região do nó final está desligado
+ * podem ser ignoradas (SearchContext.isAdjacencyAllowed) sem perder nenhum
+ * menor caminho, o que evita expandir a parte do grafo que se afasta do
+ * destino.
+ *
+ * As regiões vêm de uma divisão k-d: o conjunto de cidades é dividido ao meio
+ * (Pela mediana da latitude ou da longitude, a de maior amplitude) até formar
+ * a quantidade de regiões pedida. Os bits de uma região são calculados com uma
+ * busca de Dijkstra reversa a partir de cada nó de fronteira da região (Nó
+ * com aresta vinda de fora), marcando as arestas dos menores caminhos, mais
+ * as arestas internas da região.
+ *
+ * Os bits ficam em um long por aresta (No máximo MAX_REGION_COUNT regiões) e
+ * podem ser gravados em arquivo (FileHelper.saveIndexFile), junto da
+ * instância.
+ */
+public class ArcFlags extends AbstractGraphIndex
+{
+    public static final int DEFAULT_REGION_COUNT = 16;
+    public static final int MAX_REGION_COUNT = Long.SIZE;
+
+    // Identificação e versão do formato em arquivo
+    private static final int FILE_MAGIC = 0x49414146;
+    private static final int FILE_VERSION = 1;
+
+    // Folga relativa na comparação das distâncias (Arestas empatadas também são marcadas)
+    private static final double DISTANCE_TOLERANCE = 1e-12;
+
+    // Quantidade de regiões e região de cada nó
+    private final int regionCount;
+    private final int[] nodeRegions;
+
+    // Bits de cada aresta (Bit r ligado: a aresta leva a alguma cidade da região r)
+    private final long[] edgeFlags;
+
+    private ArcFlags(int nodeCount, long graphFingerprint, int regionCount, int[] nodeRegions, long[] edgeFlags)
+    {
+        super(FILE_MAGIC, FILE_VERSION, nodeCount, graphFingerprint);
+        this.regionCount = regionCount;
+        this.nodeRegions = nodeRegions;
+        this.edgeFlags = edgeFlags;
+    }
+
+    /**
+     * Divide as cidades em regiões e calcula os bits de cada aresta
+     *
+     * @param graph Grafo compilado
+     * @param regionCount Quantidade de regiões (De 1 a MAX_REGION_COUNT, limitada à quantidade de nós)
+     * @return Arc flags do grafo
+     */
+    public static ArcFlags create(CompiledCityGraph graph, int regionCount)
+    {
+        if((graph == null) || (regionCount < 1) || (regionCount > MAX_REGION_COUNT))
+        {
+            throw new IllegalArgumentException(String.format("O grafo não deve ser nulo e a quantidade de regiões deve estar entre 1 e %d", MAX_REGION_COUNT));
+        }
+
+        int n = graph.getNodeCount();
+        int count = Math.max(1, Math.min(regionCount, n));
+
+        int[] nodeRegions = new int[n];
+        Integer[] nodes = new Integer[n];
+
+        for(int v = 0; v < n; v++)
+        {
+            nodes[v] = v;
+        }
+
+        partition(graph, nodes, 0, n, 0, count, nodeRegions);
+
+        long[] edgeFlags = new long[graph.getEdgeCount()];
+
+        // Arestas internas levam a cidades da própria região
+        for(int v = 0; v < n; v++)
+        {
+            for(int edge = graph.getEdgeStart(v); edge < graph.getEdgeEnd(v); edge++)
+            {
+                if(nodeRegions[graph.getEdgeTarget(edge)] == nodeRegions[v])
+                {
+                    edgeFlags[edge] |= (1L << nodeRegions[v]);
+                }
+            }
+        }
+
+        // Menores caminhos até cada nó de fronteira
+        IntMinHeap heap = new IntMinHeap(n);
+
+        for(int v = 0; v < n; v++)
+        {
+            if(isBoundaryNode(graph, nodeRegions, v))
+            {
+                ShortestPathTree tree = ShortestPathTree.create(graph, v, true, heap);
+                markShortestPathEdges(graph, tree, 1L << nodeRegions[v], edgeFlags);
+            }
+        }
+
+        return new ArcFlags(n, graph.getFingerprint(), count, nodeRegions, edgeFlags);
+    }
+
+    /**
+     * Divisão k-d dos nós de [from, to) em regionCount regiões, numeradas a partir de firstRegion
+     */
+    private static void partition(CompiledCityGraph graph, Integer[] nodes, int from, int to, int firstRegion, int regionCount, int[] nodeRegions)
+    {
+        if(regionCount == 1)
+        {
+            for(int i = from; i < to; i++)
+            {
+                nodeRegions[nodes[i]] = firstRegion;
+            }
+
+            return;
+        }
+
+        // Divide pela coordenada de maior amplitude
+        double minLatitude = Double.POSITIVE_INFINITY, maxLatitude = Double.NEGATIVE_INFINITY;
+        double minLongitude = Double.POSITIVE_INFINITY, maxLongitude = Double.NEGATIVE_INFINITY;
+
+        for(int i = from; i < to; i++)
+        {
+            minLatitude = Math.min(minLatitude, graph.getLatitude(nodes[i]));
+            maxLatitude = Math.max(maxLatitude, graph.getLatitude(nodes[i]));
+            minLongitude = Math.min(minLongitude, graph.getLongitude(nodes[i]));
+            maxLongitude = Math.max(maxLongitude, graph.getLongitude(nodes[i]));
+        }
+
+        if((maxLatitude - minLatitude) >= (maxLongitude - minLongitude))
+        {
+            Arrays.sort(nodes, from, to, (v, w) -> (Double.compare(graph.getLatitude(v), graph.getLatitude(w)) != 0) ?
+                    Double.compare(graph.getLatitude(v), graph.getLatitude(w)) : Integer.compare(v, w));
+        }
+        else
+        {
+            Arrays.sort(nodes, from, to, (v, w) -> (Double.compare(graph.getLongitude(v), graph.getLongitude(w)) != 0) ?
+                    Double.compare(graph.getLongitude(v), graph.getLongitude(w)) : Integer.compare(v, w));
+        }
+
+        // Cada metade recebe nós na proporção das suas regiões
+        int lowerRegionCount = regionCount / 2;
+        int middle = from + (int) (((long) (to - from) * lowerRegionCount) / regionCount);
+
+        partition(graph, nodes, from, middle, firstRegion, lowerRegionCount, nodeRegions);
+        partition(graph, nodes, middle, to, firstRegion + lowerRegionCount, regionCount - lowerRegionCount, nodeRegions);
+    }
+
+    private static boolean isBoundaryNode(CompiledCityGraph graph, int[] nodeRegions, int node)
+    {
+        for(int i = graph.getInEdgeStart(node); i < graph.getInEdgeEnd(node); i++)
+        {
+            if(nodeRegions[graph.getEdgeSource(graph.getInEdge(i))] != nodeRegions[node])
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Liga o bit das arestas u -> v que estão em algum menor caminho até a
+     * raíz da árvore reversa (d(u) = c(u, v) + d(v))
+     */
+    private static void markShortestPathEdges(CompiledCityGraph graph, ShortestPathTree tree, long regionFlag, long[] edgeFlags)
+    {
+        for(int u = 0; u < tree.getNodeCount(); u++)
+        {
+            if(!tree.isReachable(u))
+            {
+                continue;
+            }
+
+            double limit = tree.getDistance(u) + (tree.getDistance(u) * DISTANCE_TOLERANCE);
+
+            for(int edge = graph.getEdgeStart(u); edge < graph.getEdgeEnd(u); edge++)
+            {
+                if((tree.getDistance(graph.getEdgeTarget(edge)) + graph.getEdgeCost(edge)) <= limit)
+                {
+                    edgeFlags[edge] |= regionFlag;
+                }
+            }
+        }
+    }
+
+    public int getRegionCount()
+    {
+        return regionCount;
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return Região do nó, de 0 a getRegionCount() - 1
+     */
+    public int getRegion(int node)
+    {
+        return nodeRegions[node];
+    }
+
+    /**
+     * @param edge Id da aresta no grafo compilado
+     * @param region Região do nó final da busca
+     * @return (true) se a aresta está em algum menor caminho até uma cidade da região
+     */
+    public boolean isEdgeFlagged(int edge, int region)
+    {
+        return (edgeFlags[edge] & (1L << region)) != 0;
+    }
+
+    /**
+     * Grava os bits em formato binário, depois do cabeçalho
+     *
+     * @param output Saída de dados
+     * @throws IOException
+     */
+    @Override
+    protected void writeBody(DataOutput output) throws IOException
+    {
+        output.writeInt(regionCount);
+        output.writeInt(edgeFlags.length);
+
+        for(int region : nodeRegions)
+        {
+            output.writeInt(region);
+        }
+
+        for(long flags : edgeFlags)
+        {
+            output.writeLong(flags);
+        }
+    }
+
+    /**
+     * Lê os bits gravados por write
+     *
+     * @param input Entrada de dados
+     * @return Arc flags
+     * @throws IOException Se o formato é inválido
+     */
+    public static ArcFlags read(DataInput input) throws IOException
+    {
+        Header header = readHeader(input, FILE_MAGIC, FILE_VERSION, "O arquivo não contém arc flags válidos");
+        int nodeCount = header.nodeCount;
+        int regionCount = input.readInt();
+        int edgeCount = input.readInt();
+
+        if((edgeCount < 0) || (regionCount < 1) || (regionCount > MAX_REGION_COUNT))
+        {
+            throw new IOException("O arquivo não contém arc flags válidos");
+        }
+
+        int[] nodeRegions = new int[nodeCount];
+
+        for(int v = 0; v < nodeCount; v++)
+        {
+            nodeRegions[v] = input.readInt();
+
+            if((nodeRegions[v] < 0) || (nodeRegions[v] >= regionCount))
+            {
+                throw new IOException("O arquivo não contém arc flags válidos");
+            }
+        }
+
+        long[] edgeFlags = new long[edgeCount];
+
+        for(int edge = 0; edge < edgeCount; edge++)
+        {
+            edgeFlags[edge] = input.readLong();
+        }
+
+        return new ArcFlags(nodeCount, header.graphFingerprint, regionCount, nodeRegions, edgeFlags);
+    }
+}
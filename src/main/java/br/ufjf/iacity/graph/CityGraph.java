@@ -3,8 +3,11 @@ package br.ufjf.iacity.graph;
 import br.ufjf.iacity.helper.coordinate.GeoCoordinate;
 import br.ufjf.iacity.model.City;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import org.apache.commons.lang3.text.WordUtils;
 
 /**
@@ -14,9 +17,42 @@ public class CityGraph
 {
     private final List<CityNodeGraph> nodeList;
     
+    // Índice dos nós pelo nome da cidade, sem diferenciar maiúsculas e minúsculas
+    private final Map<String, CityNodeGraph> nodeIndex;
+    
+    // Forma compilada do grafo, descartada a cada alteração
+    private CompiledCityGraph compiledGraph;
+    
     public CityGraph()
     {
         this.nodeList = new ArrayList<>();
+        this.nodeIndex = new HashMap<>();
+    }
+    
+    /**
+     * @param idNode Id do nó (Nome da cidade)
+     * @return Chave do nó no índice de nomes
+     */
+    static String formatIndexKey(String idNode)
+    {
+        return idNode.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Formata um nome de cidade como os nomes lidos do arquivo da instância
+     * (Palavras capitalizadas, sem espaços). Ex.: "Juiz de Fora" -> "JuizDeFora"
+     * 
+     * @param cityName Nome da cidade como escrito
+     * @return Nome da cidade no formato do grafo, ou null se o nome é nulo
+     */
+    public static String formatCityName(String cityName)
+    {
+        if(cityName == null)
+        {
+            return null;
+        }
+        
+        return WordUtils.capitalizeFully(cityName.trim()).replaceAll(" ", "");
     }
     
     private static String[] formatStringPattern(String pattern)
@@ -155,28 +191,14 @@ public class CityGraph
         return cpyGraph;
     }
     
-    public void resetState()
-    {
-        CityNodeGraph tmpNode;
-        Iterator<CityNodeGraph> nodeIt = this.getNodeIterator();
-        
-        while(nodeIt.hasNext())
-        {
-            tmpNode = nodeIt.next();
-            Iterator<CityNodeAdjacency> nodeAdjIt = tmpNode.getAdjacencyIterator();
-            
-            CityNodeAdjacency tmpAdj;
-            
-            while(nodeAdjIt.hasNext())
-            {
-                tmpAdj = nodeAdjIt.next();
-                tmpAdj.setVisited(false);
-            }
-        }
-    }
-    
     public boolean addNode(CityNodeGraph nodeGraph)
     {
+        nodeGraph.setIndex(this.nodeList.size());
+        this.compiledGraph = null;
+        
+        // Em caso de nomes repetidos, o índice mantém o primeiro nó adicionado
+        this.nodeIndex.putIfAbsent(formatIndexKey(nodeGraph.getIdNode()), nodeGraph);
+        
         return this.nodeList.add(nodeGraph);
     }
     
@@ -186,19 +208,92 @@ public class CityGraph
         {
             for(CityNodeGraph node : nodeGraphList)
             {
-                this.nodeList.add(node);
+                this.addNode(node);
             }
         }
     }
     
     public boolean addNode(double cost, City city)
     {
-        return (this.nodeList.add(new CityNodeGraph(cost, city)));
+        return this.addNode(new CityNodeGraph(cost, city));
     }
     
     public boolean removeNode(CityNodeGraph nodeGraph)
     {
-        return (this.nodeList.remove(nodeGraph));
+        if(!containsNode(nodeGraph))
+        {
+            return false;
+        }
+        
+        int removedIndex = nodeGraph.getIndex();
+        CityNodeGraph removedNode = this.nodeList.remove(removedIndex);
+        removedNode.setIndex(-1);
+        this.compiledGraph = null;
+        
+        // Renumera os nós seguintes para manter os ids densos
+        for(int i = removedIndex; i < this.nodeList.size(); i++)
+        {
+            this.nodeList.get(i).setIndex(i);
+        }
+        
+        // Remove as adjacências dos outros nós que apontam para o nó removido
+        for(CityNodeGraph node : nodeList)
+        {
+            List<CityNodeAdjacency> removedAdjacencyList = new ArrayList<>();
+            Iterator<CityNodeAdjacency> adjacencyIt = node.getAdjacencyIterator();
+            
+            while(adjacencyIt.hasNext())
+            {
+                CityNodeAdjacency adjacency = adjacencyIt.next();
+                
+                if(adjacency.getAdjNode() == removedNode)
+                {
+                    removedAdjacencyList.add(adjacency);
+                }
+            }
+            
+            for(CityNodeAdjacency adjacency : removedAdjacencyList)
+            {
+                node.removeAdjacency(adjacency);
+            }
+        }
+        
+        String indexKey = formatIndexKey(removedNode.getIdNode());
+        
+        if(this.nodeIndex.get(indexKey) == removedNode)
+        {
+            this.nodeIndex.remove(indexKey);
+            
+            // Caso exista outro nó com o mesmo nome, ele passa a ser indexado
+            for(CityNodeGraph node : nodeList)
+            {
+                if(formatIndexKey(node.getIdNode()).equals(indexKey))
+                {
+                    this.nodeIndex.put(indexKey, node);
+                    break;
+                }
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Verifica em O(1) se a instância do nó pertence ao grafo, usando o id 
+     * denso do nó (Não compara o conteúdo dos nós)
+     * 
+     * @param nodeGraph Nó do grafo de cidades
+     * @return (true) se o nó pertence ao grafo, (false) caso contrário
+     */
+    public boolean containsNode(CityNodeGraph nodeGraph)
+    {
+        if(nodeGraph == null)
+        {
+            return false;
+        }
+        
+        int index = nodeGraph.getIndex();
+        return (index >= 0) && (index < this.nodeList.size()) && (this.nodeList.get(index) == nodeGraph);
     }
     
     public CityNodeGraph getNode(int idNode)
@@ -206,36 +301,55 @@ public class CityGraph
         return (this.nodeList.get(idNode));
     }
     
+    /**
+     * Busca um nó pelo nome da cidade em O(1), sem diferenciar maiúsculas 
+     * e minúsculas
+     * 
+     * @param idNode Id do nó (Nome da cidade)
+     * @return Nó do grafo, ou null caso não exista
+     */
     public CityNodeGraph getNode(String idNode)
     {
-        CityNodeGraph nodeGraph = null;
-        
-        for(CityNodeGraph node : nodeList)
+        if(idNode == null)
         {
-            if(node.getIdNode().equalsIgnoreCase(idNode))
-            {
-                nodeGraph = node;
-                break;
-            }
+            return null;
         }
         
-        return nodeGraph;
+        return this.nodeIndex.get(formatIndexKey(idNode));
     }
     
     public CityNodeGraph getNode(City city)
     {
-        CityNodeGraph nodeGraph = null;
-        
-        for(CityNodeGraph node : nodeList)
+        return this.getNode(city.getName());
+    }
+    
+    /**
+     * Gera a forma compilada e imutável do grafo, com os nós numerados 
+     * de 0 a n-1 (CityNodeGraph.getIndex) e as adjacências em CSR
+     * 
+     * @return Grafo compilado
+     */
+    public CompiledCityGraph compile()
+    {
+        return new CompiledCityGraph(this.nodeList);
+    }
+    
+    /**
+     * Retorna a forma compilada do grafo, gerando-a apenas na primeira chamada
+     * após cada alteração feita pelos métodos desta classe. A mesma instância
+     * imutável é compartilhada por todas as buscas executadas sobre o grafo,
+     * inclusive em threads diferentes
+     * 
+     * @return Grafo compilado
+     */
+    public synchronized CompiledCityGraph getCompiledGraph()
+    {
+        if(this.compiledGraph == null)
         {
-            if(node.getIdNode().equalsIgnoreCase(city.getName()))
-            {
-                nodeGraph = node;
-                break;
-            }
+            this.compiledGraph = this.compile();
         }
         
-        return nodeGraph;
+        return this.compiledGraph;
     }
     
     public Iterator<CityNodeGraph> getNodeIterator()
@@ -250,15 +364,15 @@ public class CityGraph
     
     public boolean addAdjacency(CityNodeGraph city1, CityNodeGraph city2, double cost, boolean directed)
     {
-        if(nodeList.contains(city1) && nodeList.contains(city2))
+        if(containsNode(city1) && containsNode(city2))
         {
-            int index1 = this.nodeList.indexOf(city1);
-            nodeList.get(index1).addAdjacency(new CityNodeAdjacency(cost, city2, directed));
+            this.compiledGraph = null;
+            
+            city1.addAdjacency(new CityNodeAdjacency(cost, city2, directed));
             
             if(!directed)
             {
-                int index2 = this.nodeList.indexOf(city2);
-                nodeList.get(index2).addAdjacency(new CityNodeAdjacency(cost, city1, directed));
+                city2.addAdjacency(new CityNodeAdjacency(cost, city1, directed));
             }
             
             return true;
@@ -269,10 +383,9 @@ public class CityGraph
     
     public CityNodeAdjacency getAdjacency(CityNodeGraph city1, CityNodeGraph city2)
     {
-        if((city1 != null) && nodeList.contains(city1) && (city2 != null) && nodeList.contains(city2))
+        if(containsNode(city1) && containsNode(city2))
         {
-            int index1 = this.nodeList.indexOf(city1);
-            return nodeList.get(index1).getAdjacency(city2);
+            return city1.getAdjacency(city2);
         }
         
         return null;
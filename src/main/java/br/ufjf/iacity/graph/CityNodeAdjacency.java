@@ -12,7 +12,6 @@ public class CityNodeAdjacency
     private final CityNodeGraph adjNode;
     
     private boolean directed;
-    private boolean visited;
     
     public CityNodeAdjacency(double cost, CityNodeGraph adjNode, boolean directed) throws IllegalArgumentException
     {
@@ -59,7 +58,6 @@ public class CityNodeAdjacency
         hash = 97 * hash + (int) (Double.doubleToLongBits(this.cost) ^ (Double.doubleToLongBits(this.cost) >>> 32));
         hash = 97 * hash + Objects.hashCode(this.adjNode);
         hash = 97 * hash + (this.directed ? 1 : 0);
-        hash = 97 * hash + (this.visited ? 1 : 0);
         return hash;
     }
 
@@ -85,26 +83,9 @@ public class CityNodeAdjacency
         if (this.directed != other.directed) {
             return false;
         }
-        if (this.visited != other.visited) {
-            return false;
-        }
         return true;
     }
 
-    /**
-     * @return the visited
-     */
-    public boolean isVisited() {
-        return visited;
-    }
-
-    /**
-     * @param visited the visited to set
-     */
-    public void setVisited(boolean visited) {
-        this.visited = visited;
-    }
-
     /**
      * @return the directed
      */
@@ -2,8 +2,10 @@ package br.ufjf.iacity.graph;
 
 import br.ufjf.iacity.model.City;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -14,8 +16,14 @@ public class CityNodeGraph
     private String idNode;
     private double cost;
     private final List<CityNodeAdjacency> adjacencyList;
+    
+    // Índice das adjacências pelo id do nó vizinho
+    private final Map<String, CityNodeAdjacency> adjacencyIndex;
     private final City city;
     
+    // Posição do nó no grafo (0..n-1), mantida pelo CityGraph
+    private int index;
+    
     public CityNodeGraph(double cost, City city) throws IllegalArgumentException
     {
         if(city == null)
@@ -26,17 +34,44 @@ public class CityNodeGraph
         this.idNode = city.getName();
         this.cost = cost;
         this.adjacencyList = new ArrayList<>();
+        this.adjacencyIndex = new HashMap<>();
         this.city = city;
+        this.index = -1;
     }
     
     public boolean addAdjacency(CityNodeAdjacency adjNode)
     {
+        // Em caso de arestas paralelas, o índice mantém a primeira adicionada
+        this.adjacencyIndex.putIfAbsent(CityGraph.formatIndexKey(adjNode.getIdAdjacency()), adjNode);
+        
         return (this.adjacencyList.add(adjNode));
     }
     
     public boolean removeAdjacency(CityNodeAdjacency adjNode)
     {
-        return (this.adjacencyList.remove(adjNode));
+        if(!this.adjacencyList.remove(adjNode))
+        {
+            return false;
+        }
+        
+        String indexKey = CityGraph.formatIndexKey(adjNode.getIdAdjacency());
+        
+        if(this.adjacencyIndex.get(indexKey) == adjNode)
+        {
+            this.adjacencyIndex.remove(indexKey);
+            
+            // Caso exista outra aresta para o mesmo vizinho, ela passa a ser indexada
+            for(CityNodeAdjacency adj : adjacencyList)
+            {
+                if(CityGraph.formatIndexKey(adj.getIdAdjacency()).equals(indexKey))
+                {
+                    this.adjacencyIndex.put(indexKey, adj);
+                    break;
+                }
+            }
+        }
+        
+        return true;
     }
     
     public CityNodeAdjacency getAdjacency(int adjId)
@@ -44,20 +79,15 @@ public class CityNodeGraph
         return (this.adjacencyList.get(adjId));
     }
     
+    /**
+     * Busca em O(1) a adjacência para um nó vizinho, pelo id do nó
+     * 
+     * @param node Nó vizinho
+     * @return Adjacência, ou null caso os nós não sejam adjacentes
+     */
     public CityNodeAdjacency getAdjacency(CityNodeGraph node)
     {
-        CityNodeAdjacency nodeAdj = null;
-        
-        for(CityNodeAdjacency adj : adjacencyList)
-        {
-            if(node.getIdNode().equalsIgnoreCase(adj.getIdAdjacency()))
-            {
-                nodeAdj = adj;
-                break;
-            }
-        }
-        
-        return nodeAdj;
+        return this.adjacencyIndex.get(CityGraph.formatIndexKey(node.getIdNode()));
     }
     
     public int getAdjacencyCount()
@@ -93,14 +123,36 @@ public class CityNodeGraph
     {
         return city;
     }
+    
+    /**
+     * @return Id numérico denso do nó no grafo (0..n-1), ou -1 se o nó não 
+     * pertence a nenhum grafo
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+    
+    /**
+     * @param index Id numérico denso do nó no grafo
+     */
+    void setIndex(int index)
+    {
+        this.index = index;
+    }
 
+    /**
+     * A lista de adjacências não faz parte do hash nem da comparação, pois
+     * percorrê-la visitaria recursivamente os nós vizinhos (E os ciclos do 
+     * grafo). Para saber se uma instância pertence a um grafo, usar 
+     * CityGraph.containsNode
+     */
     @Override
     public int hashCode() 
     {
         int hash = 7;
         hash = 17 * hash + Objects.hashCode(this.idNode);
         hash = 17 * hash + (int) (Double.doubleToLongBits(this.cost) ^ (Double.doubleToLongBits(this.cost) >>> 32));
-        hash = 17 * hash + Objects.hashCode(this.adjacencyList);
         hash = 17 * hash + Objects.hashCode(this.city);
         return hash;
     }
@@ -121,9 +173,6 @@ public class CityNodeGraph
         if (Double.doubleToLongBits(this.cost) != Double.doubleToLongBits(other.cost)) {
             return false;
         }
-        if (!Objects.equals(this.adjacencyList, other.adjacencyList)) {
-            return false;
-        }
         if (!Objects.equals(this.city, other.city)) {
             return false;
         }
@@ -0,0 +1,396 @@
+package br.ufjf.iacity.graph;
+
+import br.ufjf.iacity.helper.coordinate.GeoCoordinate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forma compilada e imutável do grafo de cidades.
+ *
+ * Os nós são numerados de 0 a n-1 (Mesmo id de CityNodeGraph.getIndex) e as
+ * adjacências ficam em formato CSR (Compressed Sparse Row): as arestas que
+ * saem do nó v ocupam as posições [getEdgeStart(v), getEdgeEnd(v)) dos vetores
+ * de destino e de custo, na mesma ordem da lista de adjacências do nó. A
+ * posição da aresta nesses vetores é o seu id.
+ *
+ * As arestas que chegam em cada nó também ficam em formato CSR (Grafo 
+ * reverso): as posições [getInEdgeStart(v), getInEdgeEnd(v)) guardam o id de
+ * cada aresta que chega em v, usado para percorrer o grafo do destino para
+ * a origem.
+ *
+ * Os algoritmos podem percorrer o grafo usando apenas vetores primitivos,
+ * sem comparar nomes de cidades nem navegar entre objetos.
+ */
+public class CompiledCityGraph
+{
+    // Nós originais, indexados pelo id denso
+    private final CityNodeGraph[] nodes;
+
+    // Início das arestas de cada nó (Tamanho n + 1)
+    private final int[] edgeOffsets;
+
+    // Nó de destino e custo de cada aresta
+    private final int[] edgeTargets;
+    private final double[] edgeCosts;
+    
+    // Início das arestas que chegam em cada nó (Tamanho n + 1) e o id de cada uma
+    private final int[] inEdgeOffsets;
+    private final int[] inEdges;
+    
+    // Nó de origem de cada aresta
+    private final int[] edgeSources;
+
+    // Coordenadas de cada nó
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    // Posição de cada nó na ordem alfabética dos nomes (Nomes iguais têm a mesma posição)
+    private final int[] nameRanks;
+    
+    // Estado de cada nó: nós com o mesmo nome, sem diferenciar maiúsculas, têm o mesmo estado
+    private final int[] stateIds;
+    
+    // Resumo dos nós e arestas (Ver getFingerprint)
+    private final long fingerprint;
+
+    CompiledCityGraph(List<CityNodeGraph> nodeList)
+    {
+        int nodeCount = nodeList.size();
+        int edgeCount = 0;
+
+        this.nodes = new CityNodeGraph[nodeCount];
+        this.edgeOffsets = new int[nodeCount + 1];
+        this.latitudes = new double[nodeCount];
+        this.longitudes = new double[nodeCount];
+
+        for(int v = 0; v < nodeCount; v++)
+        {
+            CityNodeGraph node = nodeList.get(v);
+            GeoCoordinate coordinate = node.getCity().getCoordinate();
+
+            this.nodes[v] = node;
+            this.latitudes[v] = coordinate.getLatitude();
+            this.longitudes[v] = coordinate.getLongitude();
+
+            this.edgeOffsets[v] = edgeCount;
+            edgeCount += node.getAdjacencyCount();
+        }
+
+        this.edgeOffsets[nodeCount] = edgeCount;
+        this.edgeTargets = new int[edgeCount];
+        this.edgeCosts = new double[edgeCount];
+
+        for(int v = 0; v < nodeCount; v++)
+        {
+            int edge = this.edgeOffsets[v];
+            Iterator<CityNodeAdjacency> adjIt = this.nodes[v].getAdjacencyIterator();
+
+            while(adjIt.hasNext())
+            {
+                CityNodeAdjacency adjacency = adjIt.next();
+                int target = indexOf(adjacency.getAdjNode());
+
+                if(target < 0)
+                {
+                    throw new IllegalArgumentException(String.format("A adjacência %s -> %s aponta para um nó fora do grafo",
+                            this.nodes[v].getIdNode(), adjacency.getIdAdjacency()));
+                }
+
+                this.edgeTargets[edge] = target;
+                this.edgeCosts[edge] = adjacency.getCost();
+                edge++;
+            }
+        }
+
+        this.edgeSources = new int[edgeCount];
+        this.inEdgeOffsets = new int[nodeCount + 1];
+        this.inEdges = new int[edgeCount];
+        
+        for(int v = 0; v < nodeCount; v++)
+        {
+            for(int edge = this.edgeOffsets[v]; edge < this.edgeOffsets[v + 1]; edge++)
+            {
+                this.edgeSources[edge] = v;
+                this.inEdgeOffsets[this.edgeTargets[edge] + 1]++;
+            }
+        }
+        
+        for(int v = 0; v < nodeCount; v++)
+        {
+            this.inEdgeOffsets[v + 1] += this.inEdgeOffsets[v];
+        }
+        
+        // Distribui as arestas pelos destinos, mantendo a ordem dos ids em cada nó
+        int[] nextInEdge = Arrays.copyOf(this.inEdgeOffsets, nodeCount);
+        
+        for(int edge = 0; edge < edgeCount; edge++)
+        {
+            this.inEdges[nextInEdge[this.edgeTargets[edge]]++] = edge;
+        }
+
+        this.nameRanks = new int[nodeCount];
+
+        Integer[] alphabeticalOrder = new Integer[nodeCount];
+
+        for(int v = 0; v < nodeCount; v++)
+        {
+            alphabeticalOrder[v] = v;
+        }
+
+        Arrays.sort(alphabeticalOrder, Comparator.comparing((Integer v) -> this.nodes[v].getIdNode()));
+
+        for(int i = 1; i < nodeCount; i++)
+        {
+            int previous = alphabeticalOrder[i - 1];
+            int current = alphabeticalOrder[i];
+
+            boolean sameName = this.nodes[previous].getIdNode().equals(this.nodes[current].getIdNode());
+            this.nameRanks[current] = sameName ? this.nameRanks[previous] : (this.nameRanks[previous] + 1);
+        }
+        
+        this.stateIds = new int[nodeCount];
+        
+        Map<String, Integer> stateIndex = new HashMap<>();
+        
+        for(int v = 0; v < nodeCount; v++)
+        {
+            Integer stateId = stateIndex.putIfAbsent(CityGraph.formatIndexKey(this.nodes[v].getIdNode()), v);
+            this.stateIds[v] = (stateId != null) ? stateId : v;
+        }
+        
+        this.fingerprint = calculateFingerprint();
+    }
+    
+    private long calculateFingerprint()
+    {
+        long hash = 1125899906842597L;
+
+        hash = (31 * hash) + nodes.length;
+
+        for(int v = 0; v < nodes.length; v++)
+        {
+            hash = (31 * hash) + edgeOffsets[v + 1];
+        }
+
+        for(int edge = 0; edge < edgeTargets.length; edge++)
+        {
+            hash = (31 * hash) + edgeTargets[edge];
+            hash = (31 * hash) + Double.doubleToLongBits(edgeCosts[edge]);
+        }
+
+        return hash;
+    }
+
+    /**
+     * @param node Nó do grafo de cidades
+     * @return Id denso do nó, ou -1 se o nó não pertence a este grafo
+     */
+    public int indexOf(CityNodeGraph node)
+    {
+        if(node != null)
+        {
+            int index = node.getIndex();
+
+            if((index >= 0) && (index < nodes.length) && (nodes[index] == node))
+            {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    public int getNodeCount()
+    {
+        return nodes.length;
+    }
+
+    /**
+     * Resumo da quantidade de nós, das arestas e dos seus custos. Usado para
+     * verificar se um índice gravado em arquivo (Marcos, hierarquia de 
+     * contração) foi calculado para este grafo
+     *
+     * @return Impressão digital do grafo
+     */
+    public long getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    public int getEdgeCount()
+    {
+        return edgeTargets.length;
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return Nó do grafo de cidades
+     */
+    public CityNodeGraph getNode(int node)
+    {
+        return nodes[node];
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return Id da primeira aresta que sai do nó
+     */
+    public int getEdgeStart(int node)
+    {
+        return edgeOffsets[node];
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return Id seguinte ao da última aresta que sai do nó
+     */
+    public int getEdgeEnd(int node)
+    {
+        return edgeOffsets[node + 1];
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return Quantidade de arestas que saem do nó
+     */
+    public int getOutDegree(int node)
+    {
+        return edgeOffsets[node + 1] - edgeOffsets[node];
+    }
+
+    /**
+     * @param edge Id da aresta
+     * @return Id denso do nó de destino da aresta
+     */
+    public int getEdgeTarget(int edge)
+    {
+        return edgeTargets[edge];
+    }
+
+    /**
+     * @param edge Id da aresta
+     * @return Custo da aresta
+     */
+    public double getEdgeCost(int edge)
+    {
+        return edgeCosts[edge];
+    }
+
+    /**
+     * @param edge Id da aresta
+     * @return Id denso do nó de origem da aresta
+     */
+    public int getEdgeSource(int edge)
+    {
+        return edgeSources[edge];
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return Posição da primeira aresta que chega no nó (Ver getInEdge)
+     */
+    public int getInEdgeStart(int node)
+    {
+        return inEdgeOffsets[node];
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return Posição seguinte à da última aresta que chega no nó
+     */
+    public int getInEdgeEnd(int node)
+    {
+        return inEdgeOffsets[node + 1];
+    }
+
+    /**
+     * @param position Posição no grafo reverso, entre getInEdgeStart e getInEdgeEnd
+     * @return Id da aresta
+     */
+    public int getInEdge(int position)
+    {
+        return inEdges[position];
+    }
+
+    /**
+     * Busca a primeira aresta de um nó para outro em O(grau)
+     *
+     * @param source Id denso do nó de origem
+     * @param target Id denso do nó de destino
+     * @return Id da aresta, ou -1 se não há adjacência
+     */
+    public int findEdge(int source, int target)
+    {
+        for(int edge = edgeOffsets[source]; edge < edgeOffsets[source + 1]; edge++)
+        {
+            if(edgeTargets[edge] == target)
+            {
+                return edge;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Menor custo entre as arestas (Paralelas) de um nó para outro, em O(grau)
+     *
+     * @param source Id denso do nó de origem
+     * @param target Id denso do nó de destino
+     * @return Custo da aresta mais barata, ou infinito se não há adjacência
+     */
+    public double getMinEdgeCost(int source, int target)
+    {
+        double cost = Double.POSITIVE_INFINITY;
+
+        for(int edge = edgeOffsets[source]; edge < edgeOffsets[source + 1]; edge++)
+        {
+            if(edgeTargets[edge] == target)
+            {
+                cost = Math.min(cost, edgeCosts[edge]);
+            }
+        }
+
+        return cost;
+    }
+
+    /**
+     * Permite comparar nomes de cidades sem comparar Strings: para dois nós
+     * a e b, getNameRank(a) < getNameRank(b) se e somente se o nome de a vem
+     * antes do nome de b (String.compareTo)
+     *
+     * @param node Id denso do nó
+     * @return Posição do nome do nó na ordem alfabética
+     */
+    public int getNameRank(int node)
+    {
+        return nameRanks[node];
+    }
+
+    /**
+     * Os nós de busca comparam estados pelo nome da cidade, sem diferenciar
+     * maiúsculas (SearchNode.getIdNode). Dois nós têm o mesmo estado se e 
+     * somente se getStateId retorna o mesmo valor
+     * 
+     * @param node Id denso do nó
+     * @return Id denso do primeiro nó com o mesmo nome
+     */
+    public int getStateId(int node)
+    {
+        return stateIds[node];
+    }
+
+    public double getLatitude(int node)
+    {
+        return latitudes[node];
+    }
+
+    public double getLongitude(int node)
+    {
+        return longitudes[node];
+    }
+}
@@ -0,0 +1,689 @@
+package br.ufjf.iacity.graph;
+
+import br.ufjf.iacity.helper.sort.IntMinHeap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarquia de contração (Contraction Hierarchies) do grafo compilado.
+ *
+ * Os nós são contraídos um a um, em ordem de importância crescente: ao
+ * contrair v, cada caminho u -> v -> w que é o menor caminho entre u e w é
+ * substituído por um atalho u -> w (Com o nó do meio guardado para
+ * desempacotar o caminho depois). A posição de cada nó nessa ordem é o seu
+ * nível (getRank).
+ *
+ * Ao final, cada aresta, original ou atalho, é guardada no nó de menor
+ * nível: as arestas de subida (v -> w, w mais importante) em formato CSR a
+ * partir de v e as arestas de descida (u -> v, u mais importante) em formato
+ * CSR a partir de v. Um menor caminho s -> t sempre pode ser montado com uma
+ * busca que sobe a partir de s e outra que sobe, pelas arestas de descida ao
+ * contrário, a partir de t (ContractionHierarchyQuery).
+ *
+ * A hierarquia é imutável e pode ser gravada em arquivo
+ * (FileHelper.saveIndexFile), junto da instância.
+ */
+public class ContractionHierarchy extends AbstractGraphIndex
+{
+    // Identificação e versão do formato em arquivo
+    private static final int FILE_MAGIC = 0x49414348;
+    private static final int FILE_VERSION = 1;
+
+    // Limite de nós fechados por busca de caminho alternativo (Testemunha),
+    // menor quando os atalhos são apenas contados para a ordem de contração
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int PRIORITY_WITNESS_SETTLE_LIMIT = 50;
+
+    // Valor do nó do meio para arestas originais
+    private static final int NO_MIDDLE_NODE = -1;
+
+    // Nível de cada nó na hierarquia (Ordem de contração)
+    private final int[] ranks;
+
+    // Arestas de subida v -> w, a partir de v
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final double[] upCosts;
+    private final int[] upMiddles;
+
+    // Arestas de descida u -> v, a partir de v
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final double[] downCosts;
+    private final int[] downMiddles;
+
+    // Consulta de cada thread, reaproveitada entre as buscas (Limpa apenas os nós alcançados)
+    private final ThreadLocal<ContractionHierarchyQuery> threadQueries = ThreadLocal.withInitial(() -> new ContractionHierarchyQuery(this));
+
+    private ContractionHierarchy(int nodeCount, long graphFingerprint, int[] ranks,
+            int[] upOffsets, int[] upTargets, double[] upCosts, int[] upMiddles,
+            int[] downOffsets, int[] downSources, double[] downCosts, int[] downMiddles)
+    {
+        super(FILE_MAGIC, FILE_VERSION, nodeCount, graphFingerprint);
+        this.ranks = ranks;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upCosts = upCosts;
+        this.upMiddles = upMiddles;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downCosts = downCosts;
+        this.downMiddles = downMiddles;
+    }
+
+    /**
+     * Aresta do grafo durante a contração (Original ou atalho)
+     */
+    private static final class Arc
+    {
+        private final int source;
+        private final int target;
+        private double cost;
+        private int middle;
+
+        private Arc(int source, int target, double cost, int middle)
+        {
+            this.source = source;
+            this.target = target;
+            this.cost = cost;
+            this.middle = middle;
+        }
+    }
+
+    /**
+     * Contrai todos os nós do grafo
+     *
+     * @param graph Grafo compilado
+     * @return Hierarquia de contração do grafo
+     */
+    public static ContractionHierarchy create(CompiledCityGraph graph)
+    {
+        if(graph == null)
+        {
+            throw new IllegalArgumentException("O grafo da hierarquia de contração não deve ser nulo");
+        }
+
+        return new Builder(graph).build();
+    }
+
+    /**
+     * Estado da contração: o grafo restante (Nós ainda não contraídos) e as
+     * arestas já definitivas de cada nó contraído
+     */
+    private static final class Builder
+    {
+        private final CompiledCityGraph graph;
+        private final int n;
+
+        // Arestas que saem e que chegam em cada nó, indexadas pelo outro nó
+        private final List<Map<Integer, Arc>> outArcs;
+        private final List<Map<Integer, Arc>> inArcs;
+
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final int[] ranks;
+
+        // Busca de testemunha (Reaproveitada entre as buscas)
+        private final IntMinHeap witnessHeap;
+        private final double[] witnessDistance;
+        private final int[] touchedNodes;
+        private int touchedCount;
+
+        // Destinos dos atalhos ainda não fechados pela busca de testemunha
+        private final boolean[] witnessTargets;
+        private int remainingTargetCount;
+
+        private Builder(CompiledCityGraph graph)
+        {
+            this.graph = graph;
+            this.n = graph.getNodeCount();
+            this.outArcs = new ArrayList<>(n);
+            this.inArcs = new ArrayList<>(n);
+            this.contracted = new boolean[n];
+            this.contractedNeighbors = new int[n];
+            this.ranks = new int[n];
+            this.witnessHeap = new IntMinHeap(n);
+            this.witnessDistance = new double[n];
+            this.touchedNodes = new int[n];
+            this.witnessTargets = new boolean[n];
+
+            Arrays.fill(this.witnessDistance, Double.POSITIVE_INFINITY);
+
+            for(int v = 0; v < n; v++)
+            {
+                outArcs.add(new HashMap<>());
+                inArcs.add(new HashMap<>());
+            }
+
+            // Arestas paralelas ficam apenas com o menor custo, laços são ignorados
+            for(int v = 0; v < n; v++)
+            {
+                for(int edge = graph.getEdgeStart(v); edge < graph.getEdgeEnd(v); edge++)
+                {
+                    int w = graph.getEdgeTarget(edge);
+
+                    if(w != v)
+                    {
+                        addArc(v, w, graph.getEdgeCost(edge), NO_MIDDLE_NODE);
+                    }
+                }
+            }
+        }
+
+        private void addArc(int source, int target, double cost, int middle)
+        {
+            Arc arc = outArcs.get(source).get(target);
+
+            if(arc == null)
+            {
+                arc = new Arc(source, target, cost, middle);
+                outArcs.get(source).put(target, arc);
+                inArcs.get(target).put(source, arc);
+            }
+            else if(cost < arc.cost)
+            {
+                arc.cost = cost;
+                arc.middle = middle;
+            }
+        }
+
+        private ContractionHierarchy build()
+        {
+            IntMinHeap queue = new IntMinHeap(n);
+
+            for(int v = 0; v < n; v++)
+            {
+                queue.offer(v, priority(v));
+            }
+
+            int rank = 0;
+
+            while(!queue.isEmpty())
+            {
+                int v = queue.poll();
+
+                // A prioridade pode ter aumentado desde a inserção (Atualização tardia)
+                double currentPriority = priority(v);
+
+                if(!queue.isEmpty() && (currentPriority > queue.peekKey()))
+                {
+                    queue.offer(v, currentPriority);
+                    continue;
+                }
+
+                contract(v);
+                ranks[v] = rank++;
+            }
+
+            return createHierarchy();
+        }
+
+        /**
+         * Prioridade de contração: atalhos criados menos arestas removidas,
+         * mais a quantidade de vizinhos já contraídos (Espalha a contração
+         * pelo grafo)
+         */
+        private double priority(int v)
+        {
+            int shortcutCount = contractNode(v, false);
+            int removedCount = outArcs.get(v).size() + inArcs.get(v).size();
+
+            return (shortcutCount - removedCount) + contractedNeighbors[v];
+        }
+
+        private void contract(int v)
+        {
+            contractNode(v, true);
+            contracted[v] = true;
+
+            // As arestas de v ficam definitivas e saem do grafo restante
+            for(Arc arc : inArcs.get(v).values())
+            {
+                outArcs.get(arc.source).remove(v);
+                contractedNeighbors[arc.source]++;
+            }
+
+            for(Arc arc : outArcs.get(v).values())
+            {
+                inArcs.get(arc.target).remove(v);
+                contractedNeighbors[arc.target]++;
+            }
+        }
+
+        /**
+         * @param v Nó que será contraído
+         * @param addShortcuts (false) apenas conta os atalhos necessários
+         * @return Quantidade de atalhos necessários
+         */
+        private int contractNode(int v, boolean addShortcuts)
+        {
+            Map<Integer, Arc> vOut = outArcs.get(v);
+            int shortcutCount = 0;
+
+            if(vOut.isEmpty())
+            {
+                return 0;
+            }
+
+            List<Arc> shortcuts = addShortcuts ? new ArrayList<>() : null;
+
+            for(Arc inArc : inArcs.get(v).values())
+            {
+                int u = inArc.source;
+                double maxCost = 0;
+
+                for(Arc outArc : vOut.values())
+                {
+                    if(outArc.target != u)
+                    {
+                        maxCost = Math.max(maxCost, inArc.cost + outArc.cost);
+                        witnessTargets[outArc.target] = true;
+                        remainingTargetCount++;
+                    }
+                }
+
+                witnessSearch(u, v, maxCost, addShortcuts ? WITNESS_SETTLE_LIMIT : PRIORITY_WITNESS_SETTLE_LIMIT);
+
+                for(Arc outArc : vOut.values())
+                {
+                    int w = outArc.target;
+                    double shortcutCost = inArc.cost + outArc.cost;
+
+                    witnessTargets[w] = false;
+
+                    if((w != u) && (witnessDistance[w] > shortcutCost))
+                    {
+                        shortcutCount++;
+
+                        if(addShortcuts)
+                        {
+                            shortcuts.add(new Arc(u, w, shortcutCost, v));
+                        }
+                    }
+                }
+
+                clearWitnessSearch();
+            }
+
+            if(addShortcuts)
+            {
+                for(Arc shortcut : shortcuts)
+                {
+                    addArc(shortcut.source, shortcut.target, shortcut.cost, shortcut.middle);
+                }
+            }
+
+            return shortcutCount;
+        }
+
+        /**
+         * Menores distâncias a partir de u no grafo restante sem passar por v,
+         * até a distância maxCost ou o limite de nós fechados. Um caminho não
+         * encontrado apenas gera um atalho a mais
+         */
+        private void witnessSearch(int u, int v, double maxCost, int settleLimit)
+        {
+            witnessDistance[u] = 0;
+            touchedNodes[touchedCount++] = u;
+            witnessHeap.offer(u, 0);
+
+            int settled = 0;
+
+            while(!witnessHeap.isEmpty() && (settled < settleLimit))
+            {
+                double distance = witnessHeap.peekKey();
+
+                if(distance > maxCost)
+                {
+                    break;
+                }
+
+                int x = witnessHeap.poll();
+                settled++;
+
+                // A distância de todos os destinos já é definitiva
+                if(witnessTargets[x] && (--remainingTargetCount == 0))
+                {
+                    break;
+                }
+
+                for(Arc arc : outArcs.get(x).values())
+                {
+                    int y = arc.target;
+                    double nextDistance = distance + arc.cost;
+
+                    // Caminhos mais caros que o atalho não servem de testemunha
+                    if((y != v) && (nextDistance <= maxCost) && (nextDistance < witnessDistance[y]))
+                    {
+                        if(Double.isInfinite(witnessDistance[y]))
+                        {
+                            touchedNodes[touchedCount++] = y;
+                        }
+
+                        witnessDistance[y] = nextDistance;
+                        witnessHeap.offer(y, nextDistance);
+                    }
+                }
+            }
+        }
+
+        private void clearWitnessSearch()
+        {
+            for(int i = 0; i < touchedCount; i++)
+            {
+                witnessDistance[touchedNodes[i]] = Double.POSITIVE_INFINITY;
+            }
+
+            touchedCount = 0;
+            remainingTargetCount = 0;
+            witnessHeap.clear();
+        }
+
+        private ContractionHierarchy createHierarchy()
+        {
+            int[] upOffsets = new int[n + 1];
+            int[] downOffsets = new int[n + 1];
+
+            for(int v = 0; v < n; v++)
+            {
+                upOffsets[v + 1] = upOffsets[v] + outArcs.get(v).size();
+                downOffsets[v + 1] = downOffsets[v] + inArcs.get(v).size();
+            }
+
+            int[] upTargets = new int[upOffsets[n]];
+            double[] upCosts = new double[upOffsets[n]];
+            int[] upMiddles = new int[upOffsets[n]];
+
+            int[] downSources = new int[downOffsets[n]];
+            double[] downCosts = new double[downOffsets[n]];
+            int[] downMiddles = new int[downOffsets[n]];
+
+            for(int v = 0; v < n; v++)
+            {
+                int up = upOffsets[v];
+
+                for(Arc arc : outArcs.get(v).values())
+                {
+                    upTargets[up] = arc.target;
+                    upCosts[up] = arc.cost;
+                    upMiddles[up] = arc.middle;
+                    up++;
+                }
+
+                int down = downOffsets[v];
+
+                for(Arc arc : inArcs.get(v).values())
+                {
+                    downSources[down] = arc.source;
+                    downCosts[down] = arc.cost;
+                    downMiddles[down] = arc.middle;
+                    down++;
+                }
+            }
+
+            return new ContractionHierarchy(n, graph.getFingerprint(), ranks,
+                    upOffsets, upTargets, upCosts, upMiddles,
+                    downOffsets, downSources, downCosts, downMiddles);
+        }
+    }
+
+    /**
+     * @return Consulta da thread atual sobre a hierarquia, criada na primeira
+     * chamada da thread. Os vetores da consulta ocupam O(n) e não devem ser
+     * recriados a cada busca
+     */
+    public ContractionHierarchyQuery getThreadQuery()
+    {
+        return threadQueries.get();
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return Nível do nó na hierarquia (Ordem de contração)
+     */
+    public int getRank(int node)
+    {
+        return ranks[node];
+    }
+
+    /**
+     * @return Quantidade de arestas da hierarquia (Originais e atalhos)
+     */
+    public int getEdgeCount()
+    {
+        return upTargets.length + downSources.length;
+    }
+
+    public int getUpEdgeStart(int node)
+    {
+        return upOffsets[node];
+    }
+
+    public int getUpEdgeEnd(int node)
+    {
+        return upOffsets[node + 1];
+    }
+
+    public int getUpEdgeTarget(int edge)
+    {
+        return upTargets[edge];
+    }
+
+    public double getUpEdgeCost(int edge)
+    {
+        return upCosts[edge];
+    }
+
+    public int getDownEdgeStart(int node)
+    {
+        return downOffsets[node];
+    }
+
+    public int getDownEdgeEnd(int node)
+    {
+        return downOffsets[node + 1];
+    }
+
+    public int getDownEdgeSource(int edge)
+    {
+        return downSources[edge];
+    }
+
+    public double getDownEdgeCost(int edge)
+    {
+        return downCosts[edge];
+    }
+
+    /**
+     * Desempacota a aresta de subida (Que parte de source) nos nós do
+     * caminho original
+     *
+     * @param source Nó de origem da aresta
+     * @param edge Id da aresta de subida
+     * @param path Recebe os nós do caminho, sem a origem e com o destino
+     */
+    public void unpackUpEdge(int source, int edge, IntConsumer path)
+    {
+        unpack(source, upTargets[edge], upMiddles[edge], path);
+    }
+
+    /**
+     * Desempacota a aresta de descida (Que chega em target) nos nós do
+     * caminho original
+     *
+     * @param target Nó de destino da aresta
+     * @param edge Id da aresta de descida
+     * @param path Recebe os nós do caminho, sem a origem e com o destino
+     */
+    public void unpackDownEdge(int target, int edge, IntConsumer path)
+    {
+        unpack(downSources[edge], target, downMiddles[edge], path);
+    }
+
+    private void unpack(int source, int target, int middle, IntConsumer path)
+    {
+        // Pilha de arestas (Origem, destino e nó do meio) ainda não desempacotadas
+        int[] stack = new int[48];
+        int size = 0;
+
+        stack[size++] = source;
+        stack[size++] = target;
+        stack[size++] = middle;
+
+        while(size > 0)
+        {
+            int m = stack[--size];
+            int b = stack[--size];
+            int a = stack[--size];
+
+            if(m == NO_MIDDLE_NODE)
+            {
+                path.accept(b);
+                continue;
+            }
+
+            if((size + 6) > stack.length)
+            {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+
+            // m -> b é aresta de subida de m e a -> m é aresta de descida de m
+            stack[size++] = m;
+            stack[size++] = b;
+            stack[size++] = upMiddles[findUpEdge(m, b)];
+
+            stack[size++] = a;
+            stack[size++] = m;
+            stack[size++] = downMiddles[findDownEdge(a, m)];
+        }
+    }
+
+    private int findUpEdge(int source, int target)
+    {
+        for(int edge = upOffsets[source]; edge < upOffsets[source + 1]; edge++)
+        {
+            if(upTargets[edge] == target)
+            {
+                return edge;
+            }
+        }
+
+        throw new IllegalStateException("Hierarquia de contração inconsistente: atalho sem a aresta de subida");
+    }
+
+    private int findDownEdge(int source, int target)
+    {
+        for(int edge = downOffsets[target]; edge < downOffsets[target + 1]; edge++)
+        {
+            if(downSources[edge] == source)
+            {
+                return edge;
+            }
+        }
+
+        throw new IllegalStateException("Hierarquia de contração inconsistente: atalho sem a aresta de descida");
+    }
+
+    /**
+     * Grava a hierarquia em formato binário, depois do cabeçalho
+     *
+     * @param output Saída de dados
+     * @throws IOException
+     */
+    @Override
+    protected void writeBody(DataOutput output) throws IOException
+    {
+        output.writeInt(upTargets.length);
+        output.writeInt(downSources.length);
+
+        for(int v = 0; v < getNodeCount(); v++)
+        {
+            output.writeInt(ranks[v]);
+            output.writeInt(upOffsets[v + 1]);
+            output.writeInt(downOffsets[v + 1]);
+        }
+
+        for(int edge = 0; edge < upTargets.length; edge++)
+        {
+            output.writeInt(upTargets[edge]);
+            output.writeDouble(upCosts[edge]);
+            output.writeInt(upMiddles[edge]);
+        }
+
+        for(int edge = 0; edge < downSources.length; edge++)
+        {
+            output.writeInt(downSources[edge]);
+            output.writeDouble(downCosts[edge]);
+            output.writeInt(downMiddles[edge]);
+        }
+    }
+
+    /**
+     * Lê uma hierarquia gravada por write
+     *
+     * @param input Entrada de dados
+     * @return Hierarquia de contração
+     * @throws IOException Se o formato é inválido
+     */
+    public static ContractionHierarchy read(DataInput input) throws IOException
+    {
+        Header header = readHeader(input, FILE_MAGIC, FILE_VERSION, "O arquivo não contém uma hierarquia de contração válida");
+        int nodeCount = header.nodeCount;
+        int upCount = input.readInt();
+        int downCount = input.readInt();
+
+        if((upCount < 0) || (downCount < 0))
+        {
+            throw new IOException("O arquivo não contém uma hierarquia de contração válida");
+        }
+
+        int[] ranks = new int[nodeCount];
+        int[] upOffsets = new int[nodeCount + 1];
+        int[] downOffsets = new int[nodeCount + 1];
+
+        for(int v = 0; v < nodeCount; v++)
+        {
+            ranks[v] = input.readInt();
+            upOffsets[v + 1] = input.readInt();
+            downOffsets[v + 1] = input.readInt();
+        }
+
+        if((upOffsets[nodeCount] != upCount) || (downOffsets[nodeCount] != downCount))
+        {
+            throw new IOException("O arquivo não contém uma hierarquia de contração válida");
+        }
+
+        int[] upTargets = new int[upCount];
+        double[] upCosts = new double[upCount];
+        int[] upMiddles = new int[upCount];
+
+        for(int edge = 0; edge < upCount; edge++)
+        {
+            upTargets[edge] = input.readInt();
+            upCosts[edge] = input.readDouble();
+            upMiddles[edge] = input.readInt();
+        }
+
+        int[] downSources = new int[downCount];
+        double[] downCosts = new double[downCount];
+        int[] downMiddles = new int[downCount];
+
+        for(int edge = 0; edge < downCount; edge++)
+        {
+            downSources[edge] = input.readInt();
+            downCosts[edge] = input.readDouble();
+            downMiddles[edge] = input.readInt();
+        }
+
+        return new ContractionHierarchy(nodeCount, header.graphFingerprint, ranks,
+                upOffsets, upTargets, upCosts, upMiddles,
+                downOffsets, downSources, downCosts, downMiddles);
+    }
+}
@@ -0,0 +1,268 @@
+package br.ufjf.iacity.graph;
+
+import br.ufjf.iacity.helper.sort.IntMinHeap;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Consulta de menor caminho sobre uma hierarquia de contração.
+ *
+ * Executa duas buscas de Dijkstra alternadas que apenas sobem na hierarquia:
+ * a busca direta parte da origem pelas arestas de subida e a busca reversa
+ * parte do destino pelas arestas de descida, percorridas ao contrário. O menor
+ * caminho passa pelo nó de maior nível do caminho, alcançado pelas duas
+ * buscas. Cada busca para quando a sua menor distância em aberto não é menor
+ * que o melhor caminho já encontrado.
+ *
+ * Os vetores de trabalho são reaproveitados entre as consultas (Limpar custa
+ * apenas a quantidade de nós alcançados). Uma instância não deve ser usada
+ * por várias threads ao mesmo tempo.
+ */
+public class ContractionHierarchyQuery
+{
+    private static final int NO_NODE = -1;
+
+    private final ContractionHierarchy hierarchy;
+
+    // Distância, nó anterior e aresta usada de cada nó, na busca direta (0) e na reversa (1)
+    private final double[][] distances;
+    private final int[][] parentNodes;
+    private final int[][] parentEdges;
+
+    // Nós alcançados e abertos de cada busca
+    private final int[][] touchedNodes;
+    private final int[] touchedCounts;
+    private final IntMinHeap[] heaps;
+
+    // Resultado da última consulta
+    private int sourceNode;
+    private int targetNode;
+    private int meetingNode;
+    private double distance;
+    private int settledNodeCount;
+
+    /**
+     * @param hierarchy Hierarquia de contração do grafo
+     */
+    public ContractionHierarchyQuery(ContractionHierarchy hierarchy)
+    {
+        if(hierarchy == null)
+        {
+            throw new IllegalArgumentException("A hierarquia de contração da consulta não deve ser nula");
+        }
+
+        int n = hierarchy.getNodeCount();
+
+        this.hierarchy = hierarchy;
+        this.distances = new double[2][n];
+        this.parentNodes = new int[2][n];
+        this.parentEdges = new int[2][n];
+        this.touchedNodes = new int[2][n];
+        this.touchedCounts = new int[2];
+        this.heaps = new IntMinHeap[] { new IntMinHeap(n), new IntMinHeap(n) };
+
+        Arrays.fill(this.distances[0], Double.POSITIVE_INFINITY);
+        Arrays.fill(this.distances[1], Double.POSITIVE_INFINITY);
+
+        this.meetingNode = NO_NODE;
+        this.distance = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calcula o menor caminho entre dois nós
+     *
+     * @param source Id denso do nó de origem
+     * @param target Id denso do nó de destino
+     * @return (true) se o destino é alcançável a partir da origem
+     */
+    public boolean search(int source, int target)
+    {
+        clear();
+
+        this.sourceNode = source;
+        this.targetNode = target;
+
+        open(0, source, 0, NO_NODE, NO_NODE);
+        open(1, target, 0, NO_NODE, NO_NODE);
+
+        int direction = 0;
+
+        while(!isFinished(0) || !isFinished(1))
+        {
+            // Alterna as buscas, seguindo com a outra quando uma termina
+            if(isFinished(direction))
+            {
+                direction = 1 - direction;
+            }
+
+            settle(direction);
+            direction = 1 - direction;
+        }
+
+        return (meetingNode != NO_NODE);
+    }
+
+    private boolean isFinished(int direction)
+    {
+        return heaps[direction].isEmpty() || (heaps[direction].peekKey() >= distance);
+    }
+
+    private void settle(int direction)
+    {
+        double nodeDistance = heaps[direction].peekKey();
+        int node = heaps[direction].poll();
+        settledNodeCount++;
+
+        // O nó já foi alcançado pela outra busca: caminho candidato
+        double candidate = nodeDistance + distances[1 - direction][node];
+
+        if(candidate < distance)
+        {
+            distance = candidate;
+            meetingNode = node;
+        }
+
+        if(direction == 0)
+        {
+            for(int edge = hierarchy.getUpEdgeStart(node); edge < hierarchy.getUpEdgeEnd(node); edge++)
+            {
+                relax(0, hierarchy.getUpEdgeTarget(edge), nodeDistance + hierarchy.getUpEdgeCost(edge), node, edge);
+            }
+        }
+        else
+        {
+            for(int edge = hierarchy.getDownEdgeStart(node); edge < hierarchy.getDownEdgeEnd(node); edge++)
+            {
+                relax(1, hierarchy.getDownEdgeSource(edge), nodeDistance + hierarchy.getDownEdgeCost(edge), node, edge);
+            }
+        }
+    }
+
+    private void relax(int direction, int node, double nodeDistance, int parentNode, int parentEdge)
+    {
+        if(nodeDistance < distances[direction][node])
+        {
+            open(direction, node, nodeDistance, parentNode, parentEdge);
+        }
+    }
+
+    private void open(int direction, int node, double nodeDistance, int parentNode, int parentEdge)
+    {
+        if(Double.isInfinite(distances[direction][node]))
+        {
+            touchedNodes[direction][touchedCounts[direction]++] = node;
+        }
+
+        distances[direction][node] = nodeDistance;
+        parentNodes[direction][node] = parentNode;
+        parentEdges[direction][node] = parentEdge;
+        heaps[direction].offer(node, nodeDistance);
+    }
+
+    private void clear()
+    {
+        for(int direction = 0; direction < 2; direction++)
+        {
+            for(int i = 0; i < touchedCounts[direction]; i++)
+            {
+                distances[direction][touchedNodes[direction][i]] = Double.POSITIVE_INFINITY;
+            }
+
+            touchedCounts[direction] = 0;
+            heaps[direction].clear();
+        }
+
+        this.meetingNode = NO_NODE;
+        this.distance = Double.POSITIVE_INFINITY;
+        this.settledNodeCount = 0;
+    }
+
+    /**
+     * @return Custo do menor caminho da última consulta (Infinito se o destino não é alcançável)
+     */
+    public double getDistance()
+    {
+        return distance;
+    }
+
+    /**
+     * @return Quantidade de nós fechados pelas duas buscas na última consulta
+     */
+    public int getSettledNodeCount()
+    {
+        return settledNodeCount;
+    }
+
+    /**
+     * Desempacota os atalhos do menor caminho da última consulta
+     *
+     * @return Ids densos dos nós do caminho no grafo original, da origem ao
+     * destino, ou null se o destino não é alcançável
+     */
+    public int[] getPath()
+    {
+        if(meetingNode == NO_NODE)
+        {
+            return null;
+        }
+
+        PathBuilder path = new PathBuilder();
+        path.accept(sourceNode);
+
+        // Arestas da busca direta, da origem até o nó de encontro
+        int edgeCount = 0;
+        int[] upEdges = new int[8];
+        int[] upSources = new int[8];
+
+        for(int node = meetingNode; node != sourceNode; node = parentNodes[0][node])
+        {
+            if(edgeCount == upEdges.length)
+            {
+                upEdges = Arrays.copyOf(upEdges, edgeCount * 2);
+                upSources = Arrays.copyOf(upSources, edgeCount * 2);
+            }
+
+            upEdges[edgeCount] = parentEdges[0][node];
+            upSources[edgeCount] = parentNodes[0][node];
+            edgeCount++;
+        }
+
+        for(int i = edgeCount - 1; i >= 0; i--)
+        {
+            hierarchy.unpackUpEdge(upSources[i], upEdges[i], path);
+        }
+
+        // Arestas da busca reversa, do nó de encontro até o destino
+        for(int node = meetingNode; node != targetNode; node = parentNodes[1][node])
+        {
+            hierarchy.unpackDownEdge(parentNodes[1][node], parentEdges[1][node], path);
+        }
+
+        return path.toArray();
+    }
+
+    /**
+     * Vetor de inteiros que cresce conforme os nós do caminho são adicionados
+     */
+    private static final class PathBuilder implements IntConsumer
+    {
+        private int[] nodes = new int[16];
+        private int size;
+
+        @Override
+        public void accept(int node)
+        {
+            if(size == nodes.length)
+            {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+
+            nodes[size++] = node;
+        }
+
+        private int[] toArray()
+        {
+            return Arrays.copyOf(nodes, size);
+        }
+    }
+}
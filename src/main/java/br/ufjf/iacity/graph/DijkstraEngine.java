@@ -0,0 +1,205 @@
+package br.ufjf.iacity.graph;
+
+import br.ufjf.iacity.helper.sort.IntMinHeap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Consultas de menor caminho pelo algoritmo de Dijkstra, com as árvores de
+ * menores caminhos das origens mais recentes guardadas em cache.
+ *
+ * A primeira consulta de uma origem calcula a árvore completa
+ * (ShortestPathTree) e as seguintes, da mesma origem para qualquer destino,
+ * apenas percorrem os nós anteriores da árvore guardada. O cache descarta as
+ * árvores usadas há mais tempo quando a memória ocupada passa do limite.
+ *
+ * Pode ser usado por várias threads ao mesmo tempo: o cache é sincronizado e
+ * as árvores são calculadas fora da trava (Duas threads podem calcular a
+ * mesma árvore, mas apenas uma fica no cache).
+ */
+public class DijkstraEngine
+{
+    // Memória padrão do cache de árvores (64 MB)
+    public static final long DEFAULT_CACHE_SIZE_BYTES = 64L * 1024 * 1024;
+
+    private final CompiledCityGraph graph;
+    private final long maxCacheBytes;
+
+    // Árvores por origem, da usada há mais tempo para a mais recente
+    private final LinkedHashMap<Integer, ShortestPathTree> cachedTrees;
+    private long cachedBytes;
+
+    // Consultas respondidas pelo cache e consultas que calcularam a árvore
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * @param graph Grafo compilado
+     */
+    public DijkstraEngine(CompiledCityGraph graph)
+    {
+        this(graph, DEFAULT_CACHE_SIZE_BYTES);
+    }
+
+    /**
+     * @param graph Grafo compilado
+     * @param maxCacheBytes Memória máxima das árvores guardadas (Zero desliga o cache)
+     */
+    public DijkstraEngine(CompiledCityGraph graph, long maxCacheBytes)
+    {
+        if((graph == null) || (maxCacheBytes < 0))
+        {
+            throw new IllegalArgumentException("O grafo não deve ser nulo e o tamanho do cache não deve ser negativo");
+        }
+
+        this.graph = graph;
+        this.maxCacheBytes = maxCacheBytes;
+        this.cachedTrees = new LinkedHashMap<>(16, 0.75f, true);
+        this.cachedBytes = 0;
+    }
+
+    /**
+     * @param graph Grafo compilado
+     * @return (true) se as consultas são sobre o mesmo grafo
+     */
+    public boolean isCompatible(CompiledCityGraph graph)
+    {
+        return (graph != null) && ((graph == this.graph) ||
+                ((graph.getNodeCount() == this.graph.getNodeCount()) && (graph.getFingerprint() == this.graph.getFingerprint())));
+    }
+
+    /**
+     * @param source Id denso do nó de origem
+     * @return Árvore de menores caminhos da origem (Do cache, se disponível)
+     */
+    public ShortestPathTree getTree(int source)
+    {
+        synchronized(cachedTrees)
+        {
+            ShortestPathTree tree = cachedTrees.get(source);
+
+            if(tree != null)
+            {
+                hitCount++;
+                return tree;
+            }
+
+            missCount++;
+        }
+
+        ShortestPathTree tree = ShortestPathTree.create(graph, source, false, new IntMinHeap(graph.getNodeCount()));
+
+        synchronized(cachedTrees)
+        {
+            // Outra thread pode ter guardado a mesma árvore enquanto esta era calculada
+            ShortestPathTree cachedTree = cachedTrees.get(source);
+
+            if(cachedTree != null)
+            {
+                return cachedTree;
+            }
+
+            if(tree.getSizeInBytes() <= maxCacheBytes)
+            {
+                cachedTrees.put(source, tree);
+                cachedBytes += tree.getSizeInBytes();
+
+                evict();
+            }
+        }
+
+        return tree;
+    }
+
+    /**
+     * Descarta as árvores usadas há mais tempo até o cache caber no limite
+     */
+    private void evict()
+    {
+        Iterator<Map.Entry<Integer, ShortestPathTree>> treeIt = cachedTrees.entrySet().iterator();
+
+        while((cachedBytes > maxCacheBytes) && treeIt.hasNext())
+        {
+            cachedBytes -= treeIt.next().getValue().getSizeInBytes();
+            treeIt.remove();
+        }
+    }
+
+    /**
+     * @param source Id denso do nó de origem
+     * @param target Id denso do nó de destino
+     * @return Custo do menor caminho (Infinito se o destino não é alcançável)
+     */
+    public double getDistance(int source, int target)
+    {
+        return getTree(source).getDistance(target);
+    }
+
+    /**
+     * @param source Id denso do nó de origem
+     * @param target Id denso do nó de destino
+     * @return Ids densos dos nós do menor caminho, da origem ao destino, ou
+     * null se o destino não é alcançável
+     */
+    public int[] getPath(int source, int target)
+    {
+        return getTree(source).getPath(target);
+    }
+
+    /**
+     * Descarta todas as árvores guardadas
+     */
+    public void clearCache()
+    {
+        synchronized(cachedTrees)
+        {
+            cachedTrees.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    /**
+     * @return Quantidade de árvores guardadas no cache
+     */
+    public int getCachedTreeCount()
+    {
+        synchronized(cachedTrees)
+        {
+            return cachedTrees.size();
+        }
+    }
+
+    /**
+     * @return Memória aproximada ocupada pelas árvores guardadas, em bytes
+     */
+    public long getCachedBytes()
+    {
+        synchronized(cachedTrees)
+        {
+            return cachedBytes;
+        }
+    }
+
+    /**
+     * @return Quantidade de consultas respondidas por uma árvore do cache
+     */
+    public long getHitCount()
+    {
+        synchronized(cachedTrees)
+        {
+            return hitCount;
+        }
+    }
+
+    /**
+     * @return Quantidade de consultas que calcularam a árvore da origem
+     */
+    public long getMissCount()
+    {
+        synchronized(cachedTrees)
+        {
+            return missCount;
+        }
+    }
+}
@@ -0,0 +1,608 @@
+package br.ufjf.iacity.graph;
+
+import br.ufjf.iacity.helper.sort.IntMinHeap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Rótulos de hubs (Cobertura de 2 saltos) do grafo compilado, para responder
+ * a distância exata entre dois nós sem percorrer o grafo.
+ *
+ * Cada nó v tem um rótulo de saída, com pares (hub h, d(v, h)), e um rótulo
+ * de entrada, com pares (hub h, d(h, v)). Para qualquer par s, t com caminho,
+ * algum hub do menor caminho aparece no rótulo de saída de s e no rótulo de
+ * entrada de t, então d(s, t) é o menor d(s, h) + d(h, t) entre os hubs em
+ * comum (getDistance), calculado com uma intercalação dos dois rótulos.
+ *
+ * Os rótulos são gerados pela rotulação podada (Pruned Landmark Labeling):
+ * os nós são processados em ordem de importância e, a partir de cada
+ * hub, uma busca de Dijkstra em cada sentido deixa de avançar pelos nós cuja
+ * distância já é coberta pelos rótulos existentes. Os hubs são numerados
+ * pela posição nessa ordem, de forma que cada rótulo já fica ordenado.
+ *
+ * Cada entrada também guarda o próximo nó do caminho em direção ao hub (Ou
+ * vindo dele), usado para montar o caminho completo sob demanda (getPath).
+ * Os rótulos ficam em formato CSR e podem ser gravados em arquivo
+ * (FileHelper.saveIndexFile), junto da instância.
+ */
+public class HubLabeling extends AbstractGraphIndex
+{
+    // Identificação e versão do formato em arquivo
+    private static final int FILE_MAGIC = 0x4941484C;
+    private static final int FILE_VERSION = 1;
+
+    private static final int NO_NODE = -1;
+
+    // Origens sorteadas para estimar a importância de cada nó (Ordem dos hubs)
+    private static final int ORDER_SAMPLE_COUNT = 64;
+    private static final long ORDER_SAMPLE_SEED = 1;
+
+    // Id denso do nó de cada hub (Hubs numerados pela ordem de processamento)
+    private final int[] hubNodes;
+
+    // Rótulos de saída: hub, d(v, hub) e o nó seguinte a v no caminho até o hub
+    private final int[] outOffsets;
+    private final int[] outHubs;
+    private final double[] outDistances;
+    private final int[] outNextNodes;
+
+    // Rótulos de entrada: hub, d(hub, v) e o nó anterior a v no caminho a partir do hub
+    private final int[] inOffsets;
+    private final int[] inHubs;
+    private final double[] inDistances;
+    private final int[] inPreviousNodes;
+
+    private HubLabeling(int nodeCount, long graphFingerprint, int[] hubNodes,
+            int[] outOffsets, int[] outHubs, double[] outDistances, int[] outNextNodes,
+            int[] inOffsets, int[] inHubs, double[] inDistances, int[] inPreviousNodes)
+    {
+        super(FILE_MAGIC, FILE_VERSION, nodeCount, graphFingerprint);
+        this.hubNodes = hubNodes;
+        this.outOffsets = outOffsets;
+        this.outHubs = outHubs;
+        this.outDistances = outDistances;
+        this.outNextNodes = outNextNodes;
+        this.inOffsets = inOffsets;
+        this.inHubs = inHubs;
+        this.inDistances = inDistances;
+        this.inPreviousNodes = inPreviousNodes;
+    }
+
+    /**
+     * Rótulos de um sentido durante a construção (Vetores que crescem por nó)
+     */
+    private static final class LabelBuilder
+    {
+        private final int[][] hubs;
+        private final double[][] distances;
+        private final int[][] linkedNodes;
+        private final int[] sizes;
+
+        private LabelBuilder(int nodeCount)
+        {
+            this.hubs = new int[nodeCount][4];
+            this.distances = new double[nodeCount][4];
+            this.linkedNodes = new int[nodeCount][4];
+            this.sizes = new int[nodeCount];
+        }
+
+        private void add(int node, int hub, double distance, int linkedNode)
+        {
+            int size = sizes[node];
+
+            if(size == hubs[node].length)
+            {
+                hubs[node] = Arrays.copyOf(hubs[node], size * 2);
+                distances[node] = Arrays.copyOf(distances[node], size * 2);
+                linkedNodes[node] = Arrays.copyOf(linkedNodes[node], size * 2);
+            }
+
+            hubs[node][size] = hub;
+            distances[node][size] = distance;
+            linkedNodes[node][size] = linkedNode;
+            sizes[node] = size + 1;
+        }
+
+        private int[] createOffsets()
+        {
+            int[] offsets = new int[sizes.length + 1];
+
+            for(int v = 0; v < sizes.length; v++)
+            {
+                offsets[v + 1] = offsets[v] + sizes[v];
+            }
+
+            return offsets;
+        }
+    }
+
+    /**
+     * Calcula os rótulos de todos os nós (Duas buscas de Dijkstra podadas por
+     * nó, depois de ORDER_SAMPLE_COUNT pares de buscas completas para a ordem)
+     *
+     * @param graph Grafo compilado
+     * @return Rótulos de hubs do grafo
+     */
+    public static HubLabeling create(CompiledCityGraph graph)
+    {
+        if(graph == null)
+        {
+            throw new IllegalArgumentException("O grafo dos rótulos de hubs não deve ser nulo");
+        }
+
+        int n = graph.getNodeCount();
+        IntMinHeap heap = new IntMinHeap(n);
+        int[] hubNodes = createHubOrder(graph, heap);
+
+        LabelBuilder outLabels = new LabelBuilder(n);
+        LabelBuilder inLabels = new LabelBuilder(n);
+
+        double[] distance = new double[n];
+        int[] linkedNode = new int[n];
+        int[] touchedNodes = new int[n];
+
+        // Distância do hub atual até cada hub do seu rótulo (Indexado pelo hub)
+        double[] hubDistance = new double[n];
+
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(hubDistance, Double.POSITIVE_INFINITY);
+
+        for(int hub = 0; hub < n; hub++)
+        {
+            int hubNode = hubNodes[hub];
+
+            // Busca direta: d(hub, v) entra no rótulo de entrada de v
+            prunedSearch(graph, hub, hubNode, false, outLabels, inLabels, heap, distance, linkedNode, touchedNodes, hubDistance);
+
+            // Busca reversa: d(v, hub) entra no rótulo de saída de v
+            prunedSearch(graph, hub, hubNode, true, inLabels, outLabels, heap, distance, linkedNode, touchedNodes, hubDistance);
+        }
+
+        int[] outOffsets = outLabels.createOffsets();
+        int[] inOffsets = inLabels.createOffsets();
+
+        int[] outHubs = new int[outOffsets[n]];
+        double[] outDistances = new double[outOffsets[n]];
+        int[] outNextNodes = new int[outOffsets[n]];
+
+        int[] inHubs = new int[inOffsets[n]];
+        double[] inDistances = new double[inOffsets[n]];
+        int[] inPreviousNodes = new int[inOffsets[n]];
+
+        for(int v = 0; v < n; v++)
+        {
+            System.arraycopy(outLabels.hubs[v], 0, outHubs, outOffsets[v], outLabels.sizes[v]);
+            System.arraycopy(outLabels.distances[v], 0, outDistances, outOffsets[v], outLabels.sizes[v]);
+            System.arraycopy(outLabels.linkedNodes[v], 0, outNextNodes, outOffsets[v], outLabels.sizes[v]);
+
+            System.arraycopy(inLabels.hubs[v], 0, inHubs, inOffsets[v], inLabels.sizes[v]);
+            System.arraycopy(inLabels.distances[v], 0, inDistances, inOffsets[v], inLabels.sizes[v]);
+            System.arraycopy(inLabels.linkedNodes[v], 0, inPreviousNodes, inOffsets[v], inLabels.sizes[v]);
+        }
+
+        return new HubLabeling(n, graph.getFingerprint(), hubNodes,
+                outOffsets, outHubs, outDistances, outNextNodes,
+                inOffsets, inHubs, inDistances, inPreviousNodes);
+    }
+
+    /**
+     * Ordem dos hubs: nós que aparecem em mais menores caminhos primeiro, pois
+     * cobrem mais pares e podam mais as buscas seguintes. A importância de um
+     * nó é o tamanho da sua subárvore nas árvores de menores caminhos (Nos dois
+     * sentidos) de algumas origens sorteadas com semente fixa
+     */
+    private static int[] createHubOrder(CompiledCityGraph graph, IntMinHeap heap)
+    {
+        int n = graph.getNodeCount();
+        long[] importance = new long[n];
+
+        int[] childCount = new int[n];
+        int[] leafQueue = new int[n];
+        long[] subtreeSize = new long[n];
+
+        Random random = new Random(ORDER_SAMPLE_SEED);
+
+        for(int sample = 0; (n > 0) && (sample < ORDER_SAMPLE_COUNT); sample++)
+        {
+            int root = random.nextInt(n);
+
+            for(int direction = 0; direction < 2; direction++)
+            {
+                ShortestPathTree tree = ShortestPathTree.create(graph, root, direction == 1, heap);
+                int head = 0;
+                int tail = 0;
+
+                for(int v = 0; v < n; v++)
+                {
+                    int parent = tree.getParent(v);
+
+                    if(parent != ShortestPathTree.NO_PARENT)
+                    {
+                        childCount[parent]++;
+                    }
+                }
+
+                for(int v = 0; v < n; v++)
+                {
+                    if(tree.isReachable(v) && (childCount[v] == 0))
+                    {
+                        leafQueue[tail++] = v;
+                    }
+                }
+
+                // Soma as subárvores a partir das folhas: um nó entra na fila quando todos os filhos já saíram
+                while(head < tail)
+                {
+                    int node = leafQueue[head++];
+                    int parent = tree.getParent(node);
+
+                    subtreeSize[node]++;
+                    importance[node] += subtreeSize[node];
+
+                    if(parent != ShortestPathTree.NO_PARENT)
+                    {
+                        subtreeSize[parent] += subtreeSize[node];
+
+                        if(--childCount[parent] == 0)
+                        {
+                            leafQueue[tail++] = parent;
+                        }
+                    }
+
+                    subtreeSize[node] = 0;
+                }
+            }
+        }
+
+        Integer[] order = new Integer[n];
+
+        for(int v = 0; v < n; v++)
+        {
+            order[v] = v;
+        }
+
+        Arrays.sort(order, (v, w) -> (importance[v] != importance[w]) ? Long.compare(importance[w], importance[v]) : Integer.compare(v, w));
+
+        int[] hubNodes = new int[n];
+
+        for(int i = 0; i < n; i++)
+        {
+            hubNodes[i] = order[i];
+        }
+
+        return hubNodes;
+    }
+
+    /**
+     * Busca de Dijkstra podada a partir de um hub
+     *
+     * @param hubLabels Rótulos do hub usados na poda (Saída na busca direta, entrada na reversa)
+     * @param nodeLabels Rótulos que recebem o hub (Entrada na busca direta, saída na reversa)
+     */
+    private static void prunedSearch(CompiledCityGraph graph, int hub, int hubNode, boolean reverse,
+            LabelBuilder hubLabels, LabelBuilder nodeLabels, IntMinHeap heap,
+            double[] distance, int[] linkedNode, int[] touchedNodes, double[] hubDistance)
+    {
+        for(int i = 0; i < hubLabels.sizes[hubNode]; i++)
+        {
+            hubDistance[hubLabels.hubs[hubNode][i]] = hubLabels.distances[hubNode][i];
+        }
+
+        int touchedCount = 0;
+
+        distance[hubNode] = 0;
+        linkedNode[hubNode] = NO_NODE;
+        touchedNodes[touchedCount++] = hubNode;
+        heap.offer(hubNode, 0);
+
+        while(!heap.isEmpty())
+        {
+            double nodeDistance = heap.peekKey();
+            int node = heap.poll();
+
+            // Poda: os hubs anteriores já cobrem a distância entre o hub e o nó
+            if(coveredDistance(nodeLabels, node, hubDistance) <= nodeDistance)
+            {
+                continue;
+            }
+
+            nodeLabels.add(node, hub, nodeDistance, linkedNode[node]);
+
+            int start = reverse ? graph.getInEdgeStart(node) : graph.getEdgeStart(node);
+            int end = reverse ? graph.getInEdgeEnd(node) : graph.getEdgeEnd(node);
+
+            for(int i = start; i < end; i++)
+            {
+                int edge = reverse ? graph.getInEdge(i) : i;
+                int next = reverse ? graph.getEdgeSource(edge) : graph.getEdgeTarget(edge);
+                double nextDistance = nodeDistance + graph.getEdgeCost(edge);
+
+                if(nextDistance < distance[next])
+                {
+                    if(Double.isInfinite(distance[next]))
+                    {
+                        touchedNodes[touchedCount++] = next;
+                    }
+
+                    distance[next] = nextDistance;
+                    linkedNode[next] = node;
+                    heap.offer(next, nextDistance);
+                }
+            }
+        }
+
+        for(int i = 0; i < touchedCount; i++)
+        {
+            distance[touchedNodes[i]] = Double.POSITIVE_INFINITY;
+        }
+
+        for(int i = 0; i < hubLabels.sizes[hubNode]; i++)
+        {
+            hubDistance[hubLabels.hubs[hubNode][i]] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private static double coveredDistance(LabelBuilder nodeLabels, int node, double[] hubDistance)
+    {
+        double covered = Double.POSITIVE_INFINITY;
+
+        for(int i = 0; i < nodeLabels.sizes[node]; i++)
+        {
+            covered = Math.min(covered, hubDistance[nodeLabels.hubs[node][i]] + nodeLabels.distances[node][i]);
+        }
+
+        return covered;
+    }
+
+    /**
+     * @return Quantidade total de entradas dos rótulos de saída e de entrada
+     */
+    public int getLabelEntryCount()
+    {
+        return outHubs.length + inHubs.length;
+    }
+
+    /**
+     * Distância exata entre dois nós, pela intercalação dos rótulos
+     *
+     * @param source Id denso do nó de origem
+     * @param target Id denso do nó de destino
+     * @return Custo do menor caminho (Infinito se o destino não é alcançável)
+     */
+    public double getDistance(int source, int target)
+    {
+        long entries = findBestEntries(source, target);
+
+        if(entries < 0)
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return outDistances[(int) (entries >>> 32)] + inDistances[(int) entries];
+    }
+
+    /**
+     * Menor caminho entre dois nós, montado a partir do hub em comum que
+     * define a distância
+     *
+     * @param source Id denso do nó de origem
+     * @param target Id denso do nó de destino
+     * @return Ids densos dos nós do caminho, da origem ao destino, ou null se
+     * o destino não é alcançável
+     */
+    public int[] getPath(int source, int target)
+    {
+        long entries = findBestEntries(source, target);
+
+        if(entries < 0)
+        {
+            return null;
+        }
+
+        int hub = outHubs[(int) (entries >>> 32)];
+        int hubNode = hubNodes[hub];
+
+        // Trecho do hub até o destino, percorrido de trás para frente
+        int[] hubToTarget = new int[8];
+        int hubToTargetLength = 0;
+
+        for(int node = target; node != hubNode; node = inPreviousNodes[findEntry(inOffsets, inHubs, node, hub)])
+        {
+            if(hubToTargetLength == hubToTarget.length)
+            {
+                hubToTarget = Arrays.copyOf(hubToTarget, hubToTargetLength * 2);
+            }
+
+            hubToTarget[hubToTargetLength++] = node;
+        }
+
+        // Trecho da origem até o hub, percorrido para frente
+        int[] path = new int[8];
+        int length = 0;
+
+        for(int node = source; ; node = outNextNodes[findEntry(outOffsets, outHubs, node, hub)])
+        {
+            if(length == path.length)
+            {
+                path = Arrays.copyOf(path, length * 2);
+            }
+
+            path[length++] = node;
+
+            if(node == hubNode)
+            {
+                break;
+            }
+        }
+
+        path = Arrays.copyOf(path, length + hubToTargetLength);
+
+        for(int i = hubToTargetLength - 1; i >= 0; i--)
+        {
+            path[length++] = hubToTarget[i];
+        }
+
+        return path;
+    }
+
+    /**
+     * @return Posições, no rótulo de saída da origem (32 bits altos) e no de
+     * entrada do destino (32 bits baixos), do hub em comum com a menor soma de
+     * distâncias, ou -1 se não há hub em comum
+     */
+    private long findBestEntries(int source, int target)
+    {
+        int out = outOffsets[source];
+        int outEnd = outOffsets[source + 1];
+        int in = inOffsets[target];
+        int inEnd = inOffsets[target + 1];
+
+        long bestEntries = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+
+        // Intercalação dos dois rótulos, ordenados pelo hub
+        while((out < outEnd) && (in < inEnd))
+        {
+            int outHub = outHubs[out];
+            int inHub = inHubs[in];
+
+            if(outHub < inHub)
+            {
+                out++;
+            }
+            else if(outHub > inHub)
+            {
+                in++;
+            }
+            else
+            {
+                double distance = outDistances[out] + inDistances[in];
+
+                if(distance < bestDistance)
+                {
+                    bestDistance = distance;
+                    bestEntries = (((long) out) << 32) | in;
+                }
+
+                out++;
+                in++;
+            }
+        }
+
+        return bestEntries;
+    }
+
+    /**
+     * @return Posição do hub no rótulo do nó (Busca binária)
+     */
+    private static int findEntry(int[] offsets, int[] hubs, int node, int hub)
+    {
+        int position = Arrays.binarySearch(hubs, offsets[node], offsets[node + 1], hub);
+
+        if(position < 0)
+        {
+            throw new IllegalStateException("Rótulos de hubs inconsistentes: hub ausente no caminho");
+        }
+
+        return position;
+    }
+
+    /**
+     * Grava os rótulos em formato binário, depois do cabeçalho
+     *
+     * @param output Saída de dados
+     * @throws IOException
+     */
+    @Override
+    protected void writeBody(DataOutput output) throws IOException
+    {
+        output.writeInt(outHubs.length);
+        output.writeInt(inHubs.length);
+
+        for(int v = 0; v < getNodeCount(); v++)
+        {
+            output.writeInt(hubNodes[v]);
+            output.writeInt(outOffsets[v + 1]);
+            output.writeInt(inOffsets[v + 1]);
+        }
+
+        for(int i = 0; i < outHubs.length; i++)
+        {
+            output.writeInt(outHubs[i]);
+            output.writeDouble(outDistances[i]);
+            output.writeInt(outNextNodes[i]);
+        }
+
+        for(int i = 0; i < inHubs.length; i++)
+        {
+            output.writeInt(inHubs[i]);
+            output.writeDouble(inDistances[i]);
+            output.writeInt(inPreviousNodes[i]);
+        }
+    }
+
+    /**
+     * Lê os rótulos gravados por write
+     *
+     * @param input Entrada de dados
+     * @return Rótulos de hubs
+     * @throws IOException Se o formato é inválido
+     */
+    public static HubLabeling read(DataInput input) throws IOException
+    {
+        Header header = readHeader(input, FILE_MAGIC, FILE_VERSION, "O arquivo não contém rótulos de hubs válidos");
+        int nodeCount = header.nodeCount;
+        int outCount = input.readInt();
+        int inCount = input.readInt();
+
+        if((outCount < 0) || (inCount < 0))
+        {
+            throw new IOException("O arquivo não contém rótulos de hubs válidos");
+        }
+
+        int[] hubNodes = new int[nodeCount];
+        int[] outOffsets = new int[nodeCount + 1];
+        int[] inOffsets = new int[nodeCount + 1];
+
+        for(int v = 0; v < nodeCount; v++)
+        {
+            hubNodes[v] = input.readInt();
+            outOffsets[v + 1] = input.readInt();
+            inOffsets[v + 1] = input.readInt();
+        }
+
+        if((outOffsets[nodeCount] != outCount) || (inOffsets[nodeCount] != inCount))
+        {
+            throw new IOException("O arquivo não contém rótulos de hubs válidos");
+        }
+
+        int[] outHubs = new int[outCount];
+        double[] outDistances = new double[outCount];
+        int[] outNextNodes = new int[outCount];
+
+        for(int i = 0; i < outCount; i++)
+        {
+            outHubs[i] = input.readInt();
+            outDistances[i] = input.readDouble();
+            outNextNodes[i] = input.readInt();
+        }
+
+        int[] inHubs = new int[inCount];
+        double[] inDistances = new double[inCount];
+        int[] inPreviousNodes = new int[inCount];
+
+        for(int i = 0; i < inCount; i++)
+        {
+            inHubs[i] = input.readInt();
+            inDistances[i] = input.readDouble();
+            inPreviousNodes[i] = input.readInt();
+        }
+
+        return new HubLabeling(nodeCount, header.graphFingerprint, hubNodes,
+                outOffsets, outHubs, outDistances, outNextNodes,
+                inOffsets, inHubs, inDistances, inPreviousNodes);
+    }
+}
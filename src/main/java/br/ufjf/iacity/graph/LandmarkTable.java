@@ -0,0 +1,451 @@
+package br.ufjf.iacity.graph;
+
+import br.ufjf.iacity.helper.sort.IntMinHeap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Distâncias de cada nó do grafo compilado até um conjunto de marcos
+ * (Landmarks) e de cada marco até cada nó, usadas pela heurística ALT
+ * (A*, Landmarks, Triangle inequality).
+ *
+ * Pela desigualdade triangular, para qualquer marco L, a distância de v até t
+ * é pelo menos d(L, t) - d(L, v) e pelo menos d(v, L) - d(t, L). O maior
+ * desses limites entre todos os marcos (getLowerBound) é uma estimativa
+ * admissível e consistente da distância real.
+ *
+ * Os marcos são divididos entre as componentes do grafo em proporção ao
+ * tamanho de cada uma (Nós isolados não recebem marcos) e, dentro de cada
+ * componente, escolhidos pelo critério do mais distante: cada novo marco é o
+ * nó alcançável mais longe dos marcos já escolhidos.
+ *
+ * As distâncias de um nó ocupam posições consecutivas dos vetores
+ * ([v * k, v * k + k)), de forma que o cálculo do limite de um nó lê apenas
+ * duas faixas contíguas de memória.
+ *
+ * A tabela é imutável e pode ser gravada em arquivo (FileHelper.saveIndexFile),
+ * junto da instância, para não repetir o pré-processamento.
+ */
+public class LandmarkTable extends AbstractGraphIndex
+{
+    public static final int DEFAULT_LANDMARK_COUNT = 8;
+
+    // Identificação e versão do formato em arquivo
+    private static final int FILE_MAGIC = 0x49414C54;
+    private static final int FILE_VERSION = 1;
+
+    // Id denso de cada marco
+    private final int[] landmarks;
+
+    // d(L, v) e d(v, L) de cada nó v e marco L, na posição v * k + L
+    private final double[] fromLandmark;
+    private final double[] toLandmark;
+
+    private LandmarkTable(int nodeCount, long graphFingerprint, int[] landmarks, double[] fromLandmark, double[] toLandmark)
+    {
+        super(FILE_MAGIC, FILE_VERSION, nodeCount, graphFingerprint);
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Escolhe os marcos e calcula as distâncias (Duas execuções do algoritmo
+     * de Dijkstra por marco)
+     *
+     * @param graph Grafo compilado
+     * @param landmarkCount Quantidade de marcos desejada (Limitada à quantidade de nós)
+     * @return Tabela de marcos
+     */
+    public static LandmarkTable create(CompiledCityGraph graph, int landmarkCount)
+    {
+        if((graph == null) || (landmarkCount < 1))
+        {
+            throw new IllegalArgumentException("O grafo não deve ser nulo e a quantidade de marcos deve ser positiva");
+        }
+
+        int n = graph.getNodeCount();
+        IntMinHeap heap = new IntMinHeap(n);
+
+        int[] component = new int[n];
+        int componentCount = findComponents(graph, component);
+
+        // Tamanho e primeiro nó de cada componente
+        int[] componentSize = new int[componentCount];
+        int[] componentRoot = new int[componentCount];
+
+        for(int v = n - 1; v >= 0; v--)
+        {
+            componentSize[component[v]]++;
+            componentRoot[component[v]] = v;
+        }
+
+        int[] landmarkQuota = shareLandmarks(componentSize, landmarkCount);
+
+        int[] selected = new int[Math.min(landmarkCount, n)];
+        double[][] fromDistances = new double[selected.length][];
+        double[][] toDistances = new double[selected.length][];
+        int count = 0;
+
+        // Menor distância de cada nó até os marcos já escolhidos na sua componente, em qualquer sentido
+        double[] minDistance = new double[n];
+
+        // Componentes em ordem decrescente de tamanho, de forma que os primeiros marcos fiquem na maior
+        Integer[] componentOrder = new Integer[componentCount];
+
+        for(int c = 0; c < componentCount; c++)
+        {
+            componentOrder[c] = c;
+        }
+
+        Arrays.sort(componentOrder, (c, d) -> (componentSize[c] != componentSize[d]) ? Integer.compare(componentSize[d], componentSize[c]) : Integer.compare(c, d));
+
+        for(int c : componentOrder)
+        {
+            if(landmarkQuota[c] == 0)
+            {
+                continue;
+            }
+
+            // O primeiro marco da componente é o nó mais distante do seu primeiro nó
+            int root = componentRoot[c];
+            Arrays.fill(minDistance, Double.POSITIVE_INFINITY);
+            updateMinDistance(minDistance, ShortestPathTree.create(graph, root, false, heap).getDistanceArray(), ShortestPathTree.create(graph, root, true, heap).getDistanceArray());
+
+            for(int i = 0; i < landmarkQuota[c]; i++)
+            {
+                int landmark = farthestNode(minDistance, component, c, i == 0);
+
+                if(landmark < 0)
+                {
+                    break;
+                }
+
+                if(i == 0)
+                {
+                    Arrays.fill(minDistance, Double.POSITIVE_INFINITY);
+                }
+
+                selected[count] = landmark;
+                fromDistances[count] = ShortestPathTree.create(graph, landmark, false, heap).getDistanceArray();
+                toDistances[count] = ShortestPathTree.create(graph, landmark, true, heap).getDistanceArray();
+
+                updateMinDistance(minDistance, fromDistances[count], toDistances[count]);
+                count++;
+            }
+        }
+
+        double[] fromLandmark = new double[n * count];
+        double[] toLandmark = new double[n * count];
+
+        for(int i = 0; i < count; i++)
+        {
+            for(int v = 0; v < n; v++)
+            {
+                fromLandmark[(v * count) + i] = fromDistances[i][v];
+                toLandmark[(v * count) + i] = toDistances[i][v];
+            }
+        }
+
+        return new LandmarkTable(n, graph.getFingerprint(), Arrays.copyOf(selected, count), fromLandmark, toLandmark);
+    }
+
+    /**
+     * Separa o grafo em componentes fracamente conexas (Arestas percorridas
+     * nos dois sentidos)
+     *
+     * @param graph Grafo compilado
+     * @param component Recebe a componente de cada nó, numeradas a partir do nó 0
+     * @return Quantidade de componentes
+     */
+    private static int findComponents(CompiledCityGraph graph, int[] component)
+    {
+        int n = graph.getNodeCount();
+        int[] queue = new int[n];
+        int componentCount = 0;
+
+        Arrays.fill(component, -1);
+
+        for(int root = 0; root < n; root++)
+        {
+            if(component[root] >= 0)
+            {
+                continue;
+            }
+
+            int head = 0;
+            int tail = 0;
+
+            component[root] = componentCount;
+            queue[tail++] = root;
+
+            while(head < tail)
+            {
+                int node = queue[head++];
+
+                for(int i = graph.getEdgeStart(node); i < graph.getEdgeEnd(node); i++)
+                {
+                    int next = graph.getEdgeTarget(i);
+
+                    if(component[next] < 0)
+                    {
+                        component[next] = componentCount;
+                        queue[tail++] = next;
+                    }
+                }
+
+                for(int i = graph.getInEdgeStart(node); i < graph.getInEdgeEnd(node); i++)
+                {
+                    int next = graph.getEdgeSource(graph.getInEdge(i));
+
+                    if(component[next] < 0)
+                    {
+                        component[next] = componentCount;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+
+            componentCount++;
+        }
+
+        return componentCount;
+    }
+
+    /**
+     * Divide os marcos entre as componentes em proporção ao tamanho (Maiores
+     * restos primeiro). Nós isolados não recebem marcos: não há caminho a
+     * estimar a partir deles
+     *
+     * @param componentSize Quantidade de nós de cada componente
+     * @param landmarkCount Quantidade de marcos desejada
+     * @return Quantidade de marcos de cada componente
+     */
+    private static int[] shareLandmarks(int[] componentSize, int landmarkCount)
+    {
+        int[] quota = new int[componentSize.length];
+        long[] remainder = new long[componentSize.length];
+        long total = 0;
+
+        for(int size : componentSize)
+        {
+            if(size > 1)
+            {
+                total += size;
+            }
+        }
+
+        long budget = Math.min(landmarkCount, total);
+        long assigned = 0;
+
+        for(int c = 0; c < componentSize.length; c++)
+        {
+            if(componentSize[c] > 1)
+            {
+                quota[c] = (int) ((budget * componentSize[c]) / total);
+                remainder[c] = (budget * componentSize[c]) % total;
+                assigned += quota[c];
+            }
+        }
+
+        // Os marcos que sobram vão para os maiores restos, com a maior componente no empate
+        while(assigned < budget)
+        {
+            int next = -1;
+
+            for(int c = 0; c < componentSize.length; c++)
+            {
+                if((componentSize[c] > 1) && (remainder[c] >= 0) && ((next < 0) || (remainder[c] > remainder[next]) ||
+                        ((remainder[c] == remainder[next]) && (componentSize[c] > componentSize[next]))))
+                {
+                    next = c;
+                }
+            }
+
+            quota[next]++;
+            remainder[next] = -1;
+            assigned++;
+        }
+
+        return quota;
+    }
+
+    private static void updateMinDistance(double[] minDistance, double[] fromDistance, double[] toDistance)
+    {
+        for(int v = 0; v < minDistance.length; v++)
+        {
+            minDistance[v] = Math.min(minDistance[v], Math.min(fromDistance[v], toDistance[v]));
+        }
+    }
+
+    /**
+     * Nós da componente que não alcançam nem são alcançados pelos marcos
+     * (Distância infinita) são ignorados: um marco neles não limitaria
+     * nenhuma distância
+     *
+     * @param minDistance Menor distância de cada nó até os marcos escolhidos
+     * @param component Componente de cada nó
+     * @param componentIndex Componente em que o marco é procurado
+     * @param firstLandmark Indica se nenhum marco foi escolhido ainda na componente
+     * @return Nó mais distante, ou -1 se todos os nós alcançáveis já são marcos
+     */
+    private static int farthestNode(double[] minDistance, int[] component, int componentIndex, boolean firstLandmark)
+    {
+        int farthest = -1;
+        double farthestDistance = 0;
+
+        for(int v = 0; v < minDistance.length; v++)
+        {
+            if((component[v] == componentIndex) && !Double.isInfinite(minDistance[v]) &&
+                    ((farthest < 0) || (minDistance[v] > farthestDistance)))
+            {
+                farthest = v;
+                farthestDistance = minDistance[v];
+            }
+        }
+
+        // Se o mais distante está a distância zero, ele já é um marco
+        return ((farthest >= 0) && (firstLandmark || (farthestDistance > 0))) ? farthest : -1;
+    }
+
+    public int getLandmarkCount()
+    {
+        return landmarks.length;
+    }
+
+    /**
+     * @param index Índice do marco, de 0 a getLandmarkCount() - 1
+     * @return Id denso do nó escolhido como marco
+     */
+    public int getLandmark(int index)
+    {
+        return landmarks[index];
+    }
+
+    /**
+     * @param index Índice do marco
+     * @param node Id denso do nó
+     * @return Distância do marco até o nó (Infinito se não alcançável)
+     */
+    public double getDistanceFromLandmark(int index, int node)
+    {
+        return fromLandmark[(node * landmarks.length) + index];
+    }
+
+    /**
+     * @param index Índice do marco
+     * @param node Id denso do nó
+     * @return Distância do nó até o marco (Infinito se não alcançável)
+     */
+    public double getDistanceToLandmark(int index, int node)
+    {
+        return toLandmark[(node * landmarks.length) + index];
+    }
+
+    /**
+     * Maior limite inferior da distância de um nó até outro entre todos os
+     * marcos. Retorna infinito quando os marcos provam que o destino não é
+     * alcançável a partir do nó
+     *
+     * @param node Id denso do nó de origem
+     * @param target Id denso do nó de destino
+     * @return Limite inferior da distância (Zero se os marcos não dão informação)
+     */
+    public double getLowerBound(int node, int target)
+    {
+        int k = landmarks.length;
+        int nodeBase = node * k;
+        int targetBase = target * k;
+
+        double bound = 0;
+
+        for(int i = 0; i < k; i++)
+        {
+            // Diferenças entre dois infinitos resultam em NaN e são ignoradas
+            double fromBound = fromLandmark[targetBase + i] - fromLandmark[nodeBase + i];
+            double toBound = toLandmark[nodeBase + i] - toLandmark[targetBase + i];
+
+            if(fromBound > bound)
+            {
+                bound = fromBound;
+            }
+
+            if(toBound > bound)
+            {
+                bound = toBound;
+            }
+        }
+
+        return bound;
+    }
+
+    /**
+     * Grava a tabela em formato binário, depois do cabeçalho
+     *
+     * @param output Saída de dados
+     * @throws IOException
+     */
+    @Override
+    protected void writeBody(DataOutput output) throws IOException
+    {
+        output.writeInt(landmarks.length);
+
+        for(int landmark : landmarks)
+        {
+            output.writeInt(landmark);
+        }
+
+        for(double value : fromLandmark)
+        {
+            output.writeDouble(value);
+        }
+
+        for(double value : toLandmark)
+        {
+            output.writeDouble(value);
+        }
+    }
+
+    /**
+     * Lê uma tabela gravada por write
+     *
+     * @param input Entrada de dados
+     * @return Tabela de marcos
+     * @throws IOException Se o formato é inválido
+     */
+    public static LandmarkTable read(DataInput input) throws IOException
+    {
+        Header header = readHeader(input, FILE_MAGIC, FILE_VERSION, "O arquivo não contém uma tabela de marcos válida");
+        int nodeCount = header.nodeCount;
+        int landmarkCount = input.readInt();
+
+        if((landmarkCount < 0) || (landmarkCount > nodeCount))
+        {
+            throw new IOException("O arquivo não contém uma tabela de marcos válida");
+        }
+
+        int[] landmarks = new int[landmarkCount];
+
+        for(int i = 0; i < landmarkCount; i++)
+        {
+            landmarks[i] = input.readInt();
+        }
+
+        double[] fromLandmark = new double[nodeCount * landmarkCount];
+        double[] toLandmark = new double[nodeCount * landmarkCount];
+
+        for(int i = 0; i < fromLandmark.length; i++)
+        {
+            fromLandmark[i] = input.readDouble();
+        }
+
+        for(int i = 0; i < toLandmark.length; i++)
+        {
+            toLandmark[i] = input.readDouble();
+        }
+
+        return new LandmarkTable(nodeCount, header.graphFingerprint, landmarks, fromLandmark, toLandmark);
+    }
+}
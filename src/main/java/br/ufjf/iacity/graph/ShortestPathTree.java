@@ -0,0 +1,189 @@
+package br.ufjf.iacity.graph;
+
+import br.ufjf.iacity.helper.sort.IntMinHeap;
+import java.util.Arrays;
+
+/**
+ * Árvore de menores caminhos de um nó do grafo compilado até todos os outros
+ * (Ou de todos os outros até ele, na árvore reversa), calculada pelo
+ * algoritmo de Dijkstra.
+ *
+ * A distância e o nó anterior de cada nó ficam em vetores primitivos, pelo
+ * id denso, de forma que o menor caminho até qualquer destino é montado
+ * percorrendo os nós anteriores, sem nova busca. A árvore é imutável e pode
+ * ser compartilhada entre threads (DijkstraEngine).
+ */
+public class ShortestPathTree
+{
+    // Nó anterior da raíz e dos nós não alcançáveis
+    public static final int NO_PARENT = -1;
+
+    // Nó de origem da árvore e sentido das arestas percorridas
+    private final int source;
+    private final boolean reverse;
+
+    // Distância de cada nó e o seu nó anterior no menor caminho
+    private final double[] distances;
+    private final int[] parents;
+
+    private ShortestPathTree(int source, boolean reverse, double[] distances, int[] parents)
+    {
+        this.source = source;
+        this.reverse = reverse;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    /**
+     * Calcula a árvore de menores caminhos a partir de um nó
+     *
+     * @param graph Grafo compilado
+     * @param source Id denso do nó de origem
+     * @param reverse (true) para percorrer as arestas ao contrário (Distâncias até a origem)
+     * @param heap Heap vazio com capacidade para os nós do grafo (Fica vazio ao final)
+     * @return Árvore de menores caminhos
+     */
+    public static ShortestPathTree create(CompiledCityGraph graph, int source, boolean reverse, IntMinHeap heap)
+    {
+        if((graph == null) || (heap == null) || (source < 0) || (source >= graph.getNodeCount()))
+        {
+            throw new IllegalArgumentException("O grafo e o heap não devem ser nulos e a origem deve ser um nó do grafo");
+        }
+
+        double[] distances = new double[graph.getNodeCount()];
+        int[] parents = new int[graph.getNodeCount()];
+
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, NO_PARENT);
+
+        distances[source] = 0;
+        heap.offer(source, 0);
+
+        while(!heap.isEmpty())
+        {
+            double nodeDistance = heap.peekKey();
+            int node = heap.poll();
+
+            int start = reverse ? graph.getInEdgeStart(node) : graph.getEdgeStart(node);
+            int end = reverse ? graph.getInEdgeEnd(node) : graph.getEdgeEnd(node);
+
+            for(int i = start; i < end; i++)
+            {
+                int edge = reverse ? graph.getInEdge(i) : i;
+                int next = reverse ? graph.getEdgeSource(edge) : graph.getEdgeTarget(edge);
+                double nextDistance = nodeDistance + graph.getEdgeCost(edge);
+
+                if(nextDistance < distances[next])
+                {
+                    distances[next] = nextDistance;
+                    parents[next] = node;
+                    heap.offer(next, nextDistance);
+                }
+            }
+        }
+
+        return new ShortestPathTree(source, reverse, distances, parents);
+    }
+
+    public int getSource()
+    {
+        return source;
+    }
+
+    /**
+     * @return (true) se as distâncias são de cada nó até a origem
+     */
+    public boolean isReverse()
+    {
+        return reverse;
+    }
+
+    public int getNodeCount()
+    {
+        return distances.length;
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return Custo do menor caminho entre a origem e o nó (Infinito se não é alcançável)
+     */
+    public double getDistance(int node)
+    {
+        return distances[node];
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return Nó anterior ao nó no menor caminho, a partir da origem, ou NO_PARENT
+     */
+    public int getParent(int node)
+    {
+        return parents[node];
+    }
+
+    /**
+     * @param node Id denso do nó
+     * @return (true) se há caminho entre a origem e o nó
+     */
+    public boolean isReachable(int node)
+    {
+        return !Double.isInfinite(distances[node]);
+    }
+
+    /**
+     * Vetor das distâncias, sem cópia (Não deve ser alterado)
+     */
+    double[] getDistanceArray()
+    {
+        return distances;
+    }
+
+    /**
+     * Monta o menor caminho percorrendo os nós anteriores
+     *
+     * @param node Id denso do nó
+     * @return Ids densos dos nós do caminho no sentido das arestas (Da origem
+     * até o nó ou, na árvore reversa, do nó até a origem), ou null se o nó não
+     * é alcançável
+     */
+    public int[] getPath(int node)
+    {
+        if(!isReachable(node))
+        {
+            return null;
+        }
+
+        int length = 1;
+
+        for(int current = node; current != source; current = parents[current])
+        {
+            length++;
+        }
+
+        int[] path = new int[length];
+        int position = reverse ? 0 : (length - 1);
+        int step = reverse ? 1 : -1;
+
+        for(int current = node; ; current = parents[current])
+        {
+            path[position] = current;
+            position += step;
+
+            if(current == source)
+            {
+                break;
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * @return Memória aproximada ocupada pela árvore, em bytes
+     */
+    public long getSizeInBytes()
+    {
+        // Cabeçalhos do objeto e dos dois vetores, mais os elementos
+        return 64L + ((long) distances.length * (Double.BYTES + Integer.BYTES));
+    }
+}
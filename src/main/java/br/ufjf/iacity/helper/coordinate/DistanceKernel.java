@@ -0,0 +1,14 @@
+package br.ufjf.iacity.helper.coordinate;
+
+/**
+ * Fórmulas disponíveis para a distância entre duas coordenadas geográficas
+ * (Ver GeoCoordinate.distanceTo)
+ */
+public enum DistanceKernel
+{
+    // Distância sobre a superfície da Terra (Fórmula de Haversine)
+    Haversine,
+    
+    // Corda entre os pontos, nunca maior que a distância de Haversine
+    Chord
+}
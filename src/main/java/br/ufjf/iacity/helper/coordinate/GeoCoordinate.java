@@ -13,9 +13,20 @@ public class GeoCoordinate
     private static final double MAX_LONGITUDE = 180.0000000;
     private static final double MIN_LONGITUDE = -180.0000000;
     
+    // Radius of the earth in km
+    private static final int EARTH_RADIUS = 6371;
+    
     private double latitude;
     private double longitude;
     
+    // Cosseno da latitude, usado pela fórmula de Haversine
+    private final double cosLatitude;
+    
+    // Vetor unitário do ponto na esfera (Coordenadas cartesianas com centro na Terra)
+    private final double unitX;
+    private final double unitY;
+    private final double unitZ;
+    
     private final DecimalFormat formatPattern;
     
     public GeoCoordinate(double latitude, double longitude) throws IllegalArgumentException
@@ -26,6 +37,12 @@ public class GeoCoordinate
             
             this.latitude = latitude;
             this.longitude = longitude;
+            
+            this.cosLatitude = Math.cos(degreeToRadians(latitude));
+            
+            this.unitX = cosLatitude * Math.cos(degreeToRadians(longitude));
+            this.unitY = cosLatitude * Math.sin(degreeToRadians(longitude));
+            this.unitZ = Math.sin(degreeToRadians(latitude));
         }
         else
         {
@@ -41,32 +58,67 @@ public class GeoCoordinate
     // Haversine Formula
     public double distanceTo(GeoCoordinate other)
     {
-        // Radius of the earth in km
-        int earthRadius = 6371;
-        
         double dLat = degreeToRadians(other.getLatitude() - getLatitude());
         double dLon = degreeToRadians(other.getLongitude() - getLongitude()); 
         
         double a = 
                 Math.sin(dLat / 2) * 
                 Math.sin(dLat / 2) + 
-                Math.cos(degreeToRadians(getLatitude())) * 
-                Math.cos(degreeToRadians(other.getLatitude())) * 
+                cosLatitude * 
+                other.cosLatitude * 
                 Math.sin(dLon / 2) * 
                 Math.sin(dLon / 2);
         
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
 
-        return earthRadius * c;
+        return EARTH_RADIUS * c;
     }
     
-    public CartesianCoordinate castToCartesian()
+    /**
+     * Distância em linha reta através da Terra (Corda entre os dois pontos).
+     * 
+     * A corda nunca é maior que o arco (distanceTo), portanto continua sendo 
+     * uma heurística admissível onde a distância de Haversine é. A diferença
+     * relativa é de aproximadamente θ²/24, onde θ é o ângulo entre os pontos
+     * em radianos: cerca de 0,1% a 1000 km e 0,4% a 2000 km.
+     * 
+     * Usa apenas os vetores unitários já calculados (Sem funções
+     * trigonométricas)
+     * 
+     * @param other Outra coordenada
+     * @return Comprimento da corda em km
+     */
+    public double chordDistanceTo(GeoCoordinate other)
     {
-        // Radius of the earth in km
-        int earthRadius = 6371;
+        double dx = unitX - other.unitX;
+        double dy = unitY - other.unitY;
+        double dz = unitZ - other.unitZ;
         
-        double x = earthRadius * Math.cos(degreeToRadians(getLatitude())) * Math.cos(degreeToRadians(getLongitude()));
-        double y = earthRadius * Math.cos(degreeToRadians(getLatitude())) * Math.sin(degreeToRadians(getLongitude()));
+        return EARTH_RADIUS * Math.sqrt((dx * dx) + (dy * dy) + (dz * dz));
+    }
+    
+    /**
+     * @param other Outra coordenada
+     * @param kernel Fórmula usada no cálculo
+     * @return Distância em km entre as coordenadas
+     */
+    public double distanceTo(GeoCoordinate other, DistanceKernel kernel)
+    {
+        switch(kernel)
+        {
+            case Haversine:
+                return distanceTo(other);
+            case Chord:
+                return chordDistanceTo(other);
+            default:
+                throw new IllegalArgumentException(String.format("Fórmula de distância desconhecida: %s", kernel));
+        }
+    }
+    
+    public CartesianCoordinate castToCartesian()
+    {
+        double x = EARTH_RADIUS * Math.cos(degreeToRadians(getLatitude())) * Math.cos(degreeToRadians(getLongitude()));
+        double y = EARTH_RADIUS * Math.cos(degreeToRadians(getLatitude())) * Math.sin(degreeToRadians(getLongitude()));
         
         return new CartesianCoordinate(x, y);
     }
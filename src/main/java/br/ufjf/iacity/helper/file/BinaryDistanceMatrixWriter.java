@@ -0,0 +1,70 @@
+package br.ufjf.iacity.helper.file;
+
+import br.ufjf.iacity.graph.CityNodeGraph;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Matriz de distâncias em formato binário (Big-endian, DataOutputStream):
+ * 
+ *   int magic, int versão, int linhas, int colunas,
+ *   nomes das origens e dos destinos (writeUTF),
+ *   linhas * colunas doubles, linha a linha (Infinito se não é alcançável)
+ * 
+ * Cada distância ocupa 8 bytes, independente do valor, de forma que a posição
+ * de qualquer célula no arquivo pode ser calculada a partir do fim dos nomes
+ */
+public class BinaryDistanceMatrixWriter implements IDistanceMatrixWriter
+{
+    // Identificação e versão do formato em arquivo
+    public static final int FILE_MAGIC = 0x4941444D;
+    public static final int FILE_VERSION = 1;
+    
+    private final DataOutputStream output;
+    
+    /**
+     * @param filePath Caminho do arquivo
+     * @throws IOException 
+     */
+    public BinaryDistanceMatrixWriter(String filePath) throws IOException
+    {
+        this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath)));
+    }
+    
+    @Override
+    public void writeHeader(List<CityNodeGraph> sourceList, List<CityNodeGraph> targetList) throws IOException
+    {
+        output.writeInt(FILE_MAGIC);
+        output.writeInt(FILE_VERSION);
+        output.writeInt(sourceList.size());
+        output.writeInt(targetList.size());
+        
+        for (CityNodeGraph source : sourceList)
+        {
+            output.writeUTF(source.getIdNode());
+        }
+        
+        for (CityNodeGraph target : targetList)
+        {
+            output.writeUTF(target.getIdNode());
+        }
+    }
+    
+    @Override
+    public void writeRow(CityNodeGraph source, double[] distances) throws IOException
+    {
+        for (double distance : distances)
+        {
+            output.writeDouble(distance);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException
+    {
+        output.close();
+    }
+}
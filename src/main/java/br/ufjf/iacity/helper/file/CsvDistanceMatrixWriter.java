@@ -0,0 +1,67 @@
+package br.ufjf.iacity.helper.file;
+
+import br.ufjf.iacity.graph.CityNodeGraph;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Matriz de distâncias em CSV: a primeira linha tem as cidades de destino e
+ * cada linha seguinte começa pela cidade de origem. Destinos não alcançáveis
+ * ficam com o campo vazio
+ */
+public class CsvDistanceMatrixWriter implements IDistanceMatrixWriter
+{
+    private final BufferedWriter writer;
+    
+    /**
+     * @param filePath Caminho do arquivo
+     * @throws IOException 
+     */
+    public CsvDistanceMatrixWriter(String filePath) throws IOException
+    {
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePath), Charset.forName(FileHelper.CHARSET)));
+    }
+    
+    @Override
+    public void writeHeader(List<CityNodeGraph> sourceList, List<CityNodeGraph> targetList) throws IOException
+    {
+        writer.write("origem");
+        
+        for (CityNodeGraph target : targetList)
+        {
+            writer.write(',');
+            writer.write(FileHelper.formatCsvField(target.getIdNode()));
+        }
+        
+        writer.newLine();
+    }
+    
+    @Override
+    public void writeRow(CityNodeGraph source, double[] distances) throws IOException
+    {
+        writer.write(FileHelper.formatCsvField(source.getIdNode()));
+        
+        for (double distance : distances)
+        {
+            writer.write(',');
+            
+            if (!Double.isInfinite(distance))
+            {
+                writer.write(String.format(Locale.ROOT, "%.3f", distance));
+            }
+        }
+        
+        writer.newLine();
+    }
+    
+    @Override
+    public void close() throws IOException
+    {
+        writer.close();
+    }
+}
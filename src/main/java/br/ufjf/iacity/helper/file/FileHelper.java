@@ -1,12 +1,22 @@
 package br.ufjf.iacity.helper.file;
 
 import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch;
+import br.ufjf.iacity.graph.AbstractGraphIndex;
+import br.ufjf.iacity.graph.ArcFlags;
 import br.ufjf.iacity.graph.CityGraph;
 import br.ufjf.iacity.graph.CityNodeAdjacency;
 import br.ufjf.iacity.graph.CityNodeGraph;
+import br.ufjf.iacity.graph.CompiledCityGraph;
+import br.ufjf.iacity.graph.ContractionHierarchy;
+import br.ufjf.iacity.graph.HubLabeling;
+import br.ufjf.iacity.graph.LandmarkTable;
 import br.ufjf.iacity.helper.coordinate.GeoCoordinate;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -17,6 +27,9 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 /**
@@ -26,7 +39,13 @@ public class FileHelper
 {
     public static final String WORK_DIR = System.getProperty("user.dir") + File.separator + "workdir" + File.separator;
     public static final String IACITY_FILE_EXTENSION = "txt";
-    private static final String CHARSET = "ISO-8859-1";
+    public static final String LANDMARK_FILE_EXTENSION = "alt";
+    public static final String CONTRACTION_HIERARCHY_FILE_EXTENSION = "ch";
+    public static final String HUB_LABELING_FILE_EXTENSION = "hl";
+    public static final String ARC_FLAGS_FILE_EXTENSION = "af";
+    public static final String CSV_FILE_EXTENSION = "csv";
+    public static final String DISTANCE_MATRIX_FILE_EXTENSION = "dm";
+    static final String CHARSET = "ISO-8859-1";
     
     public static String formatFilePath(String path)
     {
@@ -170,6 +189,196 @@ public class FileHelper
         }
     }
     
+    public static <T extends AbstractGraphIndex> T loadIndexFile(String filePath, IGraphIndexReader<T> reader) throws IOException
+    {
+        try(DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath))))
+        {
+            return reader.read(input);
+        }
+    }
+    
+    public static void saveIndexFile(String filePath, AbstractGraphIndex index) throws IOException
+    {
+        try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath))))
+        {
+            index.write(output);
+        }
+    }
+    
+    /**
+     * Carrega uma estrutura pré-processada gravada junto da instância. Se o
+     * arquivo não existe, é inválido, foi gerado para outro grafo ou com
+     * outros parâmetros, a estrutura é recalculada e o arquivo é gravado 
+     * novamente
+     * 
+     * @param indexFilePath Caminho do arquivo da estrutura
+     * @param graph Grafo compilado da instância
+     * @param reader Leitura da estrutura (Ex.: LandmarkTable::read)
+     * @param matchesParameters Indica se a estrutura lida foi gerada com os parâmetros pedidos
+     * @param builder Cálculo da estrutura, se a gravada não pode ser usada
+     * @return Estrutura do grafo
+     * 
+     * @throws IOException Se não foi possível gravar o arquivo da estrutura
+     */
+    public static <T extends AbstractGraphIndex> T loadOrCreateIndexFile(String indexFilePath, CompiledCityGraph graph,
+            IGraphIndexReader<T> reader, Predicate<T> matchesParameters, Supplier<T> builder) throws IOException
+    {
+        if(new File(indexFilePath).isFile())
+        {
+            try
+            {
+                T index = loadIndexFile(indexFilePath, reader);
+                
+                if(index.isCompatible(graph) && matchesParameters.test(index))
+                {
+                    return index;
+                }
+            }
+            catch(IOException ex)
+            {
+                // Arquivo inválido ou incompleto, a estrutura é recalculada
+            }
+        }
+        
+        T index = builder.get();
+        saveIndexFile(indexFilePath, index);
+        
+        return index;
+    }
+    
+    /**
+     * @param graphFilePath Caminho do arquivo da instância
+     * @return Caminho do arquivo de marcos da instância (Na mesma pasta)
+     */
+    public static String formatLandmarkFilePath(String graphFilePath)
+    {
+        return String.format("%s.%s", graphFilePath, LANDMARK_FILE_EXTENSION);
+    }
+    
+    /**
+     * @param graphFilePath Caminho do arquivo da instância
+     * @param graph Grafo compilado da instância
+     * @param landmarkCount Quantidade de marcos
+     * @return Tabela de marcos do grafo, do arquivo ou recalculada (loadOrCreateIndexFile)
+     * 
+     * @throws IOException Se não foi possível gravar o arquivo de marcos
+     */
+    public static LandmarkTable loadOrCreateLandmarkFile(String graphFilePath, CompiledCityGraph graph, int landmarkCount) throws IOException
+    {
+        return loadOrCreateIndexFile(formatLandmarkFilePath(graphFilePath), graph, LandmarkTable::read,
+                landmarkTable -> landmarkTable.getLandmarkCount() == Math.min(landmarkCount, graph.getNodeCount()),
+                () -> LandmarkTable.create(graph, landmarkCount));
+    }
+    
+    /**
+     * @param graphFilePath Caminho do arquivo da instância
+     * @return Caminho do arquivo da hierarquia de contração da instância (Na mesma pasta)
+     */
+    public static String formatContractionHierarchyFilePath(String graphFilePath)
+    {
+        return String.format("%s.%s", graphFilePath, CONTRACTION_HIERARCHY_FILE_EXTENSION);
+    }
+    
+    /**
+     * @param graphFilePath Caminho do arquivo da instância
+     * @param graph Grafo compilado da instância
+     * @return Hierarquia de contração do grafo, do arquivo ou recalculada (loadOrCreateIndexFile)
+     * 
+     * @throws IOException Se não foi possível gravar o arquivo da hierarquia
+     */
+    public static ContractionHierarchy loadOrCreateContractionHierarchyFile(String graphFilePath, CompiledCityGraph graph) throws IOException
+    {
+        return loadOrCreateIndexFile(formatContractionHierarchyFilePath(graphFilePath), graph, ContractionHierarchy::read,
+                hierarchy -> true, () -> ContractionHierarchy.create(graph));
+    }
+    
+    /**
+     * @param graphFilePath Caminho do arquivo da instância
+     * @return Caminho do arquivo de rótulos de hubs da instância (Na mesma pasta)
+     */
+    public static String formatHubLabelingFilePath(String graphFilePath)
+    {
+        return String.format("%s.%s", graphFilePath, HUB_LABELING_FILE_EXTENSION);
+    }
+    
+    /**
+     * @param graphFilePath Caminho do arquivo da instância
+     * @param graph Grafo compilado da instância
+     * @return Rótulos de hubs do grafo, do arquivo ou recalculados (loadOrCreateIndexFile)
+     * 
+     * @throws IOException Se não foi possível gravar o arquivo de rótulos
+     */
+    public static HubLabeling loadOrCreateHubLabelingFile(String graphFilePath, CompiledCityGraph graph) throws IOException
+    {
+        return loadOrCreateIndexFile(formatHubLabelingFilePath(graphFilePath), graph, HubLabeling::read,
+                hubLabeling -> true, () -> HubLabeling.create(graph));
+    }
+    
+    /**
+     * @param graphFilePath Caminho do arquivo da instância
+     * @return Caminho do arquivo de arc flags da instância (Na mesma pasta)
+     */
+    public static String formatArcFlagsFilePath(String graphFilePath)
+    {
+        return String.format("%s.%s", graphFilePath, ARC_FLAGS_FILE_EXTENSION);
+    }
+    
+    /**
+     * @param graphFilePath Caminho do arquivo da instância
+     * @param graph Grafo compilado da instância
+     * @param regionCount Quantidade de regiões
+     * @return Arc flags do grafo, do arquivo ou recalculados (loadOrCreateIndexFile)
+     * 
+     * @throws IOException Se não foi possível gravar o arquivo de arc flags
+     */
+    public static ArcFlags loadOrCreateArcFlagsFile(String graphFilePath, CompiledCityGraph graph, int regionCount) throws IOException
+    {
+        return loadOrCreateIndexFile(formatArcFlagsFilePath(graphFilePath), graph, ArcFlags::read,
+                arcFlags -> arcFlags.getRegionCount() == Math.max(1, Math.min(regionCount, graph.getNodeCount())),
+                () -> ArcFlags.create(graph, regionCount));
+    }
+    
+    /**
+     * Cria o gravador de uma matriz de distâncias pela extensão do arquivo:
+     * CSV (.csv) ou binário (.dm)
+     * 
+     * @param filePath Caminho do arquivo
+     * @return Gravador da matriz (Deve ser fechado pelo chamador)
+     * 
+     * @throws IOException Se não foi possível criar o arquivo
+     * @throws IllegalArgumentException Se a extensão não é suportada
+     */
+    public static IDistanceMatrixWriter createDistanceMatrixWriter(String filePath) throws IOException, IllegalArgumentException
+    {
+        String lowerCasePath = filePath.toLowerCase(Locale.ROOT);
+        
+        if(lowerCasePath.endsWith("." + CSV_FILE_EXTENSION))
+        {
+            return new CsvDistanceMatrixWriter(filePath);
+        }
+        else if(lowerCasePath.endsWith("." + DISTANCE_MATRIX_FILE_EXTENSION))
+        {
+            return new BinaryDistanceMatrixWriter(filePath);
+        }
+        
+        throw new IllegalArgumentException(String.format("Formato de matriz de distâncias desconhecido (Use .%s ou .%s): %s", 
+                CSV_FILE_EXTENSION, DISTANCE_MATRIX_FILE_EXTENSION, filePath));
+    }
+    
+    /**
+     * @param value Valor do campo
+     * @return Campo CSV, entre aspas quando contém vírgula, aspas ou quebra de linha
+     */
+    public static String formatCsvField(String value)
+    {
+        if(value.contains(",") || value.contains("\"") || value.contains("\n"))
+        {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        
+        return value;
+    }
+    
     public static void saveResultFile(String filePath, AbstractAlgorithmSearch algorithmSearch) throws IOException 
     {
         try 
@@ -0,0 +1,31 @@
+package br.ufjf.iacity.helper.file;
+
+import br.ufjf.iacity.graph.CityNodeGraph;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Grava uma matriz de distâncias linha a linha, à medida que as linhas são
+ * calculadas (DistanceMatrixEngine), sem manter a matriz inteira em memória
+ */
+public interface IDistanceMatrixWriter extends Closeable
+{
+    /**
+     * Grava o cabeçalho da matriz. Deve ser chamado uma vez, antes das linhas
+     * 
+     * @param sourceList Cidades de origem (Linhas)
+     * @param targetList Cidades de destino (Colunas)
+     * @throws IOException 
+     */
+    public void writeHeader(List<CityNodeGraph> sourceList, List<CityNodeGraph> targetList) throws IOException;
+    
+    /**
+     * Grava a próxima linha da matriz (As linhas são gravadas na ordem das origens)
+     * 
+     * @param source Cidade de origem da linha
+     * @param distances Custo do menor caminho até cada destino (Infinito se não é alcançável)
+     * @throws IOException 
+     */
+    public void writeRow(CityNodeGraph source, double[] distances) throws IOException;
+}
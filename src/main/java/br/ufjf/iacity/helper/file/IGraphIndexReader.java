@@ -0,0 +1,21 @@
+package br.ufjf.iacity.helper.file;
+
+import br.ufjf.iacity.graph.AbstractGraphIndex;
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * Leitura de uma estrutura pré-processada do grafo gravada em arquivo
+ * (Ex.: LandmarkTable::read)
+ *
+ * @param <T> Tipo da estrutura
+ */
+public interface IGraphIndexReader<T extends AbstractGraphIndex>
+{
+    /**
+     * @param input Entrada de dados, posicionada no início do cabeçalho
+     * @return Estrutura lida
+     * @throws IOException Se o formato é inválido
+     */
+    public T read(DataInput input) throws IOException;
+}
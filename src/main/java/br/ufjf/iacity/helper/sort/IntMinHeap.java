@@ -0,0 +1,211 @@
+package br.ufjf.iacity.helper.sort;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Heap binário indexado de inteiros de 0 a capacity - 1 (Ids densos dos nós),
+ * ordenado por uma chave double.
+ *
+ * Oferece inserção, diminuição de chave e remoção do menor elemento em
+ * O(log n) sem criar objetos. Limpar o heap custa O(tamanho atual), de forma
+ * que a mesma instância pode ser reaproveitada por várias execuções do
+ * algoritmo de Dijkstra sobre o mesmo grafo.
+ */
+public class IntMinHeap
+{
+    private static final int NOT_IN_HEAP = -1;
+
+    // Elementos do heap e a chave de cada posição
+    private final int[] heap;
+    private final double[] keys;
+
+    // Posição de cada elemento no heap (NOT_IN_HEAP se não está no heap)
+    private final int[] positions;
+
+    private int size;
+
+    /**
+     * @param capacity Quantidade de elementos possíveis (Elementos de 0 a capacity - 1)
+     */
+    public IntMinHeap(int capacity)
+    {
+        if(capacity < 0)
+        {
+            throw new IllegalArgumentException("A capacidade do heap não deve ser negativa");
+        }
+
+        this.heap = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        this.size = 0;
+
+        Arrays.fill(this.positions, NOT_IN_HEAP);
+    }
+
+    /**
+     * Insere o elemento, ou diminui a sua chave caso já esteja no heap e a
+     * nova chave seja menor
+     *
+     * @param element Elemento
+     * @param key Chave do elemento
+     * @return (true) se o elemento foi inserido ou teve a chave diminuída
+     */
+    public boolean offer(int element, double key)
+    {
+        int position = positions[element];
+
+        if(position == NOT_IN_HEAP)
+        {
+            position = size++;
+            heap[position] = element;
+            positions[element] = position;
+        }
+        else if(key >= keys[position])
+        {
+            return false;
+        }
+
+        keys[position] = key;
+        siftUp(position);
+
+        return true;
+    }
+
+    /**
+     * @return Chave do menor elemento, sem removê-lo
+     * @throws NoSuchElementException Se o heap está vazio
+     */
+    public double peekKey() throws NoSuchElementException
+    {
+        if(size == 0)
+        {
+            throw new NoSuchElementException("O heap está vazio");
+        }
+
+        return keys[0];
+    }
+
+    /**
+     * Remove e retorna o elemento com a menor chave
+     *
+     * @return Elemento com a menor chave
+     * @throws NoSuchElementException Se o heap está vazio
+     */
+    public int poll() throws NoSuchElementException
+    {
+        if(size == 0)
+        {
+            throw new NoSuchElementException("O heap está vazio");
+        }
+
+        int minElement = heap[0];
+        positions[minElement] = NOT_IN_HEAP;
+
+        if(--size > 0)
+        {
+            heap[0] = heap[size];
+            keys[0] = keys[size];
+            positions[heap[0]] = 0;
+
+            siftDown(0);
+        }
+
+        return minElement;
+    }
+
+    /**
+     * @param element Elemento
+     * @return (true) se o elemento está no heap
+     */
+    public boolean contains(int element)
+    {
+        return (positions[element] != NOT_IN_HEAP);
+    }
+
+    public boolean isEmpty()
+    {
+        return (size == 0);
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public void clear()
+    {
+        for(int i = 0; i < size; i++)
+        {
+            positions[heap[i]] = NOT_IN_HEAP;
+        }
+
+        size = 0;
+    }
+
+    private void siftUp(int position)
+    {
+        int element = heap[position];
+        double key = keys[position];
+
+        while(position > 0)
+        {
+            int parent = (position - 1) >>> 1;
+
+            if(keys[parent] <= key)
+            {
+                break;
+            }
+
+            move(parent, position);
+            position = parent;
+        }
+
+        place(element, key, position);
+    }
+
+    private void siftDown(int position)
+    {
+        int element = heap[position];
+        double key = keys[position];
+
+        while(true)
+        {
+            int child = (2 * position) + 1;
+
+            if(child >= size)
+            {
+                break;
+            }
+
+            if(((child + 1) < size) && (keys[child + 1] < keys[child]))
+            {
+                child++;
+            }
+
+            if(keys[child] >= key)
+            {
+                break;
+            }
+
+            move(child, position);
+            position = child;
+        }
+
+        place(element, key, position);
+    }
+
+    private void move(int from, int to)
+    {
+        heap[to] = heap[from];
+        keys[to] = keys[from];
+        positions[heap[to]] = to;
+    }
+
+    private void place(int element, double key, int position)
+    {
+        heap[position] = element;
+        keys[position] = key;
+        positions[element] = position;
+    }
+}
@@ -0,0 +1,56 @@
+package br.ufjf.iacity.main.cli;
+
+/**
+ * Auxilia na leitura dos argumentos das interfaces de linha de comando
+ */
+class ArgumentHelper
+{
+    private ArgumentHelper()
+    {
+    }
+
+    /**
+     * @param args Argumentos da linha de comando
+     * @param index Posição do valor, logo após a opção
+     * @return Valor da opção
+     *
+     * @throws IllegalArgumentException Se a opção é o último argumento
+     */
+    static String nextArgument(String[] args, int index) throws IllegalArgumentException
+    {
+        if (index >= args.length)
+        {
+            throw new IllegalArgumentException(String.format("Falta o valor da opção %s", args[index - 1]));
+        }
+
+        return args[index];
+    }
+
+    /**
+     * @param value Texto do número
+     * @param errorFormat Mensagem de erro, com o texto do número no lugar de %s
+     * @return Número inteiro positivo
+     *
+     * @throws IllegalArgumentException Se o texto não é um inteiro positivo
+     */
+    static int parsePositiveInt(String value, String errorFormat) throws IllegalArgumentException
+    {
+        int count;
+
+        try
+        {
+            count = Integer.parseInt(value);
+        }
+        catch (NumberFormatException ex)
+        {
+            count = 0;
+        }
+
+        if (count < 1)
+        {
+            throw new IllegalArgumentException(String.format(errorFormat, value));
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,173 @@
+package br.ufjf.iacity.main.cli;
+
+import br.ufjf.iacity.algorithm.batch.DistanceMatrixEngine;
+import br.ufjf.iacity.graph.CityGraph;
+import br.ufjf.iacity.graph.CityNodeGraph;
+import br.ufjf.iacity.helper.file.FileHelper;
+import br.ufjf.iacity.helper.file.IDistanceMatrixWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Matriz de distâncias sem interface gráfica.
+ *
+ * Carrega um grafo e as listas de cidades de origem e de destino (Uma cidade
+ * por linha) e grava o custo do menor caminho de cada origem até cada destino,
+ * em CSV (.csv) ou em formato binário (.dm). As linhas da matriz são
+ * calculadas em paralelo e gravadas à medida que ficam prontas.
+ *
+ * Os nomes das cidades são aceitos como escritos (Ex.: "Juiz de Fora") ou no
+ * formato em que o grafo os guarda (Ex.: "Juizdefora"), sem diferenciar
+ * maiúsculas e minúsculas.
+ *
+ * Uso:
+ *   java -cp IACity.jar br.ufjf.iacity.main.cli.DistanceMatrixCLI -g grafo.txt -a origens.txt
+ *        [-b destinos.txt] -o matriz.csv|matriz.dm [-t threads]
+ *
+ * Sem -b, os destinos são as próprias origens.
+ */
+public class DistanceMatrixCLI
+{
+    private static final String USAGE =
+            "Uso: DistanceMatrixCLI -g <grafo> -a <origens> [-b <destinos>] -o <matriz.csv|matriz.dm> [-t <threads>]%n"
+            + "  -a  Cidades de origem (Linhas da matriz), uma por linha (Ex.: Juiz de Fora)%n"
+            + "  -b  Cidades de destino (Colunas da matriz), uma por linha (Padrão: as origens)%n"
+            + "  -o  Arquivo da matriz: CSV (.%s) ou binário (.%s)%n";
+
+    private String graphPath;
+    private String sourcePath;
+    private String targetPath;
+    private String matrixPath;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    public static void main(String[] args)
+    {
+        DistanceMatrixCLI cli = new DistanceMatrixCLI();
+
+        try
+        {
+            cli.parseArguments(args);
+        }
+        catch (IllegalArgumentException ex)
+        {
+            System.err.println(ex.getMessage());
+            System.err.printf(USAGE, FileHelper.CSV_FILE_EXTENSION, FileHelper.DISTANCE_MATRIX_FILE_EXTENSION);
+            System.exit(2);
+        }
+
+        try
+        {
+            cli.run();
+        }
+        catch (IOException | IllegalArgumentException | ExecutionException ex)
+        {
+            System.err.println(ex.getMessage());
+            System.exit(1);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    private void parseArguments(String[] args) throws IllegalArgumentException
+    {
+        for (int i = 0; i < args.length; i++)
+        {
+            switch (args[i])
+            {
+                case "-g":
+                    this.graphPath = ArgumentHelper.nextArgument(args, ++i);
+                    break;
+                case "-a":
+                    this.sourcePath = ArgumentHelper.nextArgument(args, ++i);
+                    break;
+                case "-b":
+                    this.targetPath = ArgumentHelper.nextArgument(args, ++i);
+                    break;
+                case "-o":
+                    this.matrixPath = ArgumentHelper.nextArgument(args, ++i);
+                    break;
+                case "-t":
+                    this.threadCount = ArgumentHelper.parsePositiveInt(ArgumentHelper.nextArgument(args, ++i), "Quantidade de threads inválida: %s");
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Opção desconhecida: %s", args[i]));
+            }
+        }
+
+        if ((graphPath == null) || (sourcePath == null) || (matrixPath == null))
+        {
+            throw new IllegalArgumentException("O grafo, o arquivo de origens e o arquivo da matriz devem ser informados");
+        }
+    }
+
+    private void run() throws IOException, InterruptedException, ExecutionException
+    {
+        CityGraph cityGraph = FileHelper.loadGraphFile(graphPath);
+        List<CityNodeGraph> sourceList = loadCityFile(cityGraph, sourcePath);
+        List<CityNodeGraph> targetList = (targetPath != null) ? loadCityFile(cityGraph, targetPath) : sourceList;
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        try (IDistanceMatrixWriter writer = FileHelper.createDistanceMatrixWriter(matrixPath))
+        {
+            DistanceMatrixEngine engine = new DistanceMatrixEngine(cityGraph, executorService,
+                    Math.max(DistanceMatrixEngine.DEFAULT_MAX_PENDING_ROWS, threadCount * 2));
+
+            long startMatrixTime = System.nanoTime();
+            engine.computeAll(sourceList, targetList, writer);
+            double matrixTime = ((System.nanoTime() - startMatrixTime) / 1e6);
+
+            System.out.printf(Locale.ROOT, "Matriz %d x %d gravada em %s (%.3f ms)%n", sourceList.size(), targetList.size(), matrixPath, matrixTime);
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Lê um arquivo de cidades. Linhas vazias ou iniciadas por '#' são ignoradas
+     */
+    private static List<CityNodeGraph> loadCityFile(CityGraph cityGraph, String filePath) throws IOException, IllegalArgumentException
+    {
+        List<String> lineList;
+
+        try (Stream<String> lines = FileHelper.loadTxtFile(filePath))
+        {
+            lineList = lines.collect(Collectors.toList());
+        }
+
+        List<CityNodeGraph> cityList = new ArrayList<>(lineList.size());
+
+        for (int i = 0; i < lineList.size(); i++)
+        {
+            String name = lineList.get(i).trim();
+
+            if (name.isEmpty() || name.startsWith("#"))
+            {
+                continue;
+            }
+
+            CityNodeGraph cityNode = cityGraph.getNode(CityGraph.formatCityName(name));
+
+            if (cityNode == null)
+            {
+                throw new IllegalArgumentException(String.format("Cidade não encontrada no grafo em %s, linha %d: %s", filePath, i + 1, name));
+            }
+
+            cityList.add(cityNode);
+        }
+
+        return cityList;
+    }
+}
@@ -0,0 +1,388 @@
+package br.ufjf.iacity.main.cli;
+
+import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch.SearchMode;
+import br.ufjf.iacity.algorithm.batch.BatchSearchEngine;
+import br.ufjf.iacity.algorithm.batch.SearchQuery;
+import br.ufjf.iacity.algorithm.batch.SearchQueryResult;
+import br.ufjf.iacity.algorithm.search.AlgorithmParameter;
+import br.ufjf.iacity.algorithm.transition.AlphabeticalTransition;
+import br.ufjf.iacity.graph.ArcFlags;
+import br.ufjf.iacity.graph.DijkstraEngine;
+import br.ufjf.iacity.graph.CityGraph;
+import br.ufjf.iacity.graph.CityNodeGraph;
+import br.ufjf.iacity.graph.LandmarkTable;
+import br.ufjf.iacity.helper.coordinate.DistanceKernel;
+import br.ufjf.iacity.helper.file.FileHelper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Execução em lote sem interface gráfica.
+ * 
+ * Carrega um grafo, lê um arquivo de consultas com um par de cidades por linha
+ * (Ex.: "<Juiz de Fora, Belo Horizonte>", com ou sem os espaços e sem 
+ * diferenciar maiúsculas e minúsculas) e responde todas as consultas com o 
+ * algoritmo escolhido. O resultado de cada consulta e o resumo do lote 
+ * (Consultas por segundo e latências p50/p95/p99) são escritos em CSV.
+ * 
+ * Uso:
+ *   java -cp IACity.jar br.ufjf.iacity.main.cli.IACityCLI -g grafo.txt -q consultas.txt -m A
+ *        [-o resultado.csv] [-s resumo.csv] [-t threads] [-d] [-k Haversine|Chord] [-l marcos] [-r regiões]
+ * 
+ * No modo ALT, a tabela de marcos é lida do arquivo grafo.txt.alt, no modo
+ * CH, a hierarquia de contração é lida do arquivo grafo.txt.ch e, no modo HL,
+ * os rótulos de hubs são lidos do arquivo grafo.txt.hl. Os arquivos são
+ * criados (Ou recriados, se o grafo mudou) quando necessário. No modo
+ * Dijkstra, as árvores de menores caminhos de cada origem ficam em memória
+ * durante o lote.
+ * 
+ * Com -r, as buscas com custo (Ex.: A, Ordered) ignoram as arestas que não
+ * levam à região do destino, pelos arc flags lidos do arquivo grafo.txt.af.
+ * 
+ * Sem -o/-s, o resultado e o resumo são escritos na saída padrão.
+ */
+public class IACityCLI 
+{
+    private static final String USAGE = 
+            "Uso: IACityCLI -g <grafo> -q <consultas> -m <algoritmo> [-o <resultado.csv>] [-s <resumo.csv>] [-t <threads>] [-d] [-k <distância>] [-l <marcos>] [-r <regiões>]%n"
+            + "  Algoritmos: %s%n"
+            + "  -d  Permite estados duplicados na árvore de busca%n"
+            + "  -k  Fórmula da distância usada pela heurística: %s (Padrão: Haversine)%n"
+            + "  -l  Quantidade de marcos do modo ALT (Padrão: %d)%n"
+            + "  -r  Quantidade de regiões dos arc flags, de 1 a %d (Sem -r, as arestas não são podadas)%n";
+    
+    private static final String RESULT_HEADER = "inicio,fim,algoritmo,estado,custo,profundidade,expandidos,visitados,gerados,max_abertos,tempo_busca_ms,tempo_consulta_ms,caminho";
+    private static final String SUMMARY_HEADER = "algoritmo,threads,consultas,sucessos,tempo_total_ms,consultas_por_segundo,p50_ms,p95_ms,p99_ms";
+    
+    private String graphPath;
+    private String queryPath;
+    private String resultPath;
+    private String summaryPath;
+    private SearchMode searchMode;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private boolean enableDuplicated = false;
+    private DistanceKernel distanceKernel = DistanceKernel.Haversine;
+    private int landmarkCount = LandmarkTable.DEFAULT_LANDMARK_COUNT;
+    private int regionCount = 0;
+    
+    public static void main(String[] args) 
+    {
+        IACityCLI cli = new IACityCLI();
+        
+        try
+        {
+            cli.parseArguments(args);
+        }
+        catch (IllegalArgumentException ex)
+        {
+            System.err.println(ex.getMessage());
+            System.err.printf(USAGE, Arrays.toString(SearchMode.values()), Arrays.toString(DistanceKernel.values()), 
+                    LandmarkTable.DEFAULT_LANDMARK_COUNT, ArcFlags.MAX_REGION_COUNT);
+            System.exit(2);
+        }
+        
+        try
+        {
+            cli.run();
+        }
+        catch (IOException | IllegalArgumentException | ExecutionException ex)
+        {
+            System.err.println(ex.getMessage());
+            System.exit(1);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+    
+    private void parseArguments(String[] args) throws IllegalArgumentException
+    {
+        for (int i = 0; i < args.length; i++)
+        {
+            switch (args[i])
+            {
+                case "-g":
+                    this.graphPath = ArgumentHelper.nextArgument(args, ++i);
+                    break;
+                case "-q":
+                    this.queryPath = ArgumentHelper.nextArgument(args, ++i);
+                    break;
+                case "-m":
+                    this.searchMode = parseSearchMode(ArgumentHelper.nextArgument(args, ++i));
+                    break;
+                case "-o":
+                    this.resultPath = ArgumentHelper.nextArgument(args, ++i);
+                    break;
+                case "-s":
+                    this.summaryPath = ArgumentHelper.nextArgument(args, ++i);
+                    break;
+                case "-t":
+                    this.threadCount = ArgumentHelper.parsePositiveInt(ArgumentHelper.nextArgument(args, ++i), "Quantidade de threads inválida: %s");
+                    break;
+                case "-d":
+                    this.enableDuplicated = true;
+                    break;
+                case "-k":
+                    this.distanceKernel = parseDistanceKernel(ArgumentHelper.nextArgument(args, ++i));
+                    break;
+                case "-l":
+                    this.landmarkCount = ArgumentHelper.parsePositiveInt(ArgumentHelper.nextArgument(args, ++i), "Quantidade de marcos inválida: %s");
+                    break;
+                case "-r":
+                    this.regionCount = ArgumentHelper.parsePositiveInt(ArgumentHelper.nextArgument(args, ++i), "Quantidade de regiões inválida: %s");
+                    
+                    if (this.regionCount > ArcFlags.MAX_REGION_COUNT)
+                    {
+                        throw new IllegalArgumentException(String.format("Quantidade de regiões inválida: %d (Máximo: %d)", regionCount, ArcFlags.MAX_REGION_COUNT));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Opção desconhecida: %s", args[i]));
+            }
+        }
+        
+        if ((graphPath == null) || (queryPath == null) || (searchMode == null))
+        {
+            throw new IllegalArgumentException("O grafo, o arquivo de consultas e o algoritmo devem ser informados");
+        }
+    }
+    
+    private static SearchMode parseSearchMode(String value) throws IllegalArgumentException
+    {
+        for (SearchMode mode : SearchMode.values())
+        {
+            if (mode.toString().equalsIgnoreCase(value))
+            {
+                return mode;
+            }
+        }
+        
+        throw new IllegalArgumentException(String.format("Algoritmo desconhecido: %s", value));
+    }
+    
+    private static DistanceKernel parseDistanceKernel(String value) throws IllegalArgumentException
+    {
+        for (DistanceKernel kernel : DistanceKernel.values())
+        {
+            if (kernel.toString().equalsIgnoreCase(value))
+            {
+                return kernel;
+            }
+        }
+        
+        throw new IllegalArgumentException(String.format("Fórmula de distância desconhecida: %s", value));
+    }
+    
+    private void run() throws IOException, InterruptedException, ExecutionException
+    {
+        CityGraph cityGraph = FileHelper.loadGraphFile(graphPath);
+        List<SearchQuery> queryList = loadQueryFile(cityGraph);
+        
+        // Parâmetros comuns às consultas, com o pré-processamento que o algoritmo usa
+        AlgorithmParameter sharedParameter = new AlgorithmParameter();
+        sharedParameter.setDistanceKernel(distanceKernel);
+        
+        if (SearchMode.ALT.equals(searchMode))
+        {
+            sharedParameter.setLandmarkTable(FileHelper.loadOrCreateLandmarkFile(graphPath, cityGraph.getCompiledGraph(), landmarkCount));
+        }
+        else if (SearchMode.CH.equals(searchMode))
+        {
+            sharedParameter.setContractionHierarchy(FileHelper.loadOrCreateContractionHierarchyFile(graphPath, cityGraph.getCompiledGraph()));
+        }
+        else if (SearchMode.HL.equals(searchMode))
+        {
+            sharedParameter.setHubLabeling(FileHelper.loadOrCreateHubLabelingFile(graphPath, cityGraph.getCompiledGraph()));
+        }
+        else if (SearchMode.Dijkstra.equals(searchMode))
+        {
+            // As consultas com a mesma origem reaproveitam a árvore de menores caminhos
+            sharedParameter.setDijkstraEngine(new DijkstraEngine(cityGraph.getCompiledGraph()));
+        }
+        
+        if (regionCount > 0)
+        {
+            sharedParameter.setArcFlags(FileHelper.loadOrCreateArcFlagsFile(graphPath, cityGraph.getCompiledGraph(), regionCount));
+        }
+        
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        
+        try
+        {
+            BatchSearchEngine engine = new BatchSearchEngine(cityGraph, AlphabeticalTransition::new, executorService, sharedParameter);
+            
+            long startBatchTime = System.nanoTime();
+            List<SearchQueryResult> resultList = engine.searchAll(queryList);
+            double batchTime = ((System.nanoTime() - startBatchTime) / 1e6);
+            
+            writeLines(resultPath, formatResults(resultList));
+            writeLines(summaryPath, formatSummary(resultList, batchTime));
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+    
+    /**
+     * Lê o arquivo de consultas. Linhas vazias ou iniciadas por '#' são ignoradas
+     */
+    private List<SearchQuery> loadQueryFile(CityGraph cityGraph) throws IOException, IllegalArgumentException
+    {
+        List<String> lineList;
+        
+        try (Stream<String> lines = FileHelper.loadTxtFile(queryPath))
+        {
+            lineList = lines.collect(Collectors.toList());
+        }
+        
+        List<SearchQuery> queryList = new ArrayList<>(lineList.size());
+        
+        for (int i = 0; i < lineList.size(); i++)
+        {
+            String line = lineList.get(i).trim();
+            
+            if (line.isEmpty() || line.startsWith("#"))
+            {
+                continue;
+            }
+            
+            if (line.startsWith("<") && line.endsWith(">"))
+            {
+                line = line.substring(1, line.length() - 1);
+            }
+            
+            String[] cities = line.split(",");
+            
+            if (cities.length != 2)
+            {
+                throw new IllegalArgumentException(String.format("Consulta inválida na linha %d: %s", i + 1, lineList.get(i)));
+            }
+            
+            CityNodeGraph startCityNode = findCity(cityGraph, cities[0].trim(), i + 1);
+            CityNodeGraph endCityNode = findCity(cityGraph, cities[1].trim(), i + 1);
+            
+            queryList.add(new SearchQuery(startCityNode, endCityNode, searchMode, enableDuplicated));
+        }
+        
+        return queryList;
+    }
+    
+    private static CityNodeGraph findCity(CityGraph cityGraph, String name, int lineNumber) throws IllegalArgumentException
+    {
+        // O nome é aceito como escrito (Ex.: "Juiz de Fora"), no formato em que o grafo guarda os nomes
+        CityNodeGraph cityNode = cityGraph.getNode(CityGraph.formatCityName(name));
+        
+        if (cityNode == null)
+        {
+            throw new IllegalArgumentException(String.format("Cidade não encontrada no grafo na linha %d: %s", lineNumber, name));
+        }
+        
+        return cityNode;
+    }
+    
+    private static List<String> formatResults(List<SearchQueryResult> resultList)
+    {
+        List<String> lineList = new ArrayList<>(resultList.size() + 1);
+        lineList.add(RESULT_HEADER);
+        
+        for (SearchQueryResult result : resultList)
+        {
+            SearchQuery query = result.getQuery();
+            
+            lineList.add(String.join(",",
+                    FileHelper.formatCsvField(query.getStartCityNode().getIdNode()),
+                    FileHelper.formatCsvField(query.getEndCityNode().getIdNode()),
+                    query.getSearchMode().toString(),
+                    result.getSearchState().toString(),
+                    formatNumber(result.getSolutionCost()),
+                    String.valueOf(result.getSolutionDepth()),
+                    String.valueOf(result.getExpandedNodeCount()),
+                    String.valueOf(result.getVisitedNodeCount()),
+                    String.valueOf(result.getGeneratedNodeCount()),
+                    String.valueOf(result.getMaxOpenListSize()),
+                    formatNumber(result.getExecutionTime()),
+                    formatNumber(result.getQueryTime()),
+                    FileHelper.formatCsvField(String.join(";", result.getSolutionList()))));
+        }
+        
+        return lineList;
+    }
+    
+    private List<String> formatSummary(List<SearchQueryResult> resultList, double batchTime)
+    {
+        double[] latencies = new double[resultList.size()];
+        int successCount = 0;
+        
+        for (int i = 0; i < latencies.length; i++)
+        {
+            latencies[i] = resultList.get(i).getQueryTime();
+            
+            if (resultList.get(i).isSuccess())
+            {
+                successCount++;
+            }
+        }
+        
+        Arrays.sort(latencies);
+        
+        double throughput = (batchTime > 0) ? (resultList.size() / (batchTime / 1e3)) : 0;
+        
+        return Arrays.asList(SUMMARY_HEADER, String.join(",",
+                searchMode.toString(),
+                String.valueOf(threadCount),
+                String.valueOf(resultList.size()),
+                String.valueOf(successCount),
+                formatNumber(batchTime),
+                formatNumber(throughput),
+                formatNumber(percentile(latencies, 50)),
+                formatNumber(percentile(latencies, 95)),
+                formatNumber(percentile(latencies, 99))));
+    }
+    
+    /**
+     * Percentil pelo método do posto mais próximo
+     * 
+     * @param sortedValues Valores em ordem crescente
+     * @param percent Percentil (0 a 100)
+     * @return Valor do percentil, ou 0 se não há valores
+     */
+    private static double percentile(double[] sortedValues, double percent)
+    {
+        if (sortedValues.length == 0)
+        {
+            return 0;
+        }
+        
+        int rank = (int) Math.ceil((percent / 100) * sortedValues.length);
+        
+        return sortedValues[Math.max(rank, 1) - 1];
+    }
+    
+    private static String formatNumber(double value)
+    {
+        return Double.isInfinite(value) ? "" : String.format(Locale.ROOT, "%.3f", value);
+    }
+    
+    private static void writeLines(String filePath, List<String> lineList) throws IOException
+    {
+        if (filePath == null)
+        {
+            lineList.forEach(System.out::println);
+        }
+        else
+        {
+            FileHelper.saveTxtFile(filePath, lineList);
+        }
+    }
+}
@@ -1,13 +1,8 @@
 package br.ufjf.iacity.main.gui;
 
-import br.ufjf.iacity.algorithm.ASearch;
 import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch;
 import br.ufjf.iacity.algorithm.AbstractAlgorithmSearch.SearchMode;
-import br.ufjf.iacity.algorithm.BacktrackingSearch;
-import br.ufjf.iacity.algorithm.BestFirstSearch;
-import br.ufjf.iacity.algorithm.BreadthAndDepthSearch;
-import br.ufjf.iacity.algorithm.IDASearch;
-import br.ufjf.iacity.algorithm.OrderedSearch;
+import br.ufjf.iacity.algorithm.AlgorithmSearchFactory;
 import br.ufjf.iacity.algorithm.events.ISearchStartedEventListener;
 import br.ufjf.iacity.algorithm.events.ISearchStatusChangedEventListener;
 import br.ufjf.iacity.algorithm.events.ISearchStoppedEventListener;
@@ -880,31 +875,8 @@ public class IACityGUI extends JFrame implements
         }
         else
         {
-            // Reseta o grafo para o estado inicial
-            searchParameter.getGraph().resetState();
-
-            switch (searchParameter.getSearchMode().toString().toUpperCase())
-            {
-                case "BACKTRACKING":
-                    algorithmSearch = new BacktrackingSearch(searchParameter);
-                    break;
-                case "BREADTH":
-                case "DEPTH":
-                    algorithmSearch = new BreadthAndDepthSearch(searchParameter);
-                    break;
-                case "ORDERED":
-                    algorithmSearch = new OrderedSearch(searchParameter);
-                    break;
-                case "BESTFIRST":
-                    algorithmSearch = new BestFirstSearch(searchParameter);
-                    break;
-                case "A":
-                    algorithmSearch = new ASearch(searchParameter);
-                    break;
-                case "IDA":
-                    algorithmSearch = new IDASearch(searchParameter);
-                    break;
-            }
+            // Cria o algoritmo de acordo com o modo de busca selecionado
+            algorithmSearch = AlgorithmSearchFactory.createSearch(searchParameter);
             
             if(algorithmSearch != null)
             {